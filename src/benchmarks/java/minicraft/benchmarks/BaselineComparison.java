@@ -0,0 +1,123 @@
+package minicraft.benchmarks;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares JMH results in JSON against a stored baseline, and fails when a benchmark has become slower by more than
+ * the allowed percentage. Benchmarks missing from either side are listed, but are not failures.
+ * <p>
+ * Usage: {@code BaselineComparison <baseline.json> <results.json> [allowed regression in %, default 10]}
+ */
+public final class BaselineComparison {
+	private BaselineComparison() {}
+
+	private static class Result {
+		private final String mode;
+		private final double score, error;
+		private final String unit;
+
+		private Result(String mode, double score, double error, String unit) {
+			this.mode = mode;
+			this.score = score;
+			this.error = error;
+			this.unit = unit;
+		}
+
+		/** @return whether a higher score is better, as for throughput */
+		private boolean higherIsBetter() {
+			return mode.equals("thrpt");
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [allowed regression in %]");
+			System.exit(2);
+		}
+
+		Path baselineFile = Paths.get(args[0]);
+		if (!Files.exists(baselineFile)) {
+			System.out.println("No baseline at " + baselineFile + "; store one with the jmhBaseline task.");
+			return;
+		}
+
+		double allowed = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+		Map<String, Result> baseline = read(baselineFile);
+		Map<String, Result> results = read(Paths.get(args[1]));
+
+		int regressions = 0;
+		System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+		for (Map.Entry<String, Result> entry : results.entrySet()) {
+			Result current = entry.getValue();
+			Result base = baseline.get(entry.getKey());
+			if (base == null) {
+				System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", current.score, "new");
+				continue;
+			}
+
+			if (!base.mode.equals(current.mode) || !base.unit.equals(current.unit)) {
+				System.out.printf("%-70s %14s %14s %9s%n", entry.getKey(), base.unit, current.unit, "changed");
+				continue;
+			}
+
+			// The change in percent, positive being worse.
+			double change = (current.score - base.score) / base.score * 100;
+			if (current.higherIsBetter()) change = -change;
+			// Differences within the measurement errors are not counted.
+			boolean significant = Math.abs(current.score - base.score) > base.error + current.error;
+			boolean regressed = significant && change > allowed;
+			if (regressed) regressions++;
+			System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), base.score, current.score, change,
+				regressed ? " REGRESSED" : "");
+		}
+
+		for (String key : baseline.keySet())
+			if (!results.containsKey(key))
+				System.out.printf("%-70s %14.3f %14s %9s%n", key, baseline.get(key).score, "-", "missing");
+
+		if (regressions > 0) {
+			System.out.println(regressions + " benchmark(s) regressed by more than " + allowed + "%.");
+			System.exit(1);
+		}
+	}
+
+	private static Map<String, Result> read(Path file) throws IOException {
+		JSONArray runs = new JSONArray(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+		Map<String, Result> results = new LinkedHashMap<>();
+		for (int i = 0; i < runs.length(); i++) {
+			JSONObject run = runs.getJSONObject(i);
+			JSONObject metric = run.getJSONObject("primaryMetric");
+			double error = metric.optDouble("scoreError", 0);
+			if (Double.isNaN(error)) error = 0; // Too few measurements to tell.
+			results.put(key(run), new Result(run.getString("mode"), metric.getDouble("score"), error, metric.getString("scoreUnit")));
+		}
+
+		return results;
+	}
+
+	// The benchmark name, shortened to the class and method, and its parameters.
+	private static String key(JSONObject run) {
+		String name = run.getString("benchmark");
+		int method = name.lastIndexOf('.');
+		int cls = name.lastIndexOf('.', method - 1);
+		StringBuilder key = new StringBuilder(name.substring(cls + 1));
+		JSONObject params = run.optJSONObject("params");
+		if (params != null) {
+			TreeMap<String, Object> sorted = new TreeMap<>(params.toMap());
+			for (Map.Entry<String, Object> param : sorted.entrySet())
+				key.append(' ').append(param.getKey()).append('=').append(param.getValue());
+		}
+
+		return key.toString();
+	}
+}
@@ -0,0 +1,73 @@
+package minicraft.benchmarks;
+
+import minicraft.level.ChunkManager;
+import minicraft.level.tile.Tile;
+import minicraft.level.tile.Tiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tile reads and writes through the chunk map, at random positions over a loaded area of 4 by 4 chunks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkManagerBenchmark {
+	private static final int SIZE = ChunkManager.CHUNK_SIZE * 4;
+	private static final int ACCESSES = 4096; // Per invocation.
+
+	private ChunkManager chunks;
+	private int[] xs, ys;
+	private Tile[] tiles;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		chunks = new ChunkManager();
+		tiles = new Tile[] { Tiles.get("Grass"), Tiles.get("Dirt"), Tiles.get("Sand"), Tiles.get("Rock") };
+		Random random = new Random(1);
+		for (int y = 0; y < SIZE; y++)
+			for (int x = 0; x < SIZE; x++)
+				chunks.setTile(x, y, tiles[random.nextInt(tiles.length)], 0);
+
+		xs = new int[ACCESSES];
+		ys = new int[ACCESSES];
+		for (int i = 0; i < ACCESSES; i++) {
+			xs[i] = random.nextInt(SIZE);
+			ys[i] = random.nextInt(SIZE);
+		}
+	}
+
+	@Benchmark
+	public void getTile(Blackhole blackhole) {
+		for (int i = 0; i < ACCESSES; i++)
+			blackhole.consume(chunks.getTile(xs[i], ys[i]));
+	}
+
+	@Benchmark
+	public void getData(Blackhole blackhole) {
+		for (int i = 0; i < ACCESSES; i++)
+			blackhole.consume(chunks.getData(xs[i], ys[i]));
+	}
+
+	@Benchmark
+	public void setTile() {
+		for (int i = 0; i < ACCESSES; i++)
+			chunks.setTile(xs[i], ys[i], tiles[i & 3], i & 7);
+	}
+}
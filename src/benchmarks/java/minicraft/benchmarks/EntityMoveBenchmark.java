@@ -0,0 +1,86 @@
+package minicraft.benchmarks;
+
+import minicraft.entity.Entity;
+import minicraft.entity.mob.Cow;
+import minicraft.gfx.Screen;
+import minicraft.level.Level;
+import minicraft.level.tile.Tile;
+import minicraft.level.tile.Tiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The collision checks of {@link Entity#move(int, int)}: walking back and forth over open ground,
+ * and pushing against a rock wall, among a crowd of mobs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMoveBenchmark {
+	private static final int SIZE = 64;
+	private static final int START = SIZE / 2 * Tile.TILE_PIXELS + Tile.TILE_CENTER;
+
+	@Param({ "0", "200" })
+	public int crowd;
+
+	/** An entity only moving, without the mob movement rules. */
+	private static class Walker extends Entity {
+		private Walker() {
+			super(4, 3);
+		}
+
+		@Override
+		public void render(Screen screen) {}
+
+		@Override
+		public void tick() {}
+	}
+
+	private Walker walker;
+	private Walker blocked;
+	private int step = 1;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		Level level = new Level(SIZE, SIZE, 42L, 0, null, false);
+		for (int y = 0; y < SIZE; y++) // A rock wall to walk into.
+			level.setTile(SIZE / 2 + 2, y, Tiles.get("Rock"));
+
+		Random random = new Random(1);
+		for (int i = 0; i < crowd; i++)
+			level.add(new Cow(), random.nextInt(SIZE), random.nextInt(SIZE), true);
+
+		walker = new Walker();
+		level.add(walker, START, START);
+		blocked = new Walker();
+		level.add(blocked, START + Tile.TILE_PIXELS + Tile.TILE_CENTER - 4, START + Tile.TILE_PIXELS);
+		level.tick(false); // Adds the pending entities.
+	}
+
+	@Benchmark
+	public boolean walk() {
+		if ((walker.x - START) * step >= Tile.TILE_PIXELS) step = -step; // Turns around after a tile.
+		return walker.move(step, 0);
+	}
+
+	@Benchmark
+	public boolean pushWall() {
+		return blocked.move(1, 0);
+	}
+}
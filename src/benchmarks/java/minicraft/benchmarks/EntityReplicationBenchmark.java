@@ -0,0 +1,151 @@
+package minicraft.benchmarks;
+
+import minicraft.entity.Entity;
+import minicraft.entity.mob.Cow;
+import minicraft.level.Level;
+import minicraft.network.Connection;
+import minicraft.network.EntityReplication;
+import minicraft.network.EntitySnapshot;
+import minicraft.network.Message;
+import minicraft.network.MinicraftProtocol.InputType;
+import minicraft.network.PayloadWriter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The entity updates a client of the dedicated server gets, with 500 mobs wandering around: each update is written
+ * from the next snapshot, and goes over a loopback socket to a client which applies it and acknowledges it.
+ * The snapshots are recorded before, 3 ticks apart as on the server, so the ticks are not measured.
+ * The {@code delta} mode is what the server does; {@code full} sends a full snapshot every time, for comparison.
+ * <p>
+ * The bandwidth per client is the {@code bytes} counter over the {@code updates} counter, times 20 updates per second;
+ * it is also printed at the end of each run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityReplicationBenchmark {
+	private static final int SIZE = 128;
+	private static final int MOBS = 500;
+	private static final int TICKS_PER_UPDATE = 3;
+	private static final int RECORDED_UPDATES = 300; // Replayed in a loop, after a jump back to the first one.
+	private static final int UPDATES_PER_SECOND = 60 / TICKS_PER_UPDATE;
+
+	@Param({ "delta", "full" })
+	public String mode;
+
+	/** The traffic from the server to the client, in the payloads of the updates. */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Traffic {
+		public long bytes;
+		public long updates;
+	}
+
+	private final EntitySnapshot[] snapshots = new EntitySnapshot[RECORDED_UPDATES];
+	private int next = 0;
+	private final EntityReplication.Sender sender = new EntityReplication.Sender();
+	private final EntityReplication.Receiver receiver = new EntityReplication.Receiver();
+	private final PayloadWriter payload = new PayloadWriter();
+	private final PayloadWriter ack = new PayloadWriter();
+	private Connection server, client;
+	private long totalBytes, totalUpdates;
+
+	@Setup
+	public void setup() throws IOException {
+		Headless.init();
+		Level level = new Level(SIZE, SIZE, 42L, 0, null, false);
+		Random random = new Random(1);
+		ArrayList<Entity> mobs = new ArrayList<>();
+		for (int i = 0; i < MOBS; i++) {
+			Cow cow = new Cow();
+			level.add(cow, random.nextInt(SIZE), random.nextInt(SIZE), true);
+			mobs.add(cow);
+		}
+		level.tick(false); // Adds the pending entities.
+
+		// The mobs are ticked without the level, which would despawn them as there is no player.
+		for (int i = 0; i < RECORDED_UPDATES; i++) {
+			for (int tick = 0; tick < TICKS_PER_UPDATE; tick++)
+				for (Entity mob : mobs) mob.tick();
+			snapshots[i] = EntitySnapshot.capture(mobs);
+		}
+
+		try (ServerSocketChannel listener = ServerSocketChannel.open()) {
+			listener.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			SocketChannel clientChannel = SocketChannel.open(listener.getLocalAddress());
+			SocketChannel serverChannel = listener.accept();
+			serverChannel.socket().setTcpNoDelay(true);
+			clientChannel.socket().setTcpNoDelay(true);
+			server = new Connection(serverChannel);
+			client = new Connection(clientChannel);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		server.close();
+		client.close();
+		if (totalUpdates > 0) {
+			long bytesPerUpdate = totalBytes / totalUpdates;
+			System.out.println(mode + ": " + bytesPerUpdate + " bytes per update, " +
+				bytesPerUpdate * UPDATES_PER_SECOND / 1024 + " KiB/s per client");
+		}
+	}
+
+	@Benchmark
+	public EntitySnapshot update(Traffic traffic) throws IOException {
+		EntitySnapshot snapshot = snapshots[next];
+		next = (next + 1) % RECORDED_UPDATES;
+		if (mode.equals("full")) sender.acknowledge(EntityReplication.FULL); // Never has a baseline.
+		if (sender.write(snapshot, payload)) {
+			server.send(InputType.ENTITIES, payload);
+			server.flush();
+			traffic.bytes += payload.length();
+			traffic.updates++;
+			totalBytes += payload.length();
+			totalUpdates++;
+		}
+
+		Message update = receive(client);
+		int acknowledgement = receiver.receive(update);
+		if (acknowledgement != EntityReplication.Receiver.NO_ACK) {
+			client.send(InputType.ACK, ack.reset().putInt(acknowledgement));
+			client.flush();
+			sender.acknowledge(receive(server).getInt());
+		}
+
+		return receiver.getSnapshot();
+	}
+
+	// The channels are blocking.
+	private static Message receive(Connection connection) throws IOException {
+		Message message;
+		while ((message = connection.poll()) == null)
+			if (!connection.read()) throw new IOException("Connection closed");
+		return message;
+	}
+}
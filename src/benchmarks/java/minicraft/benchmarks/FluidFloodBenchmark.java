@@ -0,0 +1,81 @@
+package minicraft.benchmarks;
+
+import minicraft.level.ChunkManager;
+import minicraft.level.ChunkTickets;
+import minicraft.level.Level;
+import minicraft.level.tile.Tile;
+import minicraft.level.tile.Tiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flooding a 256 by 256 cave of holes from a corner, with water or lava, until the fluid settles; each invocation digs
+ * the cave again first, which {@code dig} measures alone. {@code tickSettled} is the cost of a tick of the tiles of the
+ * flooded cave, which the settled fluid should add nothing to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FluidFloodBenchmark {
+	private static final int SIZE = 256;
+
+	@Param({ "Water", "Lava" })
+	public String fluid;
+
+	private Level level;
+	private Tile fluidTile, hole;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		// An empty level, of which the chunks of the cave are generated, and held ticking so that the fluid flows.
+		level = new Level(SIZE, SIZE, 42L, -1, null, false);
+		int chunks = SIZE / ChunkManager.CHUNK_SIZE;
+		level.tickets.hold(this, new ChunkTickets.Ticket(ChunkTickets.Type.FORCED, ChunkTickets.Status.TICKING,
+			(chunks - 1) / 2, (chunks - 1) / 2, chunks / 2));
+		fluidTile = Tiles.get(fluid);
+		hole = Tiles.get("hole");
+		flood();
+	}
+
+	@Benchmark
+	public Level dig() {
+		// Straight into the chunks, as the cave is not a change the fluids should see.
+		for (int y = 0; y < SIZE; y++)
+			for (int x = 0; x < SIZE; x++)
+				level.chunkManager.setTile(x, y, hole, 0);
+		return level;
+	}
+
+	@Benchmark
+	public int flood() {
+		dig();
+		level.setTile(0, 0, fluidTile);
+		int ticks = 0;
+		while (level.fluids.getCount() > 0) {
+			level.fluids.tick();
+			ticks++;
+		}
+		return ticks;
+	}
+
+	@Benchmark
+	public Level tickSettled() {
+		level.tick(true);
+		return level;
+	}
+}
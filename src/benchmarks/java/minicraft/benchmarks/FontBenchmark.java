@@ -0,0 +1,66 @@
+package minicraft.benchmarks;
+
+import minicraft.gfx.Color;
+import minicraft.gfx.Font;
+import minicraft.gfx.Screen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text drawing, with a page of the game guide as laid out by the book display.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FontBenchmark {
+	// The page of the book display.
+	private static final int PAGE_WIDTH = 8 * 32, PAGE_HEIGHT = 8 << 4, SPACING = 3;
+
+	private Screen screen;
+	private String book;
+	private String[] page;
+	private int counter = 0;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		screen = Headless.createScreen();
+		book = Headless.readText("/assets/books/game_guide.txt");
+		page = Font.getLines(book, PAGE_WIDTH, PAGE_HEIGHT, SPACING, true);
+	}
+
+	@Benchmark
+	public Screen drawPage() {
+		screen.clear(0);
+		for (int i = 0; i < page.length - 1; i++) // The last line is the remainder of the book.
+			Font.draw(page[i], screen, 15, 40 + i * (Font.textHeight() + SPACING), Color.WHITE);
+		screen.flush();
+		return screen;
+	}
+
+	@Benchmark
+	public Screen drawChangingLine() {
+		screen.clear(0);
+		Font.draw("Score: " + counter++, screen, 2, 2, Color.WHITE); // Not the same text twice.
+		screen.flush();
+		return screen;
+	}
+
+	@Benchmark
+	public String[] layoutPage() {
+		return Font.getLines(book, PAGE_WIDTH, PAGE_HEIGHT, SPACING, true);
+	}
+}
@@ -0,0 +1,100 @@
+package minicraft.benchmarks;
+
+import minicraft.core.Game;
+import minicraft.core.Renderer;
+import minicraft.core.World;
+import minicraft.gfx.MinicraftImage;
+import minicraft.gfx.Screen;
+import minicraft.gfx.SpriteLinker.SpriteType;
+import minicraft.level.Level;
+import minicraft.level.tile.Tiles;
+import minicraft.util.AsyncLogger;
+import minicraft.util.Logging;
+
+import javax.imageio.ImageIO;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Sets up the parts of the game the benchmarks need, without a window or an audio device.
+ * This mirrors what {@link Game#main(String[])} does, minus the frame, the displays and the resource pack handling.
+ */
+final class Headless {
+	private Headless() {}
+
+	private static boolean initialized = false;
+
+	/**
+	 * Initializes the game state shared by the benchmarks. Repeated calls do nothing.
+	 */
+	static synchronized void init() {
+		if (initialized) return;
+		System.setProperty("java.awt.headless", "true");
+
+		try {
+			Game.gameDir = Files.createTempDirectory("minicraft-benchmarks").toString();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		Logging.WORLDNAMED = new AsyncLogger("World/BENCHMARK"); // Normally set when a world is started.
+		Tiles.initTileList();
+
+		Renderer.spriteLinker.setSprite(SpriteType.Gui, "font", new MinicraftImage(readImage("/assets/textures/gui/font.png")));
+		Renderer.spriteLinker.setSprite(SpriteType.Gui, "hud", new MinicraftImage(readImage("/assets/textures/gui/hud.png")));
+		Renderer.spriteLinker.updateLinkedSheets();
+		initialized = true;
+	}
+
+	/**
+	 * Creates a screen of the game size, drawing into an offscreen image.
+	 */
+	static Screen createScreen() {
+		return new Screen(new BufferedImage(Screen.W, Screen.H, BufferedImage.TYPE_INT_RGB));
+	}
+
+	/**
+	 * Generates all the levels of a world, as {@link World} does.
+	 * @param size the width and height of the levels
+	 * @param seed the world seed
+	 * @return the levels, indexed like {@link World#levels}
+	 */
+	static Level[] createWorld(int size, long seed) {
+		Level[] levels = new Level[World.levels.length];
+		Level parent = null;
+		for (int depth = World.MAX_LEVEL_DEPTH; depth >= World.MIN_LEVEL_DEPTH; depth--) {
+			parent = new Level(size, size, seed + depth, depth, parent, true);
+			levels[World.lvlIdx(depth)] = parent;
+		}
+
+		return levels;
+	}
+
+	static BufferedImage readImage(String path) {
+		try (InputStream in = Headless.class.getResourceAsStream(path)) {
+			if (in == null) throw new IllegalStateException("Missing resource: " + path);
+			return ImageIO.read(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static String readText(String path) {
+		try (InputStream in = Headless.class.getResourceAsStream(path)) {
+			if (in == null) throw new IllegalStateException("Missing resource: " + path);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buf = new byte[8192];
+			int length;
+			while ((length = in.read(buf)) != -1) out.write(buf, 0, length);
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package minicraft.benchmarks;
+
+import minicraft.core.io.InputHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A tick of input handling and the key binding checks the player does every tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputPollingBenchmark {
+	private static final String[] DOWN = { "move-up", "move-down", "move-left", "move-right", "info", "quicksave", "F3-p" };
+	private static final String[] PRESSED = { "expandQuestDisplay", "potionEffects", "simpPotionEffects", "drop-one",
+		"drop-stack", "attack", "menu", "craft", "pause", "pickup", "toggleHUD" };
+
+	private InputHandler input;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		input = new InputHandler();
+	}
+
+	@Benchmark
+	public int playerTick() {
+		input.tick();
+		int active = 0;
+		for (String mapping : DOWN)
+			if (input.inputDown(mapping)) active++;
+		for (String mapping : PRESSED)
+			if (input.inputPressed(mapping)) active++;
+		return active;
+	}
+}
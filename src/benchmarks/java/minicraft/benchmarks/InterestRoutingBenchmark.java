@@ -0,0 +1,132 @@
+package minicraft.benchmarks;
+
+import minicraft.entity.Entity;
+import minicraft.entity.mob.Cow;
+import minicraft.level.Level;
+import minicraft.level.tile.Tile;
+import minicraft.network.InterestGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing the changes of a 512 by 512 level with 2000 mobs to 64 clients spread over it, each viewing the cells within
+ * 2 cells of its own: moving the mobs and placing them in their cells, routing tile changes, and moving the views.
+ * {@code scanViews} is the cost of finding the entities of each view without the grid, for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterestRoutingBenchmark {
+	private static final int SIZE = 512;
+	private static final int MOBS = 2000;
+	private static final int CLIENTS = 64;
+	private static final int VIEW_RADIUS = 2; // In cells.
+	private static final int TILE_CHANGES = 256;
+
+	/** Counts what it is told, so that the routing is not optimized away. */
+	private static class Client implements InterestGrid.Subscriber {
+		private int xt, yt;
+		private int visible = 0, tiles = 0;
+
+		@Override
+		public void entityEntered(Entity entity) { visible++; }
+		@Override
+		public void entityLeft(Entity entity) { visible--; }
+		@Override
+		public void tileChanged(Level level, int x, int y) { tiles++; }
+	}
+
+	private Level level;
+	private InterestGrid grid;
+	private final List<Entity> mobs = new ArrayList<>();
+	private final Client[] clients = new Client[CLIENTS];
+	private final int[] steps = new int[MOBS]; // The direction of each mob, -1 or 1, on both axes.
+	private final int[] tiles = new int[TILE_CHANGES * 2];
+	private int viewShift = 1;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		level = new Level(SIZE, SIZE, 42L, 0, null, false);
+		Random random = new Random(1);
+		for (int i = 0; i < MOBS; i++) {
+			Cow cow = new Cow();
+			level.add(cow, random.nextInt(SIZE), random.nextInt(SIZE), true);
+			mobs.add(cow);
+			steps[i] = random.nextBoolean() ? 1 : -1;
+		}
+		level.tick(false); // Adds the pending entities.
+
+		grid = new InterestGrid(level);
+		grid.update();
+		for (int i = 0; i < CLIENTS; i++) {
+			Client client = new Client();
+			client.xt = random.nextInt(SIZE);
+			client.yt = random.nextInt(SIZE);
+			grid.setView(client, client.xt, client.yt, VIEW_RADIUS);
+			clients[i] = client;
+		}
+
+		for (int i = 0; i < tiles.length; i++)
+			tiles[i] = random.nextInt(SIZE);
+	}
+
+	@Benchmark
+	public int moveMobs() {
+		// Diagonally by 4 pixels, so that mobs cross into other cells often; bouncing off the sides of the level.
+		int max = SIZE * Tile.TILE_PIXELS - 1;
+		for (int i = 0; i < MOBS; i++) {
+			Entity mob = mobs.get(i);
+			if (mob.x + steps[i] * 4 < 0 || mob.x + steps[i] * 4 > max || mob.y + steps[i] * 4 < 0 || mob.y + steps[i] * 4 > max)
+				steps[i] = -steps[i];
+			mob.x += steps[i] * 4;
+			mob.y += steps[i] * 4;
+		}
+
+		grid.update();
+		return clients[0].visible;
+	}
+
+	@Benchmark
+	public int routeTiles() {
+		for (int i = 0; i < tiles.length; i += 2)
+			grid.tileChanged(level, tiles[i], tiles[i + 1]);
+		return clients[0].tiles;
+	}
+
+	@Benchmark
+	public int moveViews() {
+		// Each client walks one cell to the side and back.
+		viewShift = -viewShift;
+		for (Client client : clients) {
+			client.xt = Math.max(0, Math.min(SIZE - 1, client.xt + viewShift * InterestGrid.CELL_SIZE));
+			grid.setView(client, client.xt, client.yt, VIEW_RADIUS);
+		}
+		return clients[0].visible;
+	}
+
+	@Benchmark
+	public int scanViews() {
+		int count = 0;
+		int radius = VIEW_RADIUS * InterestGrid.CELL_SIZE + InterestGrid.CELL_SIZE / 2;
+		for (Client client : clients)
+			count += level.getEntitiesInTiles(client.xt, client.yt, radius).size();
+		return count;
+	}
+}
@@ -0,0 +1,47 @@
+package minicraft.benchmarks;
+
+import minicraft.level.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation of a single chunk, per level depth. Each invocation generates a chunk not generated before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelGenBenchmark {
+	@Param({ "1", "0", "-1", "-2", "-3", "-4" })
+	public int depth;
+
+	private Level level;
+	private int chunkX;
+
+	@Setup(org.openjdk.jmh.annotations.Level.Iteration)
+	public void setup() {
+		Headless.init();
+		// An empty level, so the chunks are generated on demand like while exploring.
+		level = new Level(64, 64, 42L, depth, null, false);
+		chunkX = 0;
+	}
+
+	@Benchmark
+	public Level generateChunk() {
+		level.loadChunk(chunkX++, 0);
+		return level;
+	}
+}
@@ -0,0 +1,77 @@
+package minicraft.benchmarks;
+
+import minicraft.entity.Entity;
+import minicraft.entity.mob.Cow;
+import minicraft.entity.mob.Mob;
+import minicraft.entity.mob.Zombie;
+import minicraft.gfx.Rectangle;
+import minicraft.level.Level;
+import minicraft.level.tile.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The entity queries of a level, with the entities spread over a 128 by 128 level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelQueryBenchmark {
+	private static final int SIZE = 128;
+
+	@Param({ "100", "500" })
+	public int entities;
+
+	private Level level;
+	private Rectangle area;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		level = new Level(SIZE, SIZE, 42L, 0, null, false);
+		Random random = new Random(1);
+		for (int i = 0; i < entities; i++) {
+			Entity entity = i % 2 == 0 ? new Cow() : new Zombie(1);
+			level.add(entity, random.nextInt(SIZE), random.nextInt(SIZE), true);
+		}
+
+		level.tick(false); // Adds the pending entities.
+		area = new Rectangle(SIZE / 2 * Tile.TILE_PIXELS, SIZE / 2 * Tile.TILE_PIXELS, 16 * Tile.TILE_PIXELS, 10 * Tile.TILE_PIXELS, Rectangle.CENTER_DIMS);
+	}
+
+	@Benchmark
+	public List<Entity> entitiesInTiles() {
+		return level.getEntitiesInTiles(SIZE / 2, SIZE / 2, 8);
+	}
+
+	@Benchmark
+	public List<Entity> entitiesInRect() {
+		return level.getEntitiesInRect(area);
+	}
+
+	@Benchmark
+	public Entity[] entitiesOfClass() {
+		return level.getEntitiesOfClass(Mob.class);
+	}
+
+	@Benchmark
+	public Entity[] entityArray() {
+		return level.getEntityArray();
+	}
+}
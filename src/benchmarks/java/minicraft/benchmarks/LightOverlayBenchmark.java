@@ -0,0 +1,61 @@
+package minicraft.benchmarks;
+
+import minicraft.gfx.Screen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The light overlay of a cave frame: the light sources are drawn, dithered and composed over the screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LightOverlayBenchmark {
+	private static final int CAVE_LEVEL = 1; // The index of a cave level, which is pitch black where unlit.
+
+	@Param({ "8", "64" })
+	public int lights;
+
+	private Screen screen;
+	private int[] xs, ys, radii;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		screen = Headless.createScreen();
+		Random random = new Random(1);
+		xs = new int[lights];
+		ys = new int[lights];
+		radii = new int[lights];
+		for (int i = 0; i < lights; i++) {
+			xs[i] = random.nextInt(Screen.W);
+			ys[i] = random.nextInt(Screen.H);
+			radii[i] = 16 + random.nextInt(48);
+		}
+	}
+
+	@Benchmark
+	public Screen overlayFrame() {
+		screen.clear(0);
+		for (int i = 0; i < lights; i++)
+			screen.renderLight(xs[i], ys[i], radii[i]);
+		screen.overlay(CAVE_LEVEL, 0, 0);
+		screen.flush();
+		return screen;
+	}
+}
@@ -0,0 +1,98 @@
+package minicraft.benchmarks;
+
+import minicraft.core.io.Localization;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting every localized string of a language, through the compiled localization
+ * and through {@link String#format(Locale, String, Object...)} on the source strings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalizationBenchmark {
+	// The languages listed in the pack.json of the default resources, which are the ones the game offers.
+	@Param({ "en-us", "es-es", "fr-fr", "hu-hu", "id-id", "it-it", "nb-no", "nn-no", "pt-pt", "ru-ru", "tr-tr" })
+	public String locale;
+
+	private Locale selected;
+	private String[] keys;
+	private String[] sources;
+	private Object[][] arguments;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		Localization.resetLocalizations();
+		JSONObject languages = new JSONObject(Headless.readText("/pack.json")).getJSONObject("language");
+		for (String tag : languages.keySet()) {
+			Locale loc = Locale.forLanguageTag(tag);
+			JSONObject info = languages.getJSONObject(tag);
+			Localization.addLocale(loc, new Localization.LocaleInformation(loc, info.getString("name"), info.getString("region")));
+			Localization.addLocalization(loc, Headless.readText("/assets/localization/" + tag + ".json"));
+		}
+
+		selected = Locale.forLanguageTag(locale);
+		Localization.changeLanguage(selected);
+		if (!Localization.getSelectedLocale().equals(selected))
+			throw new IllegalStateException("The language is not listed in pack.json: " + locale);
+
+		JSONObject strings = new JSONObject(Headless.readText("/assets/localization/" + locale + ".json"));
+		ArrayList<String> keyList = new ArrayList<>(strings.keySet());
+		keys = keyList.toArray(new String[0]);
+		sources = new String[keys.length];
+		arguments = new Object[keys.length][];
+		for (int i = 0; i < keys.length; i++) {
+			sources[i] = strings.getString(keys[i]);
+			arguments[i] = argumentsOf(sources[i]);
+		}
+	}
+
+	// Arguments matching the placeholders of the source, like the game passes.
+	private static Object[] argumentsOf(String source) {
+		ArrayList<Object> arguments = new ArrayList<>();
+		for (int i = 0; i < source.length() - 1; i++) {
+			if (source.charAt(i) != '%') continue;
+			int j = i + 1;
+			while (j < source.length() && Character.isDigit(source.charAt(j))) j++;
+			if (j == source.length()) break;
+			char conversion = source.charAt(j);
+			if (conversion == 's') arguments.add("Steve");
+			else if (conversion == 'd') arguments.add(42);
+			i = j;
+		}
+
+		return arguments.toArray();
+	}
+
+	@Benchmark
+	public void localized(Blackhole blackhole) {
+		for (int i = 0; i < keys.length; i++)
+			blackhole.consume(Localization.getLocalized(keys[i], arguments[i]));
+	}
+
+	@Benchmark
+	public void stringFormat(Blackhole blackhole) {
+		for (int i = 0; i < keys.length; i++)
+			blackhole.consume(String.format(selected, sources[i], arguments[i]));
+	}
+}
@@ -0,0 +1,70 @@
+package minicraft.benchmarks;
+
+import minicraft.item.Item;
+import minicraft.item.Items;
+import minicraft.level.tile.Tile;
+import minicraft.level.tile.Tiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up every registered tile and item, by name as the save files and structures do, and tiles by id.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryBenchmark {
+	private String[] tileNames;
+	private short[] tileIds;
+	private String[] itemNames;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		ArrayList<Tile> tiles = new ArrayList<>(Tiles.getAll().values());
+		tileNames = new String[tiles.size()];
+		tileIds = new short[tiles.size()];
+		for (int i = 0; i < tiles.size(); i++) {
+			tileNames[i] = tiles.get(i).name;
+			tileIds[i] = tiles.get(i).id;
+		}
+
+		ArrayList<Item> items = Items.getAll();
+		itemNames = new String[items.size()];
+		for (int i = 0; i < items.size(); i++) // Half with a count, as in the inventory data.
+			itemNames[i] = i % 2 == 0 ? items.get(i).getName() : items.get(i).getName() + "_5";
+	}
+
+	@Benchmark
+	public void tileByName(Blackhole blackhole) {
+		for (String name : tileNames)
+			blackhole.consume(Tiles.get(name));
+	}
+
+	@Benchmark
+	public void tileById(Blackhole blackhole) {
+		for (short id : tileIds)
+			blackhole.consume(Tiles.get(id));
+	}
+
+	@Benchmark
+	public void itemByName(Blackhole blackhole) {
+		for (String name : itemNames)
+			blackhole.consume(Items.get(name));
+	}
+}
@@ -0,0 +1,53 @@
+package minicraft.benchmarks;
+
+import minicraft.core.Game;
+import minicraft.core.World;
+import minicraft.core.io.InputHandler;
+import minicraft.entity.mob.Player;
+import minicraft.saveload.Load;
+import minicraft.saveload.Save;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading a generated world of the default size, into the temporary game directory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveLoadBenchmark {
+	private static final String WORLD_NAME = "benchmark";
+	private static final int WORLD_SIZE = 128;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		System.arraycopy(Headless.createWorld(WORLD_SIZE, 42L), 0, World.levels, 0, World.levels.length);
+		Game.player = new Player(null, new InputHandler());
+		World.levels[World.lvlIdx(0)].add(Game.player, WORLD_SIZE / 2, WORLD_SIZE / 2, true);
+		new Save(WORLD_NAME); // So there is something to load.
+	}
+
+	@Benchmark
+	public void save() {
+		new Save(WORLD_NAME);
+	}
+
+	@Benchmark
+	public void load() {
+		new Load(WORLD_NAME);
+	}
+}
@@ -0,0 +1,76 @@
+package minicraft.benchmarks;
+
+import minicraft.gfx.MinicraftImage;
+import minicraft.gfx.Screen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A frame of 10,000 8x8 sprites blitted onto the screen from a sheet with transparent pixels,
+ * including the queueing and the flush, where the blits are done.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenBlitBenchmark {
+	private static final int SPRITES = 10_000;
+
+	private Screen screen;
+	private MinicraftImage sheet;
+	private int[] xs, ys, tiles, bits;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		screen = Headless.createScreen();
+
+		Random random = new Random(1);
+		sheet = new MinicraftImage(256, 256);
+		for (int i = 0; i < sheet.pixels.length; i++) // About a quarter transparent, like the game sheets.
+			sheet.pixels[i] = random.nextInt(4) == 0 ? 0 : 1 << 24 | random.nextInt(1 << 24);
+		sheet.updatePackedPixels();
+
+		xs = new int[SPRITES];
+		ys = new int[SPRITES];
+		tiles = new int[SPRITES];
+		bits = new int[SPRITES];
+		for (int i = 0; i < SPRITES; i++) {
+			xs[i] = random.nextInt(Screen.W + 8) - 8; // Some are clipped by the edges.
+			ys[i] = random.nextInt(Screen.H + 8) - 8;
+			tiles[i] = random.nextInt(32 * 32);
+			bits[i] = random.nextInt(4); // The mirroring.
+		}
+	}
+
+	@Benchmark
+	public Screen blitFrame() {
+		screen.clear(0);
+		for (int i = 0; i < SPRITES; i++)
+			screen.render(xs[i], ys[i], tiles[i] & 31, tiles[i] >> 5, bits[i], sheet);
+		screen.flush();
+		return screen;
+	}
+
+	@Benchmark
+	public Screen blitFrameTinted() {
+		screen.clear(0);
+		for (int i = 0; i < SPRITES; i++)
+			screen.render(xs[i], ys[i], tiles[i] & 31, tiles[i] >> 5, bits[i], sheet, 0xFF8040);
+		screen.flush();
+		return screen;
+	}
+}
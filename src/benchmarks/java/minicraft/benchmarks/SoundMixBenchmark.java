@@ -0,0 +1,54 @@
+package minicraft.benchmarks;
+
+import minicraft.core.io.SoundMixer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixing the playing sounds into a tick's worth of samples, which is at most 4096 bytes as {@code Sound} writes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoundMixBenchmark {
+	private static final int SAMPLE_RATE = 44100;
+
+	@Param({ "1", "4", "16" })
+	public int voices;
+
+	private SoundMixer mixer;
+	private short[] sound;
+	private final short[] buffer = new short[2048];
+
+	@Setup
+	public void setup() {
+		mixer = new SoundMixer();
+		sound = new short[SAMPLE_RATE * 2 * 2]; // Two seconds of stereo.
+		for (int i = 0; i < sound.length; i += 2) { // A decaying tone, both quiet and loud.
+			double t = (double) (i / 2) / SAMPLE_RATE;
+			sound[i] = sound[i + 1] = (short) (Math.sin(t * 2 * Math.PI * 440) * 30000 * Math.exp(-t));
+		}
+	}
+
+	@Benchmark
+	public short[] mixTick() {
+		while (mixer.getVoiceCount() < voices) // Restarts the finished sounds.
+			mixer.play(sound);
+		mixer.mix(buffer);
+		return buffer;
+	}
+}
@@ -0,0 +1,55 @@
+package minicraft.benchmarks;
+
+import minicraft.gfx.Screen;
+import minicraft.gfx.Upscaler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling a frame up to the window size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpscalerBenchmark {
+	@Param({ "1920x1080", "3840x2160" })
+	public String window;
+
+	private Upscaler upscaler;
+	private int[] frame;
+	private int width, height;
+
+	@Setup
+	public void setup() {
+		Headless.init();
+		int split = window.indexOf('x');
+		width = Integer.parseInt(window.substring(0, split));
+		height = Integer.parseInt(window.substring(split + 1));
+		upscaler = new Upscaler(Screen.W, Screen.H);
+		frame = new int[Screen.W * Screen.H];
+		Random random = new Random(1);
+		for (int i = 0; i < frame.length; i++)
+			frame[i] = random.nextInt(1 << 24);
+	}
+
+	@Benchmark
+	public BufferedImage upscale() {
+		return upscaler.upscale(frame, width, height);
+	}
+}
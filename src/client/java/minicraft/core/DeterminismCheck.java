@@ -0,0 +1,65 @@
+package minicraft.core;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks that ticking the levels in parallel gives the same world as ticking them serially: runs the
+ * {@link HeadlessSimulation} of a seeded world with every level held ticking both ways, each in a new JVM as the game
+ * state is global, and compares the hashes. Exits with 1 if they differ.
+ * <p>
+ * Run by the {@code determinismCheck} task of the client project, as part of {@code check}.
+ * <p>
+ * Usage: {@code DeterminismCheck [--seed <seed, default 42>] [--ticks <count, default 1800>]}
+ */
+public final class DeterminismCheck {
+	private DeterminismCheck() {}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		String seed = "42", ticks = "1800";
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equalsIgnoreCase("--seed")) seed = args[i + 1];
+			else if (args[i].equalsIgnoreCase("--ticks")) ticks = args[i + 1];
+		}
+
+		List<String> simulation = Arrays.asList("--seed", seed, "--ticks", ticks, "--size", "256", "--all-levels");
+		String serial = hash(simulation, true);
+		String parallel = hash(simulation, false);
+		System.out.println("Serial:   " + serial);
+		System.out.println("Parallel: " + parallel);
+
+		boolean passed = serial != null && serial.equals(parallel);
+		System.out.println(passed ? "PASS: the levels tick the same in parallel and serially" :
+			"FAIL: the levels tick differently in parallel and serially");
+		System.exit(passed ? 0 : 1);
+	}
+
+	// The world hash printed by the simulation; null if it failed.
+	@Nullable
+	private static String hash(List<String> simulation, boolean serial) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>(Arrays.asList(
+			System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+			"-Djava.awt.headless=true", "-cp", System.getProperty("java.class.path"), HeadlessSimulation.class.getName()));
+		command.addAll(simulation);
+		if (serial) command.add("--serial");
+
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		String hash = null;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.startsWith("World hash: ")) hash = line.substring("World hash: ".length());
+			}
+		}
+
+		return process.waitFor() == 0 ? hash : null;
+	}
+}
@@ -85,6 +85,7 @@ public class Game {
 	static boolean gameOver = false; // If the player wins this is set to true.
 
 	static boolean running = true;
+	static boolean headless = false; // If there is no window, as in the headless simulation; the game is then always focused.
 
 	public static void quit() {
 		running = false;
@@ -0,0 +1,234 @@
+package minicraft.core;
+
+import minicraft.core.io.InputHandler;
+import minicraft.core.io.InputRecording;
+import minicraft.core.io.Settings;
+import minicraft.entity.Entity;
+import minicraft.entity.mob.Mob;
+import minicraft.gfx.Point;
+import minicraft.level.ChunkManager;
+import minicraft.level.ChunkTickets;
+import minicraft.level.Level;
+import minicraft.level.tile.Tiles;
+import minicraft.screen.WorldSelectDisplay;
+import minicraft.util.MyUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Runs the game without a window, for soak tests and performance baselines on machines without a display.
+ * A new world is generated from the seed and ticked as fast as possible, optionally replaying an {@link InputRecording}
+ * for the player; nothing is rendered. At the end, a hash of the world state and the tick time statistics are printed.
+ * <p>
+ * Runs with the same arguments are deterministic, so the hashes can be compared across runs and builds. To replay a
+ * recording made in the game with {@code --record-input <file>}, the seed, size and mode written in its header must be given.
+ * <p>
+ * The levels tick in parallel unless {@code --serial} is given, which must not change the hash. With {@code --all-levels},
+ * all the chunks of every level are held ticking, instead of those around the player.
+ * <p>
+ * Usage: {@code HeadlessSimulation --seed <seed> [--ticks <count, default 3600>] [--size <128|256|512>]
+ * [--mode <survival|creative|hardcore|score>] [--input <recording>] [--serial] [--all-levels] [game arguments, like --savedir <dir>]}
+ */
+public final class HeadlessSimulation {
+	private HeadlessSimulation() {}
+
+	public static void main(String[] args) throws IOException {
+		Long seed = null;
+		int ticks = Updater.NORM_SPEED * 60;
+		int size = 128;
+		String mode = "survival";
+		@Nullable String inputFile = null;
+		boolean serial = false, allLevels = false;
+		List<String> gameArgs = new ArrayList<>();
+		try {
+			for (int i = 0; i < args.length; i++) {
+				boolean hasValue = i + 1 < args.length;
+				if (args[i].equalsIgnoreCase("--seed") && hasValue) {
+					seed = Long.parseLong(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--ticks") && hasValue) {
+					ticks = Integer.parseInt(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--size") && hasValue) {
+					size = Integer.parseInt(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--mode") && hasValue) {
+					mode = args[++i].toLowerCase();
+				} else if (args[i].equalsIgnoreCase("--input") && hasValue) {
+					inputFile = args[++i];
+				} else if (args[i].equalsIgnoreCase("--serial")) {
+					serial = true;
+				} else if (args[i].equalsIgnoreCase("--all-levels")) {
+					allLevels = true;
+				} else {
+					gameArgs.add(args[i]);
+				}
+			}
+		} catch (NumberFormatException e) {
+			seed = null; // Shows the usage.
+		}
+
+		if (seed == null || ticks < 0 || size != 128 && size != 256 && size != 512 ||
+			!Arrays.asList("survival", "creative", "hardcore", "score").contains(mode)) {
+			System.err.println("Usage: HeadlessSimulation --seed <seed> [--ticks <count>] [--size <128|256|512>] " +
+				"[--mode <survival|creative|hardcore|score>] [--input <recording>] [--serial] [--all-levels] [game arguments]");
+			System.exit(2);
+		}
+
+		if (!gameArgs.contains("--savedir")) { // Keeps the saves of the player untouched.
+			gameArgs.add("--savedir");
+			gameArgs.add(Files.createTempDirectory("minicraft-headless").toString());
+		}
+
+		InputRecording recording = inputFile == null ? null : InputRecording.read(Paths.get(inputFile));
+		LevelTicker.setParallel(!serial); // Even with a single processor, so that the check interleaves the levels.
+		init(seed, size, mode, gameArgs.toArray(new String[0]));
+		if (allLevels) holdAllLevels();
+		long[] tickTimes = run(ticks, recording);
+		printStatistics(tickTimes);
+		System.out.printf("World hash: %016x%n", hashWorld());
+		System.exit(0); // The controller library may leave threads behind.
+	}
+
+	private static void init(long seed, int size, String mode, String[] gameArgs) {
+		MyUtils.setRandomSeed(seed); // Before any game object is created.
+		boot(gameArgs);
+		Settings.set("size", size);
+		Settings.set("mode", "minicraft.settings.mode." + mode);
+		Settings.set("autosave", false);
+
+		WorldSelectDisplay.setWorldName("headless", false);
+		World.resetGame();
+		World.initWorld(OptionalLong.of(seed));
+		Updater.paused = false;
+	}
+
+	private static void holdAllLevels() {
+		for (Level level : Game.levels) {
+			if (level == null) continue;
+			int chunks = Math.floorDiv(Math.max(level.w, level.h) - 1, ChunkManager.CHUNK_SIZE) + 1;
+			level.tickets.hold(HeadlessSimulation.class, new ChunkTickets.Ticket(ChunkTickets.Type.FORCED,
+				ChunkTickets.Status.TICKING, (chunks - 1) / 2, (chunks - 1) / 2, chunks / 2));
+		}
+	}
+
+	/**
+	 * Boots the game as {@link Game#main(String[])} does, minus the window, the sounds, the resources and the saved
+	 * preferences. Also used by the dedicated server.
+	 * @param gameArgs the arguments of the game, like {@code --savedir <dir>}
+	 */
+	static void boot(String[] gameArgs) {
+		System.setProperty("java.awt.headless", "true");
+		Game.headless = true;
+
+		Initializer.parseArgs(gameArgs);
+		Settings.set("sound", false);
+
+		Game.input = new InputHandler(false);
+		Tiles.initTileList();
+	}
+
+	/**
+	 * Ticks the game as fast as possible.
+	 * @return the time of each tick, in nanoseconds
+	 */
+	private static long[] run(int ticks, @Nullable InputRecording recording) {
+		Profiler.profileCurrentThread();
+		long[] tickTimes = new long[ticks];
+		for (int i = 0; i < ticks; i++) {
+			if (recording != null) recording.replay(Game.input, Updater.gameTime + 1); // The tick increases the game time first.
+			long start = System.nanoTime();
+			Profiler.begin(Profiler.TICK);
+			Updater.tick();
+			Profiler.end(Profiler.TICK);
+			tickTimes[i] = System.nanoTime() - start;
+		}
+
+		Profiler.rollWindow(); // The whole run is a single window.
+		return tickTimes;
+	}
+
+	private static void printStatistics(long[] tickTimes) {
+		long total = 0;
+		for (long time : tickTimes) total += time;
+		long[] sorted = tickTimes.clone();
+		Arrays.sort(sorted);
+
+		System.out.printf("Ticks: %d in %.2fs (%.0f ticks/s)%n", tickTimes.length, total / 1E9,
+			total == 0 ? 0 : tickTimes.length / (total / 1E9));
+		if (sorted.length > 0) {
+			System.out.printf("Tick time: avg %.3fms, p50 %.3fms, p95 %.3fms, p99 %.3fms, max %.3fms%n",
+				total / 1E6 / sorted.length, percentile(sorted, 50), percentile(sorted, 95),
+				percentile(sorted, 99), sorted[sorted.length - 1] / 1E6);
+		}
+
+		List<String> summary = Profiler.getSummary();
+		List<Profiler.Section> sections = Profiler.getSections();
+		for (int i = 0; i < sections.size(); i++) {
+			if (sections.get(i).getCalls() > 0) // Leaves out the rendering.
+				System.out.println("  " + summary.get(i));
+		}
+	}
+
+	// In milliseconds.
+	private static double percentile(long[] sorted, int percent) {
+		return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)] / 1E6;
+	}
+
+	/**
+	 * Hashes the state that gameplay changes: the time, the generated chunks of all the levels,
+	 * and the positions and health of all the entities.
+	 * @return the 64-bit FNV-1a hash
+	 */
+	private static long hashWorld() {
+		long hash = 0xcbf29ce484222325L;
+		hash = hash(hash, Updater.gameTime);
+		hash = hash(hash, Updater.tickCount);
+		hash = hash(hash, Game.currentLevel);
+		for (Level level : Game.levels) {
+			if (level == null) continue;
+			hash = hash(hash, level.depth);
+
+			List<Point> chunks = new ArrayList<>(level.chunkManager.getAllChunks());
+			chunks.sort(Comparator.<Point>comparingInt(p -> p.x).thenComparingInt(p -> p.y));
+			for (Point chunk : chunks) {
+				hash = hash(hash, chunk.x);
+				hash = hash(hash, chunk.y);
+				hash = hash(hash, level.chunkManager.getChunkStage(chunk.x, chunk.y));
+				int x0 = chunk.x * ChunkManager.CHUNK_SIZE, y0 = chunk.y * ChunkManager.CHUNK_SIZE;
+				for (int y = y0; y < y0 + ChunkManager.CHUNK_SIZE; y++) {
+					for (int x = x0; x < x0 + ChunkManager.CHUNK_SIZE; x++) {
+						hash = hash(hash, level.getTile(x, y).id);
+						hash = hash(hash, level.getData(x, y));
+					}
+				}
+			}
+
+			Entity[] entities = level.getEntityArray();
+			Arrays.sort(entities, Comparator.comparingInt(e -> e.eID));
+			for (Entity entity : entities) {
+				hash = hash(hash, entity.eID);
+				hash = hash(hash, entity.getClass().getName().hashCode());
+				hash = hash(hash, entity.x);
+				hash = hash(hash, entity.y);
+				if (entity instanceof Mob) hash = hash(hash, ((Mob) entity).health);
+			}
+		}
+
+		return hash;
+	}
+
+	private static long hash(long hash, int value) {
+		for (int i = 0; i < 4; i++) {
+			hash ^= (value >>> (i * 8)) & 0xFF;
+			hash *= 0x100000001b3L;
+		}
+
+		return hash;
+	}
+}
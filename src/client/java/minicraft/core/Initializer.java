@@ -19,6 +19,7 @@ import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
 
 public class Initializer extends Game {
 	private Initializer() {
@@ -29,6 +30,8 @@ public class Initializer extends Game {
 	 */
 	static JFrame frame;
 	static int fra, tik; // These store the number of frames and ticks in the previous second; used for fps, at least.
+	@Nullable
+	static String inputRecordingFile = null; // Where the key events of new worlds are recorded, for the headless simulation.
 
 	public static JFrame getFrame() {
 		return frame;
@@ -47,6 +50,9 @@ public class Initializer extends Game {
 			if (args[i].equalsIgnoreCase("--savedir") && i + 1 < args.length) {
 				i++;
 				saveDir = args[i];
+			} else if (args[i].equalsIgnoreCase("--record-input") && i + 1 < args.length) {
+				i++;
+				inputRecordingFile = args[i];
 			} else if (args[i].equalsIgnoreCase("--fullscreen")) {
 				Updater.FULLSCREEN = true;
 			} else if (args[i].equalsIgnoreCase("--debug-log-time")) {
@@ -70,50 +76,81 @@ public class Initializer extends Game {
 		FileHandler.determineGameDir(saveDir);
 	}
 
+	/**
+	 * The maximum amount of time the loop catches up with in ticks after a stall (like a GC pause or a slow save).
+	 * Any time beyond this is dropped instead of being ticked in a burst.
+	 */
+	private static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+
+	static final PacingStatistics pacing = new PacingStatistics();
+
+	public static PacingStatistics getPacingStatistics() {
+		return pacing;
+	}
+
 	/**
 	 * This is the main loop that runs the game. It:
-	 * -keeps track of the amount of time that has passed
-	 * -fires the ticks needed to run the game
-	 * -fires the command to render out the screen.
+	 * -keeps track of the amount of time that has passed, up to a catch-up budget past which the ticks are dropped
+	 * -fires the ticks needed to run the game, at a fixed timestep
+	 * -fires the command to render out the screen, with the fraction of a tick elapsed since the last one
+	 * -parks the thread until the next tick or frame is due, and records the pacing statistics
 	 */
 	static void run() {
-		long lastTick = System.nanoTime();
-		long lastRender = System.nanoTime();
-		double unprocessed = 0;
+		Profiler.profileCurrentThread();
+		long lastTime = System.nanoTime();
+		long lastRender = lastTime;
+		long accumulator = 0; // Unprocessed time, in nanoseconds.
 		int frames = 0;
 		int ticks = 0;
 		long lastTimer1 = System.currentTimeMillis();
 
 		while (running) {
+			long nsPerTick = (long) (1E9D / Updater.NORM_SPEED); // Nanosecs per sec divided by ticks per sec = nanosecs per tick
+			if (currentDisplay == null) nsPerTick = (long) (nsPerTick / Updater.gameSpeed);
 			long now = System.nanoTime();
-			double nsPerTick = 1E9D / Updater.NORM_SPEED; // Nanosecs per sec divided by ticks per sec = nanosecs per tick
-			if (currentDisplay == null) nsPerTick /= Updater.gameSpeed;
-			unprocessed += (now - lastTick) / nsPerTick; // Figures out the unprocessed time between now and lastTick.
-			lastTick = now;
-			while (unprocessed >= 1) { // If there is unprocessed time, then tick.
+			accumulator += now - lastTime; // Figures out the unprocessed time between now and the last loop.
+			lastTime = now;
+
+			long maxCatchUp = Math.max(MAX_CATCH_UP_NANOS, nsPerTick);
+			if (accumulator > maxCatchUp) { // The loop fell too far behind; skip the ticks instead of bursting.
+				int dropped = (int) ((accumulator - maxCatchUp) / nsPerTick);
+				if (dropped > 0) {
+					pacing.recordDroppedTicks(dropped);
+					Metrics.DROPPED_TICKS.add(dropped);
+					Logging.GAMEHANDLER.debug("Game loop fell {}ms behind; dropped {} ticks.", accumulator / 1_000_000, dropped);
+				}
+				accumulator = maxCatchUp;
+			}
+
+			while (accumulator >= nsPerTick) { // If there is unprocessed time, then tick.
+				long tickStart = System.nanoTime();
 				ticks++;
+				Profiler.begin(Profiler.TICK);
 				Updater.tick(); // Calls the tick method (in which it calls the other tick methods throughout the code.
-				unprocessed--;
+				Profiler.end(Profiler.TICK);
+				long tickTime = System.nanoTime() - tickStart;
+				pacing.recordTick(tickTime, nsPerTick);
+				Metrics.TICK_TIME.record(tickTime);
+				accumulator -= nsPerTick;
 			}
 
+			long nsPerFrame = (long) (1E9D / MAX_FPS);
 			now = System.nanoTime();
-			if (now >= lastRender + 1E9D / MAX_FPS / 1.01) {
+			if (now - lastRender >= nsPerFrame / 1.01) {
 				frames++;
+				pacing.recordFrame(now - lastRender);
 				lastRender = now;
-				Renderer.render();
+				Profiler.begin(Profiler.RENDER);
+				Renderer.render((float) accumulator / nsPerTick);
+				Profiler.end(Profiler.RENDER);
 			}
 
-			try {
-				long curNano = System.nanoTime();
-				long untilNextTick = (long) (lastTick + nsPerTick - curNano);
-				long untilNextFrame = (long) (lastRender + 1E9D / MAX_FPS - curNano);
-				if (untilNextTick > 1E3 && untilNextFrame > 1E3) {
-					double timeToWait = Math.min(untilNextTick, untilNextFrame) / 1.2; // in nanosecond
-					//noinspection BusyWait
-					Thread.sleep((long) Math.floor(timeToWait / 1E6), (int) ((timeToWait - Math.floor(timeToWait)) % 1E6));
-				}
-			} catch (InterruptedException ignored) {
-			}
+			long curNano = System.nanoTime();
+			long untilNextTick = nsPerTick - accumulator - (curNano - lastTime);
+			long untilNextFrame = lastRender + nsPerFrame - curNano;
+			long timeToWait = Math.min(untilNextTick, untilNextFrame);
+			if (timeToWait > 1000) // Not worth parking for less than a microsecond.
+				LockSupport.parkNanos(timeToWait);
 
 			if (System.currentTimeMillis() - lastTimer1 > 1000) { //updates every 1 second
 				long interval = System.currentTimeMillis() - lastTimer1;
@@ -123,6 +160,9 @@ public class Initializer extends Game {
 				tik = (int) Math.round(ticks * 1000D / interval); // Saves total ticks in last second
 				frames = 0; // Resets frames
 				ticks = 0; // Resets ticks; ie, frames and ticks only are per second
+				pacing.rollWindow();
+				Profiler.rollWindow();
+				Metrics.sample(tik, fra);
 			}
 		}
 	}
@@ -0,0 +1,120 @@
+package minicraft.core;
+
+import minicraft.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Ticks the levels of the world, each on a thread of a fork/join pool. A level only changes itself while it ticks;
+ * what reaches other levels or the game, like the stairs of a chunk loading the chunk they lead to, is deferred with
+ * {@link #runAfterLevels(Runnable)} to the merge at the end of the tick, which runs it on the calling thread, level by
+ * level in the order of the levels array.
+ * <p>
+ * So that ticking in parallel gives the same world as ticking serially, what the game objects made while a level ticks
+ * draw from is the level's: their random generators ({@link minicraft.util.MyUtils#newRandom()}) and their entity IDs.
+ */
+public final class LevelTicker {
+	private LevelTicker() {}
+
+	private static class Ticking {
+		private final Level level;
+		private final ArrayList<Runnable> deferred = new ArrayList<>();
+
+		private Ticking(Level level) {
+			this.level = level;
+		}
+	}
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Math.min(World.INDEX_TO_DEPTH.length - 1,
+		Runtime.getRuntime().availableProcessors() - 1)), pool -> {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("Level Ticker " + thread.getPoolIndex());
+		return thread;
+	}, null, false);
+
+	private static final ThreadLocal<Ticking> CURRENT = new ThreadLocal<>();
+	private static volatile boolean parallel = Runtime.getRuntime().availableProcessors() > 1;
+
+	/** Ticks the levels one after the other on the calling thread instead, as for comparing the two. */
+	public static void setParallel(boolean parallel) {
+		LevelTicker.parallel = parallel;
+	}
+
+	public static boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Ticks the levels, then runs what they deferred.
+	 * @param levels the levels; the {@code null} ones are skipped
+	 * @param main the index of the level ticked on the calling thread, which the profiler sees, like the level of the player
+	 */
+	public static void tick(Level[] levels, int main) {
+		Ticking[] ticking = new Ticking[levels.length];
+		for (int i = 0; i < levels.length; i++)
+			if (levels[i] != null) ticking[i] = new Ticking(levels[i]);
+
+		if (parallel) {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>(levels.length);
+			for (int i = 0; i < ticking.length; i++) {
+				Ticking level = ticking[i];
+				if (level != null && i != main) tasks.add(POOL.submit(() -> tick(level)));
+			}
+
+			RuntimeException failure = null;
+			try {
+				if (main >= 0 && main < ticking.length && ticking[main] != null) tick(ticking[main]);
+			} catch (RuntimeException e) {
+				failure = e;
+			}
+			for (ForkJoinTask<?> task : tasks) { // All the levels are done before the merge, or before failing.
+				try {
+					task.join();
+				} catch (RuntimeException e) {
+					if (failure == null) failure = e;
+				}
+			}
+			if (failure != null) throw failure;
+		} else {
+			for (Ticking level : ticking)
+				if (level != null) tick(level);
+		}
+
+		for (Ticking level : ticking) {
+			if (level == null) continue;
+			for (Runnable action : level.deferred)
+				action.run();
+		}
+	}
+
+	private static void tick(Ticking ticking) {
+		CURRENT.set(ticking);
+		try {
+			ticking.level.tick(true);
+		} finally {
+			CURRENT.remove();
+		}
+	}
+
+	/** @return the level ticking on the calling thread; {@code null} outside the ticks of the levels, as in the merge */
+	@Nullable
+	public static Level getTickingLevel() {
+		Ticking ticking = CURRENT.get();
+		return ticking == null ? null : ticking.level;
+	}
+
+	/**
+	 * Runs the action at the merge of this tick if a level is ticking on the calling thread, or else now.
+	 * For what a level does to other levels or to the game while it ticks.
+	 */
+	public static void runAfterLevels(Runnable action) {
+		Ticking ticking = CURRENT.get();
+		if (ticking == null) action.run();
+		else ticking.deferred.add(action);
+	}
+}
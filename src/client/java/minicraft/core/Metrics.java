@@ -0,0 +1,243 @@
+package minicraft.core;
+
+import minicraft.level.ChunkManager;
+import minicraft.level.Level;
+import minicraft.util.AsyncLogger;
+import minicraft.util.Logging;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runtime metrics of the game, registered as platform MBeans under the {@code minicraft} domain,
+ * so that they can be read with {@code jconsole} or any other JMX client.
+ * <p>
+ * Counters and timers are updated where the events happen; updating them does not allocate.
+ * Gauges are sampled by the game loop once a second, by {@link #sample(int, int)}, which also writes all the metrics
+ * into the log every {@link #DUMP_INTERVAL} samples.
+ */
+public final class Metrics {
+	private Metrics() {}
+
+	public interface MetricMXBean {
+		String getName();
+	}
+
+	public interface CounterMXBean extends MetricMXBean {
+		long getCount();
+	}
+
+	public interface GaugeMXBean extends MetricMXBean {
+		long getValue();
+	}
+
+	public interface TimerMXBean extends MetricMXBean {
+		long getCount();
+		double getTotalMillis();
+		double getAverageMillis();
+		double getMaxMillis();
+		double getLastMillis();
+	}
+
+	private static abstract class Metric implements MetricMXBean {
+		private final String name;
+
+		private Metric(String name) {
+			this.name = name;
+			METRICS.add(this);
+		}
+
+		@Override
+		public String getName() { return name; }
+
+		abstract String describe(); // For the log.
+	}
+
+	/** A count of events, which only increases. */
+	public static final class Counter extends Metric implements CounterMXBean {
+		private final AtomicLong count = new AtomicLong();
+
+		private Counter(String name) {
+			super(name);
+			register(this, CounterMXBean.class, "Counter");
+		}
+
+		public void increment() { count.incrementAndGet(); }
+		public void add(long amount) { count.addAndGet(amount); }
+		@Override
+		public long getCount() { return count.get(); }
+
+		@Override
+		String describe() { return String.valueOf(count.get()); }
+	}
+
+	/** A value at the time of the last sample. */
+	public static final class Gauge extends Metric implements GaugeMXBean {
+		private volatile long value = 0;
+
+		private Gauge(String name) {
+			super(name);
+			register(this, GaugeMXBean.class, "Gauge");
+		}
+
+		public void set(long value) { this.value = value; }
+		@Override
+		public long getValue() { return value; }
+
+		@Override
+		String describe() { return String.valueOf(value); }
+	}
+
+	/** The durations of an operation, which may be recorded from any thread. */
+	public static final class Timer extends Metric implements TimerMXBean {
+		private long count = 0;
+		private long total = 0, max = 0, last = 0; // In nanoseconds.
+
+		private Timer(String name) {
+			super(name);
+			register(this, TimerMXBean.class, "Timer");
+		}
+
+		/**
+		 * Records a duration.
+		 * @param nanos the duration, in nanoseconds
+		 */
+		public synchronized void record(long nanos) {
+			count++;
+			total += nanos;
+			last = nanos;
+			if (nanos > max) max = nanos;
+		}
+
+		@Override
+		public synchronized long getCount() { return count; }
+		@Override
+		public synchronized double getTotalMillis() { return total / 1E6; }
+		@Override
+		public synchronized double getAverageMillis() { return count == 0 ? 0 : total / 1E6 / count; }
+		@Override
+		public synchronized double getMaxMillis() { return max / 1E6; }
+		@Override
+		public synchronized double getLastMillis() { return last / 1E6; }
+
+		@Override
+		synchronized String describe() {
+			return String.format("%d calls, avg %.2fms, max %.2fms", count, getAverageMillis(), getMaxMillis());
+		}
+	}
+
+	/** Gauges of a level, indexed like {@link Game#levels}. */
+	private static final class LevelGauges {
+		private final Gauge chunks, pendingChunks, chunkBytes, ticking, frozen, scheduledTicks, fluids, entities, entitiesToAdd, entitiesToRemove;
+
+		private LevelGauges(int depth) {
+			String prefix = "level." + Level.getLevelName(depth).toLowerCase() + ".";
+			chunks = new Gauge(prefix + "chunks");
+			pendingChunks = new Gauge(prefix + "chunks.pending");
+			chunkBytes = new Gauge(prefix + "chunks.bytes");
+			ticking = new Gauge(prefix + "chunks.ticking");
+			frozen = new Gauge(prefix + "chunks.frozen");
+			scheduledTicks = new Gauge(prefix + "tiles.scheduled");
+			fluids = new Gauge(prefix + "tiles.fluids");
+			entities = new Gauge(prefix + "entities");
+			entitiesToAdd = new Gauge(prefix + "entities.toAdd");
+			entitiesToRemove = new Gauge(prefix + "entities.toRemove");
+		}
+
+		private void sample(Level level) {
+			chunks.set(level == null ? 0 : level.chunkManager.getChunkCount());
+			pendingChunks.set(level == null ? 0 : level.chunkManager.getPendingChunkCount());
+			chunkBytes.set(level == null ? 0 : (long) level.chunkManager.getChunkCount() * ChunkManager.ESTIMATED_CHUNK_BYTES);
+			ticking.set(level == null ? 0 : level.tickets.getTickingCount());
+			frozen.set(level == null ? 0 : level.tickets.getFrozenCount());
+			scheduledTicks.set(level == null ? 0 : level.scheduledTicks.getCount());
+			fluids.set(level == null ? 0 : level.fluids.getCount());
+			entities.set(level == null ? 0 : level.getEntityCount());
+			entitiesToAdd.set(level == null ? 0 : level.getEntitiesToAddCount());
+			entitiesToRemove.set(level == null ? 0 : level.getEntitiesToRemoveCount());
+		}
+	}
+
+	private static final int DUMP_INTERVAL = 60; // In samples, so about a minute.
+
+	private static final ArrayList<Metric> METRICS = new ArrayList<>(); // In the order registered.
+	private static final MBeanServer SERVER = ManagementFactory.getPlatformMBeanServer();
+
+	public static final Gauge TPS = new Gauge("tps");
+	public static final Gauge FPS = new Gauge("fps");
+	public static final Timer TICK_TIME = new Timer("tick.time");
+	public static final Counter DROPPED_TICKS = new Counter("tick.dropped");
+	public static final Counter ENTITIES_ADDED = new Counter("entities.added");
+	public static final Counter ENTITIES_REMOVED = new Counter("entities.removed");
+	public static final Timer CHUNK_GENERATION = new Timer("chunks.generation");
+	public static final Gauge CHUNK_BYTES = new Gauge("chunks.bytes"); // Estimated, of all the levels.
+	public static final Timer SAVE_TIME = new Timer("save.time");
+	public static final Gauge LOG_DROPPED = new Gauge("log.dropped"); // By the AsyncLoggers, as the buffer was full.
+	public static final Counter ENTITY_UPDATES_FULL = new Counter("network.entities.full"); // Sent by the dedicated server.
+	public static final Counter ENTITY_UPDATES_DELTA = new Counter("network.entities.delta");
+	public static final Counter ENTITY_UPDATE_BYTES = new Counter("network.entities.bytes");
+	public static final Counter CHUNKS_SENT = new Counter("network.chunks.sent");
+	public static final Counter CHUNK_BYTES_SENT = new Counter("network.chunks.bytes");
+	public static final Counter TILE_UPDATES_SENT = new Counter("network.tiles.sent");
+
+	private static final LevelGauges[] LEVELS = new LevelGauges[World.INDEX_TO_DEPTH.length];
+
+	static {
+		for (int i = 0; i < LEVELS.length; i++)
+			LEVELS[i] = new LevelGauges(World.INDEX_TO_DEPTH[i]);
+	}
+
+	private static int samples = 0;
+
+	private static <T extends MetricMXBean> void register(T metric, Class<T> type, String kind) {
+		try {
+			ObjectName name = new ObjectName("minicraft:type=" + kind + ",name=" + metric.getName());
+			if (!SERVER.isRegistered(name)) SERVER.registerMBean(new StandardMBean(metric, type, true), name);
+		} catch (JMException | SecurityException e) { // The metrics are still dumped into the log.
+			Logging.METRICS.warn("Could not register metric {}: {}", metric.getName(), e.toString());
+		}
+	}
+
+	/**
+	 * Samples the gauges. Called by the game loop about once a second.
+	 * @param tps the ticks in the last second
+	 * @param fps the frames in the last second
+	 */
+	static void sample(int tps, int fps) {
+		TPS.set(tps);
+		FPS.set(fps);
+		long chunkBytes = 0;
+		for (int i = 0; i < LEVELS.length; i++) {
+			Level level = i < Game.levels.length ? Game.levels[i] : null;
+			LEVELS[i].sample(level);
+			chunkBytes += LEVELS[i].chunkBytes.getValue();
+		}
+		CHUNK_BYTES.set(chunkBytes);
+		LOG_DROPPED.set(AsyncLogger.getDroppedCount());
+
+		if (++samples % DUMP_INTERVAL == 0) dump();
+	}
+
+	/**
+	 * Writes all the metrics into the log.
+	 */
+	public static void dump() {
+		StringBuilder dump = new StringBuilder("Metrics:");
+		for (Metric metric : METRICS)
+			dump.append(System.lineSeparator()).append("  ").append(metric.getName()).append(": ").append(metric.describe());
+		Logging.METRICS.debug(dump.toString());
+	}
+
+	/** @return all the metrics, in the order registered */
+	public static List<MetricMXBean> getMetrics() {
+		return Collections.unmodifiableList(METRICS);
+	}
+}
@@ -0,0 +1,123 @@
+package minicraft.core;
+
+import java.util.Arrays;
+
+/**
+ * Rolling statistics of the game loop, collected by {@link Initializer#run()}.
+ * Tick overruns and dropped ticks are counted per sampling window (about a second),
+ * while frame times are kept in a ring buffer to compute the percentiles.
+ * All recording methods are allocation-free; they are only called from the game loop thread.
+ */
+public class PacingStatistics {
+	private static final int FRAME_SAMPLES = 256; // Enough for a few seconds of frames at usual frame rates.
+
+	private final long[] frameTimes = new long[FRAME_SAMPLES]; // Ring buffer of frame intervals, in nanoseconds.
+	private final long[] sortBuffer = new long[FRAME_SAMPLES]; // Reused for percentile calculation.
+	private int frameIndex = 0;
+	private int frameCount = 0;
+
+	// Values of the current sampling window.
+	private int windowTicks = 0;
+	private int windowOverruns = 0;
+	private int windowDropped = 0;
+	private long windowTickTime = 0;
+	private long windowMaxTickTime = 0;
+
+	// Values of the last finished sampling window.
+	private int ticks = 0;
+	private int overruns = 0;
+	private int dropped = 0;
+	private long avgTickTime = 0;
+	private long maxTickTime = 0;
+	private long frameP50 = 0, frameP95 = 0, frameP99 = 0, frameMax = 0;
+
+	private long totalDropped = 0;
+	private long totalOverruns = 0;
+
+	/**
+	 * Records a processed tick.
+	 * @param duration the time the tick took, in nanoseconds
+	 * @param budget the time one tick is allowed to take, in nanoseconds
+	 */
+	public void recordTick(long duration, long budget) {
+		windowTicks++;
+		windowTickTime += duration;
+		if (duration > windowMaxTickTime) windowMaxTickTime = duration;
+		if (duration > budget) {
+			windowOverruns++;
+			totalOverruns++;
+		}
+	}
+
+	/**
+	 * Records ticks skipped because the loop exceeded the maximum catch-up budget.
+	 * @param count the number of ticks dropped
+	 */
+	public void recordDroppedTicks(int count) {
+		windowDropped += count;
+		totalDropped += count;
+	}
+
+	/**
+	 * Records the interval between two presented frames.
+	 * @param interval the frame time, in nanoseconds
+	 */
+	public void recordFrame(long interval) {
+		frameTimes[frameIndex] = interval;
+		frameIndex = (frameIndex + 1) % FRAME_SAMPLES;
+		if (frameCount < FRAME_SAMPLES) frameCount++;
+	}
+
+	/**
+	 * Closes the current sampling window and recomputes the frame time percentiles.
+	 */
+	public void rollWindow() {
+		ticks = windowTicks;
+		overruns = windowOverruns;
+		dropped = windowDropped;
+		avgTickTime = windowTicks == 0 ? 0 : windowTickTime / windowTicks;
+		maxTickTime = windowMaxTickTime;
+		windowTicks = 0;
+		windowOverruns = 0;
+		windowDropped = 0;
+		windowTickTime = 0;
+		windowMaxTickTime = 0;
+
+		if (frameCount == 0) return;
+		System.arraycopy(frameTimes, 0, sortBuffer, 0, frameCount);
+		Arrays.sort(sortBuffer, 0, frameCount);
+		frameP50 = percentile(0.50);
+		frameP95 = percentile(0.95);
+		frameP99 = percentile(0.99);
+		frameMax = sortBuffer[frameCount - 1];
+	}
+
+	private long percentile(double p) {
+		int idx = (int) Math.ceil(p * frameCount) - 1;
+		return sortBuffer[Math.max(0, Math.min(idx, frameCount - 1))];
+	}
+
+	/** @return the number of ticks processed in the last window */
+	public int getTicks() { return ticks; }
+	/** @return the number of ticks that took longer than their budget in the last window */
+	public int getOverruns() { return overruns; }
+	/** @return the number of ticks dropped in the last window */
+	public int getDropped() { return dropped; }
+	/** @return the average tick time of the last window, in nanoseconds */
+	public long getAverageTickTime() { return avgTickTime; }
+	/** @return the maximum tick time of the last window, in nanoseconds */
+	public long getMaxTickTime() { return maxTickTime; }
+	public long getFrameTimeP50() { return frameP50; }
+	public long getFrameTimeP95() { return frameP95; }
+	public long getFrameTimeP99() { return frameP99; }
+	public long getFrameTimeMax() { return frameMax; }
+	public long getTotalDropped() { return totalDropped; }
+	public long getTotalOverruns() { return totalOverruns; }
+
+	@Override
+	public String toString() {
+		return String.format("ticks=%d overruns=%d dropped=%d tick(avg=%.2fms max=%.2fms) frame(p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms)",
+			ticks, overruns, dropped, avgTickTime / 1E6, maxTickTime / 1E6,
+			frameP50 / 1E6, frameP95 / 1E6, frameP99 / 1E6, frameMax / 1E6);
+	}
+}
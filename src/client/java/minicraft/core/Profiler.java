@@ -0,0 +1,157 @@
+package minicraft.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A sectioned profiler of the game loop. Sections are nested scopes opened by {@link #begin(Section)} and closed by
+ * {@link #end(Section)}; their times are summed per sampling window (about a second, rolled with the pacing statistics),
+ * giving the average and maximum time per call, shown in the debug display.
+ * <p>
+ * Only the game loop thread is profiled; calls from other threads are ignored.
+ * Each scope is also emitted as a JDK Flight Recorder event when a recording is running and JFR is available.
+ * <p>
+ * Note that most rendering methods only queue renderings, which are done in {@link #FLUSH}.
+ */
+public final class Profiler {
+	private Profiler() {}
+
+	public static final class Section {
+		private final String name;
+		private final int depth; // The nesting shown in the debug display.
+
+		// Values of the current sampling window.
+		private long windowTime = 0, windowMax = 0;
+		private int windowCalls = 0;
+
+		// Values of the last finished sampling window.
+		private long averageTime = 0, maxTime = 0;
+		private int calls = 0;
+
+		private Section(String name, Section parent) {
+			this.name = name;
+			depth = parent == null ? 0 : parent.depth + 1;
+			SECTIONS.add(this);
+		}
+
+		public String getName() { return name; }
+		/** @return the average time of a call in the last window, in nanoseconds */
+		public long getAverageTime() { return averageTime; }
+		/** @return the maximum time of a call in the last window, in nanoseconds */
+		public long getMaxTime() { return maxTime; }
+		/** @return the number of calls in the last window */
+		public int getCalls() { return calls; }
+	}
+
+	private static final ArrayList<Section> SECTIONS = new ArrayList<>(); // In the order shown.
+
+	public static final Section TICK = new Section("tick", null);
+	public static final Section LEVEL_TICK = new Section("level", TICK);
+	public static final Section TILE_TICK = new Section("tiles", LEVEL_TICK);
+	public static final Section ENTITY_TICK = new Section("entities", LEVEL_TICK);
+	public static final Section CHUNK_LOAD = new Section("chunks", ENTITY_TICK); // Loaded around players as they tick.
+	public static final Section RENDER = new Section("render", null);
+	public static final Section RENDER_BACKGROUND = new Section("background", RENDER);
+	public static final Section RENDER_SPRITES = new Section("sprites", RENDER);
+	public static final Section RENDER_LIGHT = new Section("light", RENDER);
+	public static final Section FLUSH = new Section("flush", RENDER);
+
+	private static final boolean JFR_AVAILABLE = isJfrAvailable();
+	private static final int MAX_DEPTH = 16;
+
+	private static Thread owner = null;
+	private static final Section[] stack = new Section[MAX_DEPTH];
+	private static final long[] starts = new long[MAX_DEPTH];
+	private static final Object[] events = new Object[MAX_DEPTH]; // The JFR events of the open scopes, if recorded.
+	private static int depth = 0;
+
+	private static boolean isJfrAvailable() {
+		try { // The JFR API is not in all Java 8 runtimes.
+			Class.forName("jdk.jfr.Event", false, Profiler.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Makes the current thread the profiled one.
+	 */
+	static void profileCurrentThread() {
+		owner = Thread.currentThread();
+		depth = 0;
+	}
+
+	/**
+	 * Opens a scope of the section.
+	 * @param section the section
+	 */
+	public static void begin(Section section) {
+		if (Thread.currentThread() != owner) return;
+		if (depth == MAX_DEPTH) return; // Too deep, likely unclosed scopes; ignored until those are closed.
+		stack[depth] = section;
+		events[depth] = JFR_AVAILABLE ? ProfilerEvents.begin(section.name) : null;
+		starts[depth++] = System.nanoTime();
+	}
+
+	/**
+	 * Closes the innermost scope of the section, and all the scopes opened inside of it.
+	 * @param section the section
+	 */
+	public static void end(Section section) {
+		if (Thread.currentThread() != owner) return;
+		long now = System.nanoTime();
+		int i = depth - 1;
+		while (i >= 0 && stack[i] != section) i--;
+		if (i < 0) return; // Not open.
+
+		while (depth > i) {
+			depth--;
+			Section closed = stack[depth];
+			long time = now - starts[depth];
+			closed.windowTime += time;
+			closed.windowCalls++;
+			if (time > closed.windowMax) closed.windowMax = time;
+			if (events[depth] != null) {
+				ProfilerEvents.end(events[depth]);
+				events[depth] = null;
+			}
+			stack[depth] = null;
+		}
+	}
+
+	/**
+	 * Closes the current sampling window.
+	 */
+	static void rollWindow() {
+		for (Section section : SECTIONS) {
+			section.averageTime = section.windowCalls == 0 ? 0 : section.windowTime / section.windowCalls;
+			section.maxTime = section.windowMax;
+			section.calls = section.windowCalls;
+			section.windowTime = 0;
+			section.windowMax = 0;
+			section.windowCalls = 0;
+		}
+	}
+
+	/** @return all the sections, in the order shown */
+	public static List<Section> getSections() {
+		return Collections.unmodifiableList(SECTIONS);
+	}
+
+	/**
+	 * Gets the summary of the last window, for the debug display.
+	 * @return a line per section, indented by the nesting
+	 */
+	public static List<String> getSummary() {
+		ArrayList<String> lines = new ArrayList<>(SECTIONS.size());
+		for (Section section : SECTIONS) {
+			StringBuilder line = new StringBuilder();
+			for (int i = 0; i < section.depth; i++) line.append(' ');
+			lines.add(line.append(String.format("%s %.2f/%.2fms", section.name, section.averageTime / 1E6, section.maxTime / 1E6)).toString());
+		}
+
+		return lines;
+	}
+}
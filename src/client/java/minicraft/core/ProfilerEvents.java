@@ -0,0 +1,44 @@
+package minicraft.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JDK Flight Recorder events of the {@link Profiler}.
+ * This class is only loaded when the JFR API is available.
+ */
+final class ProfilerEvents {
+	private ProfilerEvents() {}
+
+	@Name("minicraft.ProfilerSection")
+	@Label("Profiler Section")
+	@Description("A scope of a profiler section of the game loop.")
+	@Category({"Minicraft", "Game Loop"})
+	@StackTrace(false)
+	static class SectionEvent extends Event {
+		@Label("Section")
+		String section;
+	}
+
+	private static final SectionEvent PROBE = new SectionEvent(); // Tells whether the event is being recorded.
+
+	/**
+	 * Starts an event of the section.
+	 * @return the event; {@code null} if it is not being recorded
+	 */
+	static Object begin(String section) {
+		if (!PROBE.isEnabled()) return null;
+		SectionEvent event = new SectionEvent();
+		event.section = section;
+		event.begin();
+		return event;
+	}
+
+	static void end(Object event) {
+		((SectionEvent) event).commit();
+	}
+}
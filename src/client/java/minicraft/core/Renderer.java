@@ -2,6 +2,7 @@ package minicraft.core;
 
 import minicraft.core.CrashHandler.ErrorInfo;
 import minicraft.core.io.Localization;
+import minicraft.core.io.ScreenshotWriter;
 import minicraft.core.io.Settings;
 import minicraft.entity.furniture.Bed;
 import minicraft.entity.mob.AirWizard;
@@ -15,10 +16,12 @@ import minicraft.gfx.Font;
 import minicraft.gfx.FontStyle;
 import minicraft.gfx.MinicraftImage;
 import minicraft.gfx.Point;
+import minicraft.gfx.RetainedWidget;
 import minicraft.gfx.Screen;
 import minicraft.gfx.SpriteLinker;
 import minicraft.gfx.SpriteLinker.LinkedSprite;
 import minicraft.gfx.SpriteLinker.SpriteType;
+import minicraft.gfx.Upscaler;
 import minicraft.item.Items;
 import minicraft.item.PotionType;
 import minicraft.item.ToolItem;
@@ -44,10 +47,8 @@ import java.awt.Canvas;
 import java.awt.Graphics2D;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
-import java.io.File;
+import java.awt.image.DataBufferInt;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -67,6 +68,8 @@ public class Renderer extends Game {
 
 	static Canvas canvas = new Canvas();
 	private static BufferedImage image; // Creates an image to be displayed on the screen.
+	private static int[] pixels; // The pixels of the image.
+	private static final Upscaler upscaler = new Upscaler(WIDTH, HEIGHT);
 
 
 	public static boolean readyToRenderGameplay = false;
@@ -79,6 +82,15 @@ public class Renderer extends Game {
 	private static int potionRenderOffset = 0;
 
 	private static LinkedSprite hudSheet;
+	private static final RetainedWidget heartsWidget = new RetainedWidget(Screen.W, 8);
+	private static final RetainedWidget staminaWidget = new RetainedWidget(Screen.W, 8);
+	private static final RetainedWidget selectedItemWidget = new RetainedWidget(16 * 8, 8);
+	private static final ArrayList<String> shownNotifications = new ArrayList<>(); // The notifications notificationLines are of.
+	private static String[] notificationLines = new String[0];
+	private static MinicraftImage cloudBackground = null; // The cloud background tiled to the screen size.
+	private static MinicraftImage cloudBackgroundSheet = null; // The sheet the cloud background was tiled from.
+
+	private static float partialTick = 0; // The progress from the last tick to the next one, from 0 to 1.
 
 	public static MinicraftImage loadDefaultSkinSheet() {
 		MinicraftImage skinsSheet;
@@ -100,6 +112,7 @@ public class Renderer extends Game {
 
 	public static void initScreen() {
 		image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
 		screen = new Screen(image);
 		//lightScreen = new Screen();
 
@@ -110,9 +123,27 @@ public class Renderer extends Game {
 
 
 	/**
-	 * Renders the current screen. Called in game loop, a bit after tick().
+	 * Gets the interpolation alpha of the frame being rendered. Nothing is interpolated with it yet, as the entities
+	 * keep only their current position; they would need the one of the last tick to be drawn between the two.
+	 * @return the fraction of a tick elapsed since the last tick, from {@code 0} to {@code 1}
+	 */
+	public static float getPartialTick() {
+		return partialTick;
+	}
+
+	/**
+	 * Renders the current screen outside the game loop, without interpolation.
 	 */
 	public static void render() {
+		render(0);
+	}
+
+	/**
+	 * Renders the current screen. Called in game loop, a bit after tick().
+	 * @param partialTick the fraction of a tick elapsed since the last tick; see {@link #getPartialTick()}
+	 */
+	public static void render(float partialTick) {
+		Renderer.partialTick = partialTick;
 		if (screen == null) return; // No point in this if there's no gui... :P
 
 		screen.clear(0);
@@ -129,25 +160,20 @@ public class Renderer extends Game {
 			renderFocusNagger(); // Calls the renderFocusNagger() method, which creates the "Click to Focus" message.
 
 
-		BufferStrategy bs = canvas.getBufferStrategy(); // Creates a buffer strategy to determine how the graphics should be buffered.
-		Graphics2D g = (Graphics2D) bs.getDrawGraphics(); // Gets the graphics in which java draws the picture
-		g.clearRect(0, 0, canvas.getWidth(), canvas.getHeight()); // Draws a rect to fill the whole window (to cover last?)
-
-
-
 		// Flushes the screen to the renderer.
+		Profiler.begin(Profiler.FLUSH);
 		screen.flush();
+		Profiler.end(Profiler.FLUSH);
 
-		// Scale the pixels.
-		int ww = getWindowSize().width;
-		int hh = getWindowSize().height;
+		// Scale the pixels into the window size, with black borders around.
+		BufferedImage frame = upscaler.upscale(pixels, canvas.getWidth(), canvas.getHeight());
+		if (frame == null) return; // The canvas is not displayed yet.
 
-		// Get the image offset.
-		int xOffset = (canvas.getWidth() - ww) / 2 + canvas.getParent().getInsets().left;
-		int yOffset = (canvas.getHeight() - hh) / 2 + canvas.getParent().getInsets().top;
+		BufferStrategy bs = canvas.getBufferStrategy(); // Creates a buffer strategy to determine how the graphics should be buffered.
+		Graphics2D g = (Graphics2D) bs.getDrawGraphics(); // Gets the graphics in which java draws the picture
 
-		// Draw the image on the window.
-		g.drawImage(image, xOffset, yOffset, ww, hh, null);
+		// Draw the image on the window. As the frame has the size of the canvas, no scaling is done here.
+		g.drawImage(frame, 0, 0, null);
 
 		// Release any system items that are using this method. (so we don't have crappy framerates)
 		g.dispose();
@@ -155,30 +181,9 @@ public class Renderer extends Game {
 		// Make the picture visible.
 		bs.show();
 
-		// Screen capturing.
+		// Screen capturing; the frame is encoded in the background.
 		if (Updater.screenshot > 0) {
-			new File(Game.gameDir + "/screenshots/").mkdirs();
-			int count = 1;
-			LocalDateTime datetime = LocalDateTime.now();
-			String stamp = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss").format(datetime);
-			File file = new File(String.format("%s/screenshots/%s.png", Game.gameDir, stamp));
-			while (file.exists()) {
-				file = new File(String.format("%s/screenshots/%s_%s.png", Game.gameDir, stamp, count));
-				count++;
-			}
-
-			try {
-				// A blank image as same as the canvas
-				BufferedImage img = new BufferedImage(canvas.getWidth(), canvas.getHeight(), BufferedImage.TYPE_INT_RGB);
-				Graphics2D g2d = img.createGraphics();
-				g2d.drawImage(image, xOffset, yOffset, ww, hh, null); // The same invoke as the one on canvas graphics
-				g2d.dispose();
-				ImageIO.write(img, "png", file);
-				Logging.PLAYER.info("Saved screenshot as {}.", file.getName());
-			} catch (IOException e) {
-				CrashHandler.errorHandle(e);
-			}
-
+			ScreenshotWriter.capture(frame);
 			Updater.screenshot--;
 		}
 	}
@@ -197,30 +202,59 @@ public class Renderer extends Game {
 		// if (xScroll > (level.w << 4) - Screen.w) xScroll = (level.w << 4) - Screen.w; // ...Right border.
 		// if (yScroll > (level.h << 4) - Screen.h) yScroll = (level.h << 4) - Screen.h; // ...Bottom border.
 		if (currentLevel > 3) { // If the current level is higher than 3 (which only the sky level (and dungeon) is)
-			MinicraftImage cloud = spriteLinker.getSheet(SpriteType.Tile, "cloud_background");
-			for (int y = 0; y < 28; y++)
-				for (int x = 0; x < 48; x++) {
-					// Creates the background for the sky (and dungeon) level:
-					screen.render(x * 8 - ((xScroll / 4) & 7), y * 8 - ((yScroll / 4) & 7), 0, 0, 0, cloud);
-				}
+			// Creates the background for the sky (and dungeon) level:
+			MinicraftImage cloud = getCloudBackground();
+			if (cloud != null)
+				screen.render(-((xScroll / 4) & 7), -((yScroll / 4) & 7), 0, 0, cloud.width, cloud.height, cloud);
 		}
 
+		Profiler.begin(Profiler.RENDER_BACKGROUND);
 		level.renderBackground(screen, xScroll, yScroll); // Renders current level background
+		Profiler.end(Profiler.RENDER_BACKGROUND);
+		Profiler.begin(Profiler.RENDER_SPRITES);
 		level.renderSprites(screen, xScroll, yScroll); // Renders level sprites on screen
+		Profiler.end(Profiler.RENDER_SPRITES);
 
 		// This creates the darkness in the caves
 		if ((currentLevel != 3 || Updater.tickCount < Updater.DAY_LENGTH / 4 || Updater.tickCount > Updater.DAY_LENGTH / 2) && !isMode("minicraft.settings.mode.creative")) {
 			int brightnessMultiplier = player.potionEffects.containsKey(PotionType.Light) ? 12 : 8; // Brightens all light sources by a factor of 1.5 when the player has the Light potion effect. (8 above is normal)
+			Profiler.begin(Profiler.RENDER_LIGHT);
 			level.renderLight(screen, xScroll, yScroll, brightnessMultiplier); // Finds (and renders) all the light from objects (like the player, lanterns, and lava).
 			screen.overlay(currentLevel, xScroll, yScroll); // Overlays the light screen over the main screen.
+			Profiler.end(Profiler.RENDER_LIGHT);
 		}
 	}
 
+	/**
+	 * Gets the cloud background tiled over an image one tile larger than the screen,
+	 * so that it is drawn with a single blit at any scroll offset.
+	 * The image is only regenerated when the cloud sprite sheet is changed, like by resource packs.
+	 * @return the tiled background; {@code null} if the sprite sheet is missing
+	 */
+	private static MinicraftImage getCloudBackground() {
+		MinicraftImage cloud = spriteLinker.getSheet(SpriteType.Tile, "cloud_background");
+		if (cloud == null) return null;
+		if (cloud != cloudBackgroundSheet) {
+			cloudBackgroundSheet = cloud;
+			cloudBackground = new MinicraftImage(Screen.W + MinicraftImage.BOX_WIDTH, Screen.H + MinicraftImage.BOX_WIDTH);
+			for (int y = 0; y < cloudBackground.height; y++)
+				for (int x = 0; x < cloudBackground.width; x++) // The top left tile of the sheet is repeated.
+					cloudBackground.pixels[x + y * cloudBackground.width] = cloud.pixels[x % MinicraftImage.BOX_WIDTH + y % MinicraftImage.BOX_WIDTH * cloud.width];
+			cloudBackground.updatePackedPixels();
+		}
+
+		return cloudBackground;
+	}
+
 	private static void renderSelectedEmptyItem() {
 		if (!isMode("minicraft.settings.mode.creative") || player.activeItem != null) {
-			for (int x = 10; x < 26; x++) {
-				screen.render(x * 8, Screen.H - 8, 5, 2, 0, hudSheet.getSheet());
-			}
+			selectedItemWidget.render(screen, 10 * 8, Screen.H - 8, 0, Renderer::paintSelectedEmptyItem);
+		}
+	}
+
+	private static void paintSelectedEmptyItem(Screen screen) {
+		for (int x = 0; x < 16; x++) {
+			screen.render(x * 8, 0, 5, 2, 0, hudSheet.getSheet());
 		}
 	}
 
@@ -273,16 +307,21 @@ public class Renderer extends Game {
 				notifications.remove(0);
 				Updater.noteTick = 0;
 			}
-			List<String> print = new ArrayList<>();
-			for (String n : notifications) {
-				for (String l : Font.getLines(n, Screen.W, Screen.H, 0))
-					print.add(l);
+			if (!shownNotifications.equals(notifications)) { // The lines are only wrapped again when notifications change.
+				shownNotifications.clear();
+				shownNotifications.addAll(notifications);
+				List<String> print = new ArrayList<>();
+				for (String n : notifications) {
+					for (String l : Font.getLines(n, Screen.W, Screen.H, 0))
+						print.add(l);
+				}
+				notificationLines = print.toArray(new String[0]);
 			}
 
 			// Draw each current notification, with shadow text effect.
 			FontStyle style = new FontStyle(Color.WHITE).setShadowType(Color.DARK_GRAY, false)
 				.setYPos(Screen.H * 2 / 5).setRelTextPos(RelPos.TOP, false);
-			Font.drawParagraph(print, screen, style, 0);
+			Font.drawParagraph(screen, style, 0, notificationLines);
 		}
 	}
 
@@ -358,7 +397,7 @@ public class Renderer extends Game {
 		}
 	}
 
-	private static void renderPlayerBars(int barType, int x, int xUnary, int screenOffset, int xt, int yt, int bits) {
+	private static void renderPlayerBars(Screen screen, int barType, int x, int xUnary, int screenOffset, int xt, int yt, int bits) {
 		final int X_MULTIPLIER = 8;
 		
 		switch (barType) {
@@ -371,52 +410,73 @@ public class Renderer extends Game {
 		}
 	}
 
+	/**
+	 * Renders the status bars. The hearts and hunger row, and the stamina row are each kept in a {@link RetainedWidget},
+	 * and the armor is drawn between them, as it overlaps both.
+	 */
 	private static void playerBarsConditionals() {
+		// The blinking phase when out of stamina; 0 if not blinking.
+		int staminaBlink = player.staminaRechargeDelay > 0 ? 1 + player.staminaRechargeDelay / 4 % 2 : 0;
+		heartsWidget.render(screen, 0, Screen.H - 16, (player.health & 0xFFFFFFFFL) | (long) player.hunger << 32, Renderer::paintHeartsAndHunger);
+
+		for (int x = 0; x < Player.MAX_STAT; x++) {
+			// Renders armor
+			int armor = player.armor * Player.MAX_STAT / Player.MAX_ARMOR;
+			if (x <= armor && player.curArmor != null) {
+				renderPlayerBars(screen, 1, x, -24, armor, 0, 0, 0);
+			}
+		}
+
+		staminaWidget.render(screen, 0, Screen.H - 8, (player.stamina & 0xFFFFFFFFL) | (long) staminaBlink << 32, Renderer::paintStamina);
+	}
+
+	// The bars are painted in screen coordinates, which the offset maps into the widget.
+	private static void paintHeartsAndHunger(Screen widget) {
+		widget.setOffset(0, Screen.H - 16);
 		for (int x = 1; x <= 30; x++) {
 			// Renders your current red default hearts, golden hearts for 20 HP, obsidian hearts for 30 HP, or black hearts for damaged health.
 			if (x < 11) {
-				renderPlayerBars(0, x, -1, -16, 0, 1, 0); // Empty
+				renderPlayerBars(widget, 0, x, -1, -16, 0, 1, 0); // Empty
 			}
 			if (x < player.health + 1 && x < 11) {
-				renderPlayerBars(0, x, -1, -16, 0, 0, 0); // Red Hearts
+				renderPlayerBars(widget, 0, x, -1, -16, 0, 0, 0); // Red Hearts
 			}
 			if (x < player.health + 1 && x < 21 && x >= 11) {
-				renderPlayerBars(0, x, -11, -16, 0, 2, 0); // Yellow
+				renderPlayerBars(widget, 0, x, -11, -16, 0, 2, 0); // Yellow
 			}
 			if (x < player.health + 1 && x >= 21) {
-				renderPlayerBars(0, x, -21, -16, 0, 3, 0); // Obsidian Hearts
+				renderPlayerBars(widget, 0, x, -21, -16, 0, 3, 0); // Obsidian Hearts
 			}
 		}
 
 		for (int x = 0; x < Player.MAX_STAT; x++) {
-			// Renders armor
-			int armor = player.armor * Player.MAX_STAT / Player.MAX_ARMOR;
-			if (x <= armor && player.curArmor != null) {
-				renderPlayerBars(1, x, -24, armor, 0, 0, 0);
+			// Renders hunger
+			if (x < player.hunger) {
+				renderPlayerBars(widget, 0, x, (Screen.W - 80), -16, 2, 0, 0);
+			} else {
+				renderPlayerBars(widget, 0, x, (Screen.W - 80), -16, 2, 1, 0);
 			}
+		}
+	}
 
+	private static void paintStamina(Screen widget) {
+		widget.setOffset(0, Screen.H - 8);
+		for (int x = 0; x < Player.MAX_STAT; x++) {
 			if (player.staminaRechargeDelay > 0) {
 				// Creates the white/gray blinking effect when you run out of stamina.
 				if (player.staminaRechargeDelay / 4 % 2 == 0) {
-					renderPlayerBars(0, x, 0, -8, 1, 2, 0);
+					renderPlayerBars(widget, 0, x, 0, -8, 1, 2, 0);
 				} else {
-					renderPlayerBars(0, x, 0, -8, 1, 1, 0);
+					renderPlayerBars(widget, 0, x, 0, -8, 1, 1, 0);
 				}
 			} else {
 				// Renders your current stamina, and uncharged gray stamina.
 				if (x < player.stamina) {
-					renderPlayerBars(0, x, 0, -8, 1, 0, 0);
+					renderPlayerBars(widget, 0, x, 0, -8, 1, 0, 0);
 				} else {
-					renderPlayerBars(0, x, 0, -8, 1, 1, 0);
+					renderPlayerBars(widget, 0, x, 0, -8, 1, 1, 0);
 				}
 			}
-
-			// Renders hunger
-			if (x < player.hunger) {
-				renderPlayerBars(0, x, (Screen.W - 80), -16, 2, 0, 0);
-			} else {
-				renderPlayerBars(0, x, (Screen.W - 80), -16, 2, 1, 0);
-			}
 		}
 	}
 
@@ -592,6 +652,12 @@ public class Renderer extends Game {
 			ArrayList<String> info = new ArrayList<>();
 			info.add("VERSION: " + Initializer.VERSION);
 			info.add(Initializer.fra + " fps");
+			PacingStatistics pacing = Initializer.getPacingStatistics();
+			info.add(String.format("Frame ms: %.1f/%.1f/%.1f", pacing.getFrameTimeP50() / 1E6,
+				pacing.getFrameTimeP95() / 1E6, pacing.getFrameTimeP99() / 1E6));
+			info.add(String.format("Tick ms: %.2f (max %.2f)", pacing.getAverageTickTime() / 1E6, pacing.getMaxTickTime() / 1E6));
+			info.add("Overruns: " + pacing.getOverruns() + " Dropped: " + pacing.getDropped());
+			info.add(String.format("GUI cache: %.1f%% hit", RetainedWidget.getHitRate() * 100));
 			info.add("Day tiks: " + Updater.tickCount + " (" + Updater.getTime() + ")");
 			info.add((Updater.NORM_SPEED * Updater.gameSpeed) + " tps");
 
@@ -629,6 +695,14 @@ public class Renderer extends Game {
 			FontStyle style = new FontStyle(textCol).setShadowType(Color.BLACK, true).setXPos(1);
 			style.setYPos(2);
 			Font.drawParagraph(info, screen, style, 2);
+
+			// The profiler sections, at the top right.
+			List<String> sections = Profiler.getSummary();
+			int width = 0;
+			for (String line : sections) width = Math.max(width, Font.textWidth(line));
+			style = new FontStyle(textCol).setShadowType(Color.BLACK, true).setXPos(Screen.W - width - 1);
+			style.setYPos(2);
+			Font.drawParagraph(sections, screen, style, 2);
 		}
 	}
 
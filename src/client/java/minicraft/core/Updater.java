@@ -1,6 +1,7 @@
 package minicraft.core;
 
 import minicraft.core.io.Localization;
+import minicraft.core.io.ScreenshotWriter;
 import minicraft.core.io.Settings;
 import minicraft.core.io.Sound;
 import minicraft.entity.furniture.Bed;
@@ -97,10 +98,12 @@ public class Updater extends Game {
 
 		if (input.getMappedKey("FULLSCREEN").isClicked()) {
 			Updater.FULLSCREEN = !Updater.FULLSCREEN;
-			Updater.updateFullscreen();
+			if (!headless) Updater.updateFullscreen();
 		}
 
-		if (input.getMappedKey("screenshot").isClicked()) {
+		if (input.getMappedKey("screenshot-burst").isClicked()) {
+			screenshot += ScreenshotWriter.BURST_LENGTH; // Captures the next frames in a row.
+		} else if (input.getMappedKey("screenshot").isClicked()) {
 			screenshot++;
 		}
 
@@ -177,10 +180,11 @@ public class Updater extends Game {
 		Sound.tick();
 
 		// This is the general action statement thing! Regulates menus, mostly.
-		if (!Renderer.canvas.hasFocus()) {
+		boolean focused = headless || Renderer.canvas.hasFocus();
+		if (!focused) {
 			input.releaseAll();
 		}
-		if (Renderer.canvas.hasFocus()) {
+		if (focused) {
 			gameTime++;
 
 			input.tick(); // INPUT TICK; no other class should call this, I think...especially the *Menu classes.
@@ -212,7 +216,7 @@ public class Updater extends Game {
 				player.tick(); // Ticks the player when there's no menu.
 
 				if (level != null) {
-					level.tick(true);
+					LevelTicker.tick(levels, currentLevel); // All the levels, the chunks held ticking on each.
 					Tile.tickCount++;
 				}
 
@@ -325,7 +329,7 @@ public class Updater extends Game {
 		if (t > 0 && t < times.length)
 			changeTimeOfDay(times[t]); // It just references the other one.
 		else
-			Logging.WORLD.info("Time " + t + " does not exist.");
+			Logging.WORLD.info("Time {} does not exist.", t);
 	}
 
 	public static Time getTime() {
@@ -341,8 +345,12 @@ public class Updater extends Game {
 	}
 
 	public static void notifyAll(String msg, int notetick) {
-		msg = Localization.getLocalized(msg);
-		notifications.add(msg);
+		if (LevelTicker.getTickingLevel() != null) { // Shown once the levels are done ticking.
+			LevelTicker.runAfterLevels(() -> notifyAll(msg, notetick));
+			return;
+		}
+
+		notifications.add(Localization.getLocalized(msg));
 		Updater.noteTick = notetick;
 	}
 }
@@ -1,5 +1,6 @@
 package minicraft.core;
 
+import minicraft.core.io.InputRecording;
 import minicraft.core.io.Settings;
 import minicraft.entity.furniture.Bed;
 import minicraft.entity.mob.Player;
@@ -16,10 +17,13 @@ import minicraft.screen.TutorialDisplayHandler;
 import minicraft.screen.WorldGenDisplay;
 import minicraft.screen.WorldSelectDisplay;
 import minicraft.util.AdvancementElement;
+import minicraft.util.AsyncLogger;
 import minicraft.util.Logging;
 import org.jetbrains.annotations.Nullable;
-import org.tinylog.Logger;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.OptionalLong;
 import java.util.Random;
 
 public class World extends Game {
@@ -106,6 +110,14 @@ public class World extends Game {
 	 * For the loading screen updates to work, it it assumed that *this* is called by a thread *other* than the one rendering the current *menu*.
 	 **/
 	public static void initWorld() { // This is a full reset; everything.
+		initWorld(WorldSelectDisplay.hasLoadedWorld() ? OptionalLong.empty() : WorldGenDisplay.getSeed());
+	}
+
+	/**
+	 * @param newSeed the seed of a new world; a random seed is used if it is empty. Unused if a world is loaded.
+	 * @see #initWorld()
+	 */
+	static void initWorld(OptionalLong newSeed) {
 		Logging.WORLD.debug("Resetting world...");
 
 		PlayerDeathDisplay.shouldRespawn = false;
@@ -127,21 +139,22 @@ public class World extends Game {
 
 		Logging.WORLD.trace("Initializing world non-client...");
 
-		Logging.WORLDNAMED = Logger.tag("World/" + WorldSelectDisplay.getWorldName().toUpperCase());
+		Logging.WORLDNAMED = new AsyncLogger("World/" + WorldSelectDisplay.getWorldName().toUpperCase());
 
 		if (WorldSelectDisplay.hasLoadedWorld()) {
 			new Load(WorldSelectDisplay.getWorldName());
 		} else {
 			worldSize = (Integer) Settings.get("size");
 
-			seed = WorldGenDisplay.getSeed().orElse(new Random().nextLong());
+			seed = newSeed.orElse(new Random().nextLong());
 			random = new Random(seed);
+			if (Initializer.inputRecordingFile != null) startInputRecording(); // Only new worlds can be replayed.
 
 			float loadingInc = 100f / (MAX_LEVEL_DEPTH - MIN_LEVEL_DEPTH + 1); // The .002 is for floating point errors, in case they occur.
 			for (int i = MAX_LEVEL_DEPTH; i >= MIN_LEVEL_DEPTH; i--) {
 				// i = level depth; the array starts from the top because the parent level is used as a reference, so it should be constructed first. It is expected that the highest level will have a null parent.
 
-				Logging.WORLD.trace("Generating level " + i + "...");
+				Logging.WORLD.trace("Generating level {}...", i);
 
 				LoadingDisplay.setMessage(Level.getDepthString(i), false);
 				levels[lvlIdx(i)] = new Level(worldSize, worldSize, random.nextLong(), i, levels[lvlIdx(i + 1)], !WorldSelectDisplay.hasLoadedWorld());
@@ -171,6 +184,16 @@ public class World extends Game {
 		Logging.WORLD.trace("World initialized.");
 	}
 
+	private static void startInputRecording() {
+		try {
+			input.record(new InputRecording.Recorder(Paths.get(Initializer.inputRecordingFile),
+				String.format("seed %d size %d mode %s", seed, worldSize, Settings.get("mode"))));
+			Logging.WORLD.debug("Recording input to {}.", Initializer.inputRecordingFile);
+		} catch (IOException e) {
+			Logging.WORLD.error(e, "Could not start the input recording.");
+		}
+	}
+
 	public static long getWorldSeed() {
 		return seed;
 	}
@@ -1,10 +1,10 @@
 package minicraft.core.io;
 
 import com.badlogic.gdx.utils.SharedLibraryLoadRuntimeException;
-import com.studiohartman.jamepad.ControllerAxis;
 import com.studiohartman.jamepad.ControllerButton;
 import com.studiohartman.jamepad.ControllerIndex;
 import com.studiohartman.jamepad.ControllerManager;
+import com.studiohartman.jamepad.ControllerState;
 import com.studiohartman.jamepad.ControllerUnpluggedException;
 import minicraft.util.Logging;
 import org.jetbrains.annotations.Nullable;
@@ -15,6 +15,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -55,8 +56,10 @@ public class InputHandler implements KeyListener {
 	private final boolean controllersSupported;
 	private ControllerManager controllerManager;
 	private ControllerIndex controllerIndex; // Please prevent getting button states directly from this object.
-	private HashMap<ControllerButton, Boolean> controllerButtonBooleanMapJust = new HashMap<>();
-	private HashMap<ControllerButton, Boolean> controllerButtonBooleanMap = new HashMap<>();
+	// The state of the controller buttons at the last tick, by the ordinals of the buttons.
+	private final boolean[] controllerButtonsJust = new boolean[ControllerButton.values().length];
+	private final boolean[] controllerButtons = new boolean[ControllerButton.values().length];
+	private float leftTrigger = 0, rightTrigger = 0;
 
 	public String getChangedKey() {
 		String key = keyChanged + ";" + keymap.get(keyChanged);
@@ -90,41 +93,65 @@ public class InputHandler implements KeyListener {
 
 	private HashMap<String, String> keymap; // The symbolic map of actions to physical key names.
 	private HashMap<String, PhysicalKey> keyboard; // The actual map of key names to Key objects.
+	private final ArrayList<PhysicalKey> keyList = new ArrayList<>(); // The keys in keyboard, by their index.
+
+	// The state of the keys at the last tick, as bitsets indexed by the key indices.
+	private long[] downBits = new long[1];
+	private long[] clickedBits = new long[1];
+
+	// Bindings compiled into key matchers, by the text passed to getMappedKey. Cleared when the keymap is changed.
+	private final HashMap<String, Key> mappedKeys = new HashMap<>();
+	private boolean keymapChanged = false;
 	private String lastKeyTyped = ""; // Used for things like typing world names.
-	private String keyTypedBuffer = ""; // Used to store the last key typed before putting it into the main var during tick().
+	private final StringBuilder keysTypedBuffer = new StringBuilder(); // Collects the keys typed while draining the events.
+
+	/*
+	 * Key events are only recorded by the event thread, and applied by the game thread at the start of each tick,
+	 * so all the key states are owned by the game thread, without locking.
+	 */
+	private static final int EVENT_PRESS = 0, EVENT_RELEASE = 1, EVENT_TYPE = 2;
+	private final EventRing events = new EventRing();
+	@Nullable
+	private volatile InputRecording.Recorder recorder = null; // Set when a world is started, which is not on the game thread.
 
 	private final LastInputActivityListener lastInputActivityListener = new LastInputActivityListener();
 
 	public InputHandler() {
+		this(true);
+	}
+
+	/**
+	 * @param controllers whether to read the controllers; not needed for input that is only driven by
+	 * {@link #pressKey(String, boolean)}, like that of the players of a dedicated server
+	 */
+	public InputHandler(boolean controllers) {
 		keymap = new LinkedHashMap<>(); // Stores custom key name with physical key name in keyboard.
 		keyboard = new HashMap<>(); // Stores physical keyboard keys; auto-generated :D
 
 		initKeyMap(); // This is seperate so I can make a "restore defaults" option.
 		initButtonMap();
-		for (ControllerButton btn : ControllerButton.values()) {
-			controllerButtonBooleanMap.put(btn, false);
-			controllerButtonBooleanMapJust.put(btn, false);
-		}
 
 		// I'm not entirely sure if this is necessary... but it doesn't hurt.
-		keyboard.put("SHIFT", new PhysicalKey(true));
-		keyboard.put("CTRL", new PhysicalKey(true));
-		keyboard.put("ALT", new PhysicalKey(true));
+		addPhysKey("SHIFT", new PhysicalKey(true));
+		addPhysKey("CTRL", new PhysicalKey(true));
+		addPhysKey("ALT", new PhysicalKey(true));
 
 		boolean controllerInit = false;
-		try {
-			controllerManager = new ControllerManager();
-			controllerManager.initSDLGamepad();
-			controllerIndex = controllerManager.getControllerIndex(0);
-			controllerManager.update();
+		if (controllers) {
 			try {
-				Logging.CONTROLLER.debug("Controller Detected: " + controllerManager.getControllerIndex(0).getName());
-			} catch (ControllerUnpluggedException e) {
-				Logging.CONTROLLER.debug("No Controllers Detected, moving on.");
+				controllerManager = new ControllerManager();
+				controllerManager.initSDLGamepad();
+				controllerIndex = controllerManager.getControllerIndex(0);
+				controllerManager.update();
+				try {
+					Logging.CONTROLLER.debug("Controller Detected: " + controllerManager.getControllerIndex(0).getName());
+				} catch (ControllerUnpluggedException e) {
+					Logging.CONTROLLER.debug("No Controllers Detected, moving on.");
+				}
+				controllerInit = true;
+			} catch (IllegalStateException | SharedLibraryLoadRuntimeException | UnsatisfiedLinkError e) {
+				Logging.CONTROLLER.error(e, "Controllers are not support, being disabled.");
 			}
-			controllerInit = true;
-		} catch (IllegalStateException | SharedLibraryLoadRuntimeException | UnsatisfiedLinkError e) {
-			Logging.CONTROLLER.error(e, "Controllers are not support, being disabled.");
 		}
 		controllersSupported = controllerInit;
 	}
@@ -171,6 +198,7 @@ public class InputHandler implements KeyListener {
 		keymap.put("EXPANDQUESTDISPLAY", "L"); // Expands the quest display
 		keymap.put("TOGGLEHUD", "F1"); // Toggle HUD
 		keymap.put("SCREENSHOT", "F2"); // To make screenshot
+		keymap.put("SCREENSHOT-BURST", "SHIFT-F2"); // To make screenshots of several frames in a row
 		keymap.put("INFO", "SHIFT-I"); // Toggle player stats display
 
 		keymap.put("FULLSCREEN", "F11");
@@ -209,40 +237,133 @@ public class InputHandler implements KeyListener {
 	public void resetKeyBindings() {
 		keymap.clear();
 		initKeyMap();
+		keymapChanged = true;
 	}
 
 	/**
 	 * Processes each key one by one, in keyboard.
 	 */
 	public void tick() {
-		lastKeyTyped = keyTypedBuffer;
-		keyTypedBuffer = "";
+		drainEvents();
 		inputMask = null;
-		synchronized ("lock") {
-			for (PhysicalKey key : keyboard.values())
-				key.tick(); // Call tick() for each key.
-		}
+		for (PhysicalKey key : keyboard.values())
+			key.tick(); // Call tick() for each key.
+		updateKeyStates();
+
+		// Also update the controller button state.
+		if (controllersSupported) pollController();
 
 		lastInputActivityListener.tick();
 
-		// Also update the controller button state.
-		if (controllersSupported) {
-			for (ControllerButton btn : ControllerButton.values()) {
-				try {
-					controllerButtonBooleanMapJust.put(btn, controllerIndex.isButtonJustPressed(btn));
-				} catch (ControllerUnpluggedException e) {
-					controllerButtonBooleanMapJust.put(btn, false);
-				}
-				try {
-					controllerButtonBooleanMap.put(btn, controllerIndex.isButtonPressed(btn));
-				} catch (ControllerUnpluggedException e) {
-					controllerButtonBooleanMap.put(btn, false);
-				}
+		if (leftTriggerCooldown > 0) leftTriggerCooldown--;
+		if (rightTriggerCooldown > 0) rightTriggerCooldown--;
+	}
+
+	/**
+	 * A bounded queue of key events, written by the event thread and read by the game thread only.
+	 * Each event is an int, with the type in the top two bits, and the key code or the typed character in the rest.
+	 */
+	private static class EventRing {
+		private static final int CAPACITY = 256; // A power of two.
+		private final int[] events = new int[CAPACITY];
+		private volatile int head = 0; // Written by the reader only.
+		private volatile int tail = 0; // Written by the writer only.
+
+		/** @return {@code false} if the queue is full and the event is dropped */
+		public boolean offer(int type, int value) {
+			int t = tail;
+			if (t - head == CAPACITY) return false;
+			events[t & (CAPACITY - 1)] = type << 30 | (value & 0x3FFFFFFF);
+			tail = t + 1; // Publishes the event.
+			return true;
+		}
+
+		public boolean isEmpty() {
+			return head == tail;
+		}
+
+		public int take() {
+			int h = head;
+			int event = events[h & (CAPACITY - 1)];
+			head = h + 1;
+			return event;
+		}
+
+		/** Drops the events pending. */
+		public void clear() {
+			head = tail;
+		}
+	}
+
+	private void drainEvents() {
+		while (!events.isEmpty()) {
+			int event = events.take();
+			int value = event & 0x3FFFFFFF;
+			switch (event >>> 30) {
+				case EVENT_PRESS: toggle(value, true); break;
+				case EVENT_RELEASE: toggle(value, false); break;
+				case EVENT_TYPE: keysTypedBuffer.append((char) value); break;
 			}
 		}
 
-		if (leftTriggerCooldown > 0) leftTriggerCooldown--;
-		if (rightTriggerCooldown > 0) rightTriggerCooldown--;
+		lastKeyTyped = keysTypedBuffer.length() == 0 ? "" : keysTypedBuffer.toString();
+		keysTypedBuffer.setLength(0);
+	}
+
+	private void queueEvent(int type, int value) {
+		if (!events.offer(type, value))
+			Logger.tag("INPUT").warn("Input event dropped; too many events are pending.");
+	}
+
+	// Reads all the buttons of the controller at once.
+	private void pollController() {
+		ControllerState state = controllerManager.getState(controllerIndex.getIndex());
+		setButton(ControllerButton.A, state.a, state.aJustPressed);
+		setButton(ControllerButton.B, state.b, state.bJustPressed);
+		setButton(ControllerButton.X, state.x, state.xJustPressed);
+		setButton(ControllerButton.Y, state.y, state.yJustPressed);
+		setButton(ControllerButton.BACK, state.back, state.backJustPressed);
+		setButton(ControllerButton.GUIDE, state.guide, state.guideJustPressed);
+		setButton(ControllerButton.START, state.start, state.startJustPressed);
+		setButton(ControllerButton.LEFTSTICK, state.leftStickClick, state.leftStickJustClicked);
+		setButton(ControllerButton.RIGHTSTICK, state.rightStickClick, state.rightStickJustClicked);
+		setButton(ControllerButton.LEFTBUMPER, state.lb, state.lbJustPressed);
+		setButton(ControllerButton.RIGHTBUMPER, state.rb, state.rbJustPressed);
+		setButton(ControllerButton.DPAD_UP, state.dpadUp, state.dpadUpJustPressed);
+		setButton(ControllerButton.DPAD_DOWN, state.dpadDown, state.dpadDownJustPressed);
+		setButton(ControllerButton.DPAD_LEFT, state.dpadLeft, state.dpadLeftJustPressed);
+		setButton(ControllerButton.DPAD_RIGHT, state.dpadRight, state.dpadRightJustPressed);
+		setButton(ControllerButton.BUTTON_MISC1, state.misc1, state.misc1JustPressed);
+		setButton(ControllerButton.BUTTON_PADDLE1, state.paddle1, state.paddle1JustPressed);
+		setButton(ControllerButton.BUTTON_PADDLE2, state.paddle2, state.paddle2JustPressed);
+		setButton(ControllerButton.BUTTON_PADDLE3, state.paddle3, state.paddle3JustPressed);
+		setButton(ControllerButton.BUTTON_PADDLE4, state.paddle4, state.paddle4JustPressed);
+		setButton(ControllerButton.BUTTON_TOUCHPAD, state.touchpadButton, state.touchpadButtonJustPressed);
+		leftTrigger = state.leftTrigger;
+		rightTrigger = state.rightTrigger;
+	}
+
+	private void setButton(ControllerButton button, boolean down, boolean justPressed) {
+		controllerButtons[button.ordinal()] = down;
+		controllerButtonsJust[button.ordinal()] = justPressed;
+	}
+
+	// Takes the snapshot of the key states read by the mapped keys during this tick.
+	private void updateKeyStates() {
+		int words = (keyList.size() + 63) >> 6;
+		if (downBits.length < words) {
+			downBits = new long[words];
+			clickedBits = new long[words];
+		} else {
+			Arrays.fill(downBits, 0);
+			Arrays.fill(clickedBits, 0);
+		}
+
+		for (int i = 0; i < keyList.size(); i++) {
+			PhysicalKey key = keyList.get(i);
+			if (key.down) downBits[i >> 6] |= 1L << i;
+			if (key.clicked) clickedBits[i >> 6] |= 1L << i;
+		}
 	}
 
 	// The Key class.
@@ -257,6 +378,7 @@ public class InputHandler implements KeyListener {
 	}
 
 	private static class PhysicalKey extends Key {
+		private int index = -1; // The index in keyList and the key state bitsets.
 		// presses = how many times the Key has been pressed.
 		// absorbs = how many key presses have been processed.
 		private int presses, absorbs;
@@ -327,39 +449,74 @@ public class InputHandler implements KeyListener {
 		}
 	}
 
+	/** A physical key as read from the key state bitsets of the last tick; it is released while masked. */
+	private class TrackedKey extends Key {
+		private final String name;
+		private final int index;
+
+		public TrackedKey(String name, int index) {
+			this.name = name;
+			this.index = index;
+		}
+
+		private boolean isSet(long[] bits) {
+			return (index >> 6) < bits.length && (bits[index >> 6] & 1L << index) != 0 &&
+				(inputMask == null || !inputMask.test(name));
+		}
+
+		@Override
+		public boolean isDown() {
+			return isSet(downBits);
+		}
+
+		@Override
+		public boolean isClicked() {
+			return isSet(clickedBits);
+		}
+	}
+
 	private static class CompoundedKey extends Key {
-		private final HashSet<Key> keys;
+		private final Key[] keys;
 
 		public CompoundedKey(Collection<Key> keys) {
-			this.keys = new HashSet<>(keys);
+			this.keys = new HashSet<>(keys).toArray(new Key[0]);
 		}
 
 		@Override
 		public boolean isDown() { // All keys down.
-			return keys.stream().allMatch(Key::isDown);
+			for (Key key : keys)
+				if (!key.isDown()) return false;
+			return true;
 		}
 
 		@Override
 		public boolean isClicked() { // If the whole key binding is clicked, then the all keys must be down and at least one of these is/are just clicked.
-			return isDown() && keys.stream().anyMatch(Key::isClicked);
+			if (!isDown()) return false;
+			for (Key key : keys)
+				if (key.isClicked()) return true;
+			return false;
 		}
 	}
 
 	private static class ORKey extends Key {
-		private final HashSet<Key> keys;
+		private final Key[] keys;
 
 		public ORKey(Collection<Key> keys) {
-			this.keys = new HashSet<>(keys);
+			this.keys = new HashSet<>(keys).toArray(new Key[0]);
 		}
 
 		@Override
 		public boolean isDown() {
-			return keys.stream().anyMatch(Key::isDown);
+			for (Key key : keys)
+				if (key.isDown()) return true;
+			return false;
 		}
 
 		@Override
 		public boolean isClicked() {
-			return keys.stream().anyMatch(Key::isClicked);
+			for (Key key : keys)
+				if (key.isClicked()) return true;
+			return false;
 		}
 	}
 
@@ -384,17 +541,23 @@ public class InputHandler implements KeyListener {
 
 	/**
 	 * This is used to stop all of the actions when the game is out of focus.
+	 * The key events pending are dropped, so that they are not applied once the game has the focus again.
 	 */
 	public void releaseAll() {
+		events.clear();
+		lastKeyTyped = "";
 		for (PhysicalKey key : keyboard.values()) {
 			key.release();
 		}
+		updateKeyStates();
 	}
 
 	/// This is meant for changing the default keys. Call it from the options menu, or something.
 	public void setKey(String keymapKey, String keyboardKey) {
-		if (keymapKey != null && keymap.containsKey(keymapKey)) // The keyboardKey can be null, I suppose, if you want to disable a key...
+		if (keymapKey != null && keymap.containsKey(keymapKey)) { // The keyboardKey can be null, I suppose, if you want to disable a key...
 			keymap.put(keymapKey, keyboardKey);
+			keymapChanged = true;
+		}
 	}
 
 	/**
@@ -439,31 +602,48 @@ public class InputHandler implements KeyListener {
 
 	/// THIS is pretty much the only way you want to be interfacing with this class; it has all the auto-create and protection functions and such built-in.
 	// For mapped keys
+	/**
+	 * Gets the key of the binding. Each binding text is compiled once into a key reading the key states of the last tick,
+	 * until the keymap is changed, so polling does not allocate.
+	 * @param keyText an action name, or physical key names, like {@code "SHIFT-E"} or {@code "shift+cursor-up"}
+	 * @return the key of the binding
+	 */
 	public Key getMappedKey(String keyText) {
-		keyText = keyText.toUpperCase(java.util.Locale.ENGLISH); // Prevent errors due to improper "casing"
-		synchronized ("lock") {
-			// If the passed-in key equals one in keymap, then replace it with its match, a key in keyboard.
-			if (keymap.containsKey(keyText)) // If false, we assume that keytext is a physical key.
-				keyText = keymap.get(keyText); // Converts action name to physical key name
+		if (keymapChanged) {
+			keymapChanged = false;
+			mappedKeys.clear();
+		}
+
+		Key key = mappedKeys.get(keyText);
+		if (key == null) {
+			key = compileMappedKey(keyText);
+			mappedKeys.put(keyText, key);
 		}
 
+		return key;
+	}
+
+	private Key compileMappedKey(String keyText) {
+		keyText = keyText.toUpperCase(java.util.Locale.ENGLISH); // Prevent errors due to improper "casing"
+		// If the passed-in key equals one in keymap, then replace it with its match, a key in keyboard.
+		if (keymap.containsKey(keyText)) // If false, we assume that keytext is a physical key.
+			keyText = keymap.get(keyText); // Converts action name to physical key name
+
 		if (keyText.contains("|")) {
 			/// Multiple key possibilities exist for this action; so, combine the results of each one!
 			ArrayList<Key> keys = new ArrayList<>();
 			for (String keyposs : keyText.split("\\|")) { // String.split() uses regex, and "|" is a special character, so it must be escaped; but the backslash must be passed in, so it needs escaping.
 				// It really does combine using "or":
-				keys.add(getMappedKey(keyposs));
+				keys.add(compileMappedKey(keyposs));
 			}
 			return new ORKey(keys);
 		}
 
 		// Complex compound key binding support.
 		HashSet<Key> keys = new HashSet<>();
-		synchronized ("lock") {
-			String[] split = keyText.split("\\+");
-			for (String s : split) {
-				keys.add(getKey(keymap.getOrDefault(s, s)));
-			}
+		String[] split = keyText.split("\\+");
+		for (String s : split) {
+			keys.add(getKey(keymap.getOrDefault(s, s)));
 		}
 
 		//if(key.clicked && Game.debug) System.out.println("Processed key: " + keytext + " is clicked; tickNum=" + ticks);
@@ -489,21 +669,17 @@ public class InputHandler implements KeyListener {
 
 		// Complex compound key binding support.
 		HashSet<Key> keys = new HashSet<>();
-		synchronized ("lock") {
-			String[] split = keytext.split("-");
-			for (String s : split) {
-				if (keyboard.containsKey(s))
-					// Gets the key object from keyboard, if it exists.
-					keys.add(inputMask == null || !inputMask.test(s) ? keyboard.get(s) : KEY_MASK);
-				else {
-					// If the specified key does not yet exist in keyboard, then create a new Key, and put it there.
-					PhysicalKey key = new PhysicalKey(); // Make new key
-					keyboard.put(s, key); // Add it to keyboard
-					keys.add(key);
-
-					//if(Game.debug) System.out.println("Added new key: \'" + keytext + "\'"); //log to console that a new key was added to the keyboard
-				}
+		String[] split = keytext.split("-");
+		for (String s : split) {
+			PhysicalKey key = keyboard.get(s); // Gets the key object from keyboard, if it exists.
+			if (key == null) {
+				// If the specified key does not yet exist in keyboard, then create a new Key, and put it there.
+				key = addPhysKey(s, new PhysicalKey()); // Make new key, and add it to keyboard
+
+				//if(Game.debug) System.out.println("Added new key: \'" + keytext + "\'"); //log to console that a new key was added to the keyboard
 			}
+
+			keys.add(new TrackedKey(s, key.index)); // The input mask is checked when the key is read.
 		}
 
 		// Returns the key itself if there is only one key.
@@ -513,27 +689,45 @@ public class InputHandler implements KeyListener {
 		return new CompoundedKey(keys); // Return the Key object.
 	}
 
-	/// This method provides a way to press physical keys without actually generating a key event.
-	/*public void pressKey(String keyname, boolean pressed) {
-		Key key = getPhysKey(keyname);
-		key.toggle(pressed);
-		//System.out.println("Key " + keyname + " is clicked: " + getPhysKey(keyname).clicked);
-	}*/
+	/**
+	 * Presses or releases a physical key without a key event, as when replaying an {@link InputRecording}.
+	 * This must be called by the game thread, before the tick the key is read in.
+	 * @param keyname the key name, as in the key bindings
+	 * @param pressed whether the key is pressed
+	 */
+	public void pressKey(String keyname, boolean pressed) {
+		getPhysKey(keyname).toggle(pressed);
+	}
+
+	/**
+	 * Starts recording the key events applied, replacing the current recording if any.
+	 * @param recorder the recorder; {@code null} to stop recording
+	 */
+	public void record(@Nullable InputRecording.Recorder recorder) {
+		InputRecording.Recorder previous = this.recorder;
+		this.recorder = recorder;
+		if (previous != null) previous.close();
+	}
 
 	public ArrayList<String> getAllPressedKeys() {
 		ArrayList<String> keyList = new ArrayList<>(keyboard.size());
 
-		synchronized ("lock") {
-			for (Entry<String, PhysicalKey> entry : keyboard.entrySet()) {
-				if (entry.getValue().down) {
-					keyList.add(entry.getKey());
-				}
+		for (Entry<String, PhysicalKey> entry : keyboard.entrySet()) {
+			if (entry.getValue().down) {
+				keyList.add(entry.getKey());
 			}
 		}
 
 		return keyList;
 	}
 
+	private PhysicalKey addPhysKey(String name, PhysicalKey key) {
+		key.index = keyList.size();
+		keyList.add(key);
+		keyboard.put(name, key);
+		return key;
+	}
+
 	/// This gets a key from key text, w/o adding to the key list.
 	private PhysicalKey getPhysKey(String keytext) {
 		keytext = keytext.toUpperCase();
@@ -564,55 +758,28 @@ public class InputHandler implements KeyListener {
 		//System.out.println("Toggling " + keytext + " key (keycode " + keycode + ") to "+pressed+".");
 		if (pressed && keyToChange != null && !isMod(keytext)) {
 			keymap.put(keyToChange, (overwrite ? "" : keymap.get(keyToChange) + "|") + getCurModifiers() + keytext);
+			keymapChanged = true;
 			keyChanged = keyToChange;
 			keyToChange = null;
 			return;
 		}
 
 		getPhysKey(keytext).toggle(pressed);
+		InputRecording.Recorder recorder = this.recorder;
+		if (recorder != null) recorder.record(keytext, pressed);
 		// System.out.println(keytext+";"+getPhysKey(keytext).hashCode()+";"+pressed);
 	}
 
-	// This provides a way to inspect values during running with an external display.
-	/*static JFrame frame = new JFrame();
-	static JTextArea textField = new JTextArea();
-	static Thread liveTracking;
-	static {
-		frame.add(textField);
-		textField.setText("INVALID");
-		frame.setUndecorated(true);
-		frame.pack();
-		frame.setVisible(true);
-		liveTracking = new Thread(new Runnable() {
-			long lastTick = 0;
-			@Override
-			public void run() {
-				while (true) {
-					long tick = System.currentTimeMillis();
-					if (tick - lastTick > 50) {
-						synchronized ("lock") {
-							if (Game.input == null) continue;
-							textField.setText("F3: " + Game.input.getPhysKey("F3")
-								+ "\nE: " + Game.input.getPhysKey("E"));
-						}
-						frame.pack();
-						lastTick = tick;
-					}
-				}
-			}
-		}, "Live Debugging Value Tracker");
-		liveTracking.start();
-	}*/
-
 	private static boolean isMod(String keyname) {
 		keyname = keyname.toUpperCase();
 		return keyname.equals("SHIFT") || keyname.equals("CTRL") || keyname.equals("ALT");
 	}
 
+	// Called while draining the events, so the key states are up to the event being applied.
 	private String getCurModifiers() {
-		return (getKey("ctrl").isDown() ? "CTRL-" : "") +
-			(getKey("alt").isDown() ? "ALT-" : "") +
-			(getKey("shift").isDown() ? "SHIFT-" : "");
+		return (getPhysKey("CTRL").isDown() ? "CTRL-" : "") +
+			(getPhysKey("ALT").isDown() ? "ALT-" : "") +
+			(getPhysKey("SHIFT").isDown() ? "SHIFT-" : "");
 	}
 
 	/**
@@ -640,16 +807,16 @@ public class InputHandler implements KeyListener {
 
 	/// Event methods, many to satisfy interface requirements...
 	public void keyPressed(KeyEvent ke) {
-		toggle(ke.getExtendedKeyCode(), true);
+		queueEvent(EVENT_PRESS, ke.getExtendedKeyCode());
 	}
 
 	public void keyReleased(KeyEvent ke) {
-		toggle(ke.getExtendedKeyCode(), false);
+		queueEvent(EVENT_RELEASE, ke.getExtendedKeyCode());
 	}
 
 	public void keyTyped(KeyEvent ke) {
-		// Stores the last character typed
-		keyTypedBuffer = String.valueOf(ke.getKeyChar());
+		// Stores the character typed
+		queueEvent(EVENT_TYPE, ke.getKeyChar());
 	}
 
 	private static final String CONTROL = "[\\p{Print}\n]+"; // Should match only printable characters.
@@ -709,31 +876,50 @@ public class InputHandler implements KeyListener {
 	}
 
 	public boolean buttonPressed(ControllerButton button) {
-		return controllerButtonBooleanMapJust.get(button);
+		return controllerButtonsJust[button.ordinal()];
 	}
 
 	public boolean buttonDown(ControllerButton button) {
-		return controllerButtonBooleanMap.get(button);
+		return controllerButtons[button.ordinal()];
 	}
 
 	public ArrayList<ControllerButton> getAllPressedButtons() {
 		ArrayList<ControllerButton> btnList = new ArrayList<>();
 		for (ControllerButton btn : ControllerButton.values()) {
-			if (controllerButtonBooleanMap.get(btn))
+			if (controllerButtons[btn.ordinal()])
 				btnList.add(btn);
 		}
 
 		return btnList;
 	}
 
+	private boolean anyButtonDown() {
+		for (boolean down : controllerButtons)
+			if (down) return true;
+		return false;
+	}
+
 	public boolean inputPressed(String mapping) {
-		mapping = mapping.toUpperCase(java.util.Locale.ENGLISH);
-		return getMappedKey(mapping).isClicked() || (buttonMap.containsKey(mapping) && buttonPressed(buttonMap.get(mapping)));
+		ControllerButton button = getMappedButton(mapping);
+		return getMappedKey(mapping).isClicked() || (button != null && buttonPressed(button));
 	}
 
 	public boolean inputDown(String mapping) {
-		mapping = mapping.toUpperCase(java.util.Locale.ENGLISH);
-		return getMappedKey(mapping).isDown() || (buttonMap.containsKey(mapping) && buttonDown(buttonMap.get(mapping)));
+		ControllerButton button = getMappedButton(mapping);
+		return getMappedKey(mapping).isDown() || (button != null && buttonDown(button));
+	}
+
+	// The button mapping is fixed, so the buttons are cached by the text passed in, like the mapped keys.
+	private final HashMap<String, ControllerButton> mappedButtons = new HashMap<>();
+
+	private @Nullable ControllerButton getMappedButton(String mapping) {
+		ControllerButton button = mappedButtons.get(mapping);
+		if (button == null && !mappedButtons.containsKey(mapping)) {
+			button = buttonMap.get(mapping.toUpperCase(java.util.Locale.ENGLISH));
+			mappedButtons.put(mapping, button);
+		}
+
+		return button;
 	}
 
 	/**
@@ -759,31 +945,25 @@ public class InputHandler implements KeyListener {
 	private int rightTriggerCooldown = 0;
 
 	public boolean leftTriggerPressed() {
-		if (controllersSupported) {
-			try {
-				if (leftTriggerCooldown == 0 && controllerIndex.getAxisState(ControllerAxis.TRIGGERLEFT) > 0.5) {
-					leftTriggerCooldown = 8;
-					return true;
-				} else
-					return false;
-			} catch (ControllerUnpluggedException e) {
-				return false;
-			}
-		} else return false;
+		if (leftTriggerCooldown == 0 && leftTrigger > 0.5) {
+			leftTriggerCooldown = 8;
+			return true;
+		} else
+			return false;
 	}
 
 	public boolean rightTriggerPressed() {
-		if (controllersSupported) {
-			try {
-				if (rightTriggerCooldown == 0 && controllerIndex.getAxisState(ControllerAxis.TRIGGERRIGHT) > 0.5) {
-					rightTriggerCooldown = 8;
-					return true;
-				} else
-					return false;
-			} catch (ControllerUnpluggedException e) {
-				return false;
-			}
-		} else return false;
+		if (rightTriggerCooldown == 0 && rightTrigger > 0.5) {
+			rightTriggerCooldown = 8;
+			return true;
+		} else
+			return false;
+	}
+
+	private boolean anyKeyDown() {
+		for (long bits : downBits)
+			if (bits != 0) return true;
+		return false;
 	}
 
 	private class LastInputActivityListener {
@@ -791,9 +971,9 @@ public class InputHandler implements KeyListener {
 		public long lastButtonActivityTimestamp = 0;
 
 		public void tick() {
-			if (getAllPressedKeys().size() > 0)
+			if (anyKeyDown())
 				lastKeyActivityTimestamp = System.currentTimeMillis();
-			if (getAllPressedButtons().size() > 0)
+			if (anyButtonDown())
 				lastButtonActivityTimestamp = System.currentTimeMillis();
 		}
 	}
@@ -0,0 +1,136 @@
+package minicraft.core.io;
+
+import minicraft.core.Updater;
+import minicraft.util.Logging;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * A recorded stream of key presses and releases, replayed tick by tick by the headless simulation.
+ * <p>
+ * The text format has one event per line: the tick, the key name as in the key bindings, and {@code down} or {@code up},
+ * like {@code 120 W down}. The tick is the {@link Updater#gameTime} of the tick the event is applied in, so it counts
+ * from the start of the world. Lines starting with {@code #} are comments; the recorder writes the world settings there.
+ * Typed text is not recorded, so menus that take text input are not replayed.
+ */
+public final class InputRecording {
+	private final int[] ticks; // In ascending order.
+	private final String[] keys;
+	private final boolean[] pressed;
+	private int next = 0; // The next event to be replayed.
+
+	private InputRecording(int[] ticks, String[] keys, boolean[] pressed) {
+		this.ticks = ticks;
+		this.keys = keys;
+		this.pressed = pressed;
+	}
+
+	/**
+	 * Reads a recording.
+	 * @param file the recording file
+	 * @return the recording, ready to be replayed from the start
+	 * @throws IOException if the file could not be read, or has an invalid line
+	 */
+	public static InputRecording read(Path file) throws IOException {
+		ArrayList<String[]> events = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			int lineNumber = 0;
+			int lastTick = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) continue;
+
+				String[] parts = line.split("\\s+");
+				if (parts.length != 3 || !parts[2].equals("down") && !parts[2].equals("up"))
+					throw new IOException(file + ":" + lineNumber + ": expected \"<tick> <key> down|up\", got \"" + line + "\"");
+				int tick;
+				try {
+					tick = Integer.parseInt(parts[0]);
+				} catch (NumberFormatException e) {
+					throw new IOException(file + ":" + lineNumber + ": invalid tick \"" + parts[0] + "\"");
+				}
+				if (tick < lastTick)
+					throw new IOException(file + ":" + lineNumber + ": ticks must be in ascending order");
+				lastTick = tick;
+				events.add(parts);
+			}
+		}
+
+		int[] ticks = new int[events.size()];
+		String[] keys = new String[events.size()];
+		boolean[] pressed = new boolean[events.size()];
+		for (int i = 0; i < events.size(); i++) {
+			String[] event = events.get(i);
+			ticks[i] = Integer.parseInt(event[0]);
+			keys[i] = event[1].toUpperCase();
+			pressed[i] = event[2].equals("down");
+		}
+
+		return new InputRecording(ticks, keys, pressed);
+	}
+
+	/**
+	 * Applies the events up to the given tick, which have not been applied yet.
+	 * This is to be called by the game thread before each tick.
+	 * @param input the input handler of the player
+	 * @param tick the {@link Updater#gameTime} of the coming tick
+	 */
+	public void replay(InputHandler input, int tick) {
+		while (next < ticks.length && ticks[next] <= tick) {
+			input.pressKey(keys[next], pressed[next]);
+			next++;
+		}
+	}
+
+	/** @return the number of events */
+	public int size() {
+		return ticks.length;
+	}
+
+	/** @return the tick of the last event; 0 if there are none */
+	public int getLastTick() {
+		return ticks.length == 0 ? 0 : ticks[ticks.length - 1];
+	}
+
+	/**
+	 * Writes the key events of a world as they are applied, for {@link InputHandler#record(Recorder)}.
+	 */
+	public static class Recorder {
+		private final Path file;
+		private final PrintWriter out;
+		private boolean failed = false;
+
+		/**
+		 * Creates the recording file, replacing an existing one.
+		 * @param file the recording file
+		 * @param header the description of the world, written as a comment
+		 * @throws IOException if the file could not be created
+		 */
+		public Recorder(Path file, String header) throws IOException {
+			this.file = file;
+			out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+			out.println("# " + header);
+		}
+
+		void record(String key, boolean pressed) {
+			out.println(Updater.gameTime + " " + key + (pressed ? " down" : " up"));
+			out.flush(); // The game may not exit cleanly.
+			if (!failed && out.checkError()) {
+				failed = true;
+				Logging.GAMEHANDLER.error("Could not write the input recording to {}.", file);
+			}
+		}
+
+		void close() {
+			out.close();
+		}
+	}
+}
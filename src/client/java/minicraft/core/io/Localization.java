@@ -1,5 +1,6 @@
 package minicraft.core.io;
 
+import minicraft.gfx.Font;
 import minicraft.util.Logging;
 import org.jetbrains.annotations.NotNull;
 import org.json.JSONObject;
@@ -21,12 +22,24 @@ public class Localization {
 
 	private static final Pattern NUMBER_REGEX = Pattern.compile("^[+-]?((\\d+(\\.\\d*)?)|(\\.\\d+))$");
 	private static final HashMap<Locale, HashSet<String>> KNOWN_UNLOCALIZED_STRINGS = new HashMap<>();
-	private static final HashMap<String, String> LOCALIZATION = new HashMap<>();
+	private static final HashMap<String, LocalizationTemplate> LOCALIZATION = new HashMap<>();
 
 	private static Locale selectedLocale = DEFAULT_LOCALE;
 	private static final HashMap<Locale, ArrayList<String>> UNLOADED_LOCALIZATION = new HashMap<>();
 	private static final HashMap<Locale, LocaleInformation> LOCALE_INFO = new HashMap<>();
 
+	/**
+	 * Get the provided key's localization for the currently selected language.
+	 * This does not allocate if the localized string has no placeholders.
+	 * @param key The key to localize.
+	 * @return A localized string.
+	 */
+	@NotNull
+	public static String getLocalized(String key) {
+		LocalizationTemplate template = getTemplate(key);
+		return template == null ? key : template.format();
+	}
+
 	/**
 	 * Get the provided key's localization for the currently selected language.
 	 * @param key The key to localize.
@@ -35,29 +48,39 @@ public class Localization {
 	 */
 	@NotNull
 	public static String getLocalized(String key, Object... arguments) {
-		if (key.matches("^ *$")) return key; // Blank, or just whitespace
-		if (selectedLocale == DEBUG_LOCALE) return key;
+		LocalizationTemplate template = getTemplate(key);
+		return template == null ? key : template.format(arguments);
+	}
 
-		if (NUMBER_REGEX.matcher(key).matches()) {
-			return key; // This is a number; don't try to localize it
-		}
+	/**
+	 * Gets the compiled localization of the key.
+	 * @return the template; {@code null} if the key should be shown as it is
+	 */
+	private static LocalizationTemplate getTemplate(String key) {
+		if (isBlank(key)) return null; // Blank, or just whitespace
+		if (selectedLocale == DEBUG_LOCALE) return null;
 
-		String localString = LOCALIZATION.get(key);
+		LocalizationTemplate template = LOCALIZATION.get(key); // Numbers are never added as keys.
+		if (template != null) return template;
 
-		if (localString == null) {
-			if (!KNOWN_UNLOCALIZED_STRINGS.containsKey(selectedLocale))
-				KNOWN_UNLOCALIZED_STRINGS.put(selectedLocale, new HashSet<>());
-			if (!KNOWN_UNLOCALIZED_STRINGS.get(selectedLocale).contains(key)) {
-				Logger.tag("LOC").trace(unlocalizedStringTracing ? new Throwable("Tracing") : null, "{}: '{}' is unlocalized.", selectedLocale.toLanguageTag(), key);
-				KNOWN_UNLOCALIZED_STRINGS.get(selectedLocale).add(key);
-			}
+		if (NUMBER_REGEX.matcher(key).matches()) {
+			return null; // This is a number; don't try to localize it
 		}
 
-		if (localString != null) {
-			localString = String.format(getSelectedLocale(), localString, arguments);
+		if (!KNOWN_UNLOCALIZED_STRINGS.containsKey(selectedLocale))
+			KNOWN_UNLOCALIZED_STRINGS.put(selectedLocale, new HashSet<>());
+		if (!KNOWN_UNLOCALIZED_STRINGS.get(selectedLocale).contains(key)) {
+			Logger.tag("LOC").trace(unlocalizedStringTracing ? new Throwable("Tracing") : null, "{}: '{}' is unlocalized.", selectedLocale.toLanguageTag(), key);
+			KNOWN_UNLOCALIZED_STRINGS.get(selectedLocale).add(key);
 		}
 
-		return (localString == null ? key : localString);
+		return null;
+	}
+
+	private static boolean isBlank(String key) {
+		for (int i = 0; i < key.length(); i++)
+			if (key.charAt(i) != ' ') return false;
+		return true;
 	}
 
 	/**
@@ -110,6 +133,7 @@ public class Localization {
 	public static void loadLanguage() {
 		Logging.RESOURCEHANDLER_LOCALIZATION.trace("Loading language...");
 		LOCALIZATION.clear();
+		Font.clearLayouts();
 
 		if (selectedLocale == DEBUG_LOCALE) return; // DO NOT load any localization for debugging.
 
@@ -122,7 +146,7 @@ public class Localization {
 		for (String text : UNLOADED_LOCALIZATION.get(selectedLocale)) {
 			json = new JSONObject(text);
 			for (String key : json.keySet()) {
-				LOCALIZATION.put(key, json.getString(key));
+				putLocalization(key, json.getString(key));
 			}
 		}
 
@@ -132,13 +156,18 @@ public class Localization {
 				json = new JSONObject(text);
 				for (String key : json.keySet()) {
 					if (!LOCALIZATION.containsKey(key)) { // The default localization is added only when the key is not existed.
-						LOCALIZATION.put(key, json.getString(key));
+						putLocalization(key, json.getString(key));
 					}
 				}
 			}
 		}
 	}
 
+	private static void putLocalization(String key, String localString) {
+		if (NUMBER_REGEX.matcher(key).matches()) return; // Numbers are never localized.
+		LOCALIZATION.put(key, LocalizationTemplate.compile(localString, selectedLocale));
+	}
+
 	public static void resetLocalizations() {
 		// Clear array with localization files.
 		UNLOADED_LOCALIZATION.clear();
@@ -0,0 +1,187 @@
+package minicraft.core.io;
+
+import java.math.BigInteger;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Locale;
+
+/**
+ * A localized string compiled once when the language is loaded.
+ * The placeholders used by the localization files ({@code %s}, {@code %d}, with an optional width and zero padding)
+ * are parsed into segments, so formatting is only appending the literals and the arguments into a reused builder.
+ * Strings without placeholders are formatted once in advance.
+ * Anything else is left to {@link String#format(Locale, String, Object...)}, which also reports invalid usages.
+ */
+final class LocalizationTemplate {
+	private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+	private final Locale locale;
+	private final String source;
+	private final String constant; // The formatted string, if there are no placeholders; otherwise null.
+
+	// The compiled segments: literals[i] is followed by the placeholder i, and the last literal by nothing.
+	// Null if the source is not supported, and left to String.format.
+	private final String[] literals;
+	private final char[] conversions;
+	private final int[] widths;
+	private final boolean[] zeroPads;
+
+	private LocalizationTemplate(Locale locale, String source, String constant, String[] literals, char[] conversions, int[] widths, boolean[] zeroPads) {
+		this.locale = locale;
+		this.source = source;
+		this.constant = constant;
+		this.literals = literals;
+		this.conversions = conversions;
+		this.widths = widths;
+		this.zeroPads = zeroPads;
+	}
+
+	/**
+	 * Compiles the localized string.
+	 * @param source the localized string, a format string
+	 * @param locale the locale to format with
+	 * @return the compiled template
+	 */
+	static LocalizationTemplate compile(String source, Locale locale) {
+		boolean plainDigits = DecimalFormatSymbols.getInstance(locale).getZeroDigit() == '0';
+		ArrayList<String> literals = new ArrayList<>();
+		StringBuilder conversions = new StringBuilder();
+		ArrayList<Integer> widths = new ArrayList<>();
+		ArrayList<Boolean> zeroPads = new ArrayList<>();
+		StringBuilder literal = new StringBuilder();
+
+		int i = 0;
+		while (i < source.length()) {
+			char ch = source.charAt(i++);
+			if (ch != '%') {
+				literal.append(ch);
+				continue;
+			}
+
+			if (i >= source.length()) return unsupported(source, locale);
+			ch = source.charAt(i);
+			if (ch == '%') {
+				literal.append('%');
+				i++;
+				continue;
+			} else if (ch == 'n') {
+				literal.append(System.lineSeparator());
+				i++;
+				continue;
+			}
+
+			boolean zeroPad = ch == '0';
+			if (zeroPad) i++;
+			int width = 0;
+			while (i < source.length() && Character.isDigit(source.charAt(i)))
+				width = width * 10 + source.charAt(i++) - '0';
+			if (i >= source.length()) return unsupported(source, locale);
+
+			char conversion = source.charAt(i++);
+			if (conversion != 's' && conversion != 'd') return unsupported(source, locale); // Like indexed or precision arguments.
+			if (conversion == 'd' && !plainDigits) return unsupported(source, locale); // Localized digits.
+			if (zeroPad && (conversion != 'd' || width == 0)) return unsupported(source, locale); // Invalid; String.format throws.
+
+			literals.add(literal.toString());
+			literal.setLength(0);
+			conversions.append(conversion);
+			widths.add(width);
+			zeroPads.add(zeroPad);
+		}
+
+		literals.add(literal.toString());
+		if (conversions.length() == 0)
+			return new LocalizationTemplate(locale, source, literals.get(0), null, null, null, null);
+
+		int[] widthArray = new int[widths.size()];
+		boolean[] zeroPadArray = new boolean[zeroPads.size()];
+		for (int j = 0; j < widthArray.length; j++) {
+			widthArray[j] = widths.get(j);
+			zeroPadArray[j] = zeroPads.get(j);
+		}
+
+		return new LocalizationTemplate(locale, source, null, literals.toArray(new String[0]),
+			conversions.toString().toCharArray(), widthArray, zeroPadArray);
+	}
+
+	private static LocalizationTemplate unsupported(String source, Locale locale) {
+		return new LocalizationTemplate(locale, source, null, null, null, null, null);
+	}
+
+	/**
+	 * Formats the template without arguments.
+	 * @return the formatted string; this does not allocate if there are no placeholders
+	 */
+	String format() {
+		return constant != null ? constant : format(new Object[0]);
+	}
+
+	/**
+	 * Formats the template with the arguments, like {@link String#format(Locale, String, Object...)}.
+	 * @param arguments the arguments of the placeholders; extra arguments are ignored
+	 * @return the formatted string
+	 */
+	String format(Object... arguments) {
+		if (constant != null) return constant;
+		if (literals == null || arguments.length < conversions.length)
+			return String.format(locale, source, arguments);
+
+		StringBuilder builder = BUILDER.get();
+		builder.setLength(0);
+		for (int i = 0; i < conversions.length; i++) {
+			builder.append(literals[i]);
+			if (!append(builder, conversions[i], widths[i], zeroPads[i], arguments[i]))
+				return String.format(locale, source, arguments); // Let String.format handle or reject the argument.
+		}
+
+		builder.append(literals[conversions.length]);
+		return builder.toString();
+	}
+
+	private static boolean append(StringBuilder builder, char conversion, int width, boolean zeroPad, Object argument) {
+		String text;
+		if (conversion == 's') {
+			if (argument instanceof Formattable) return false;
+			text = String.valueOf(argument);
+		} else if (argument instanceof Integer || argument instanceof Long || argument instanceof Short || argument instanceof Byte) {
+			long value = ((Number) argument).longValue();
+			if (zeroPad) {
+				appendZeroPadded(builder, value, width);
+				return true;
+			}
+
+			text = Long.toString(value);
+		} else if (argument instanceof BigInteger || argument == null) {
+			if (zeroPad) return false;
+			text = String.valueOf(argument);
+		} else {
+			return false;
+		}
+
+		for (int i = text.length(); i < width; i++) builder.append(' ');
+		builder.append(text);
+		return true;
+	}
+
+	// The zeros are put after the sign, as String.format does.
+	private static void appendZeroPadded(StringBuilder builder, long value, int width) {
+		if (value < 0) {
+			builder.append('-');
+			width--;
+			if (value == Long.MIN_VALUE) { // Its magnitude does not fit in a long.
+				String digits = Long.toString(value).substring(1);
+				for (int i = digits.length(); i < width; i++) builder.append('0');
+				builder.append(digits);
+				return;
+			}
+
+			value = -value;
+		}
+
+		int digits = 1;
+		for (long v = value; v >= 10; v /= 10) digits++;
+		for (int i = digits; i < width; i++) builder.append('0');
+		builder.append(value);
+	}
+}
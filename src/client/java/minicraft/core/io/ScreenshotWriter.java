@@ -0,0 +1,156 @@
+package minicraft.core.io;
+
+import minicraft.core.CrashHandler;
+import minicraft.core.Game;
+import minicraft.util.Logging;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Saves screenshots without blocking the game loop.
+ * A captured frame is copied into a pooled image and queued to a single background thread, which encodes it into PNG.
+ * When the queue is full, further captures are dropped instead of waiting; as each image is a whole frame, only a
+ * few are kept, queued or pooled, so a burst keeps the frames the encoder has room for.
+ */
+public final class ScreenshotWriter {
+	private ScreenshotWriter() {}
+
+	/** The number of consecutive frames captured in burst mode. */
+	public static final int BURST_LENGTH = 10;
+
+	private static final int QUEUE_CAPACITY = 2; // Besides the one being encoded; hundreds of MB at 4K otherwise.
+	private static final DateTimeFormatter STAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss");
+
+	private static final BlockingQueue<Capture> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private static final BlockingQueue<BufferedImage> POOL = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private static Thread encoder = null;
+
+	private static class Capture {
+		private final BufferedImage image;
+		private final LocalDateTime time;
+		private final int compression;
+
+		private Capture(BufferedImage image, LocalDateTime time, int compression) {
+			this.image = image;
+			this.time = time;
+			this.compression = compression;
+		}
+	}
+
+	/**
+	 * Captures the frame and queues it to be saved into the screenshots folder.
+	 * @param frame the frame to be saved; it can be reused right after this returns
+	 * @return {@code false} if the capture is dropped as the queue is full
+	 */
+	public static boolean capture(BufferedImage frame) {
+		if (QUEUE.remainingCapacity() == 0) { // Only the game thread queues, so there is room below.
+			Logging.PLAYER.warn("Screenshot dropped; too many screenshots are pending.");
+			return false;
+		}
+
+		BufferedImage copy = obtainImage(frame.getWidth(), frame.getHeight());
+		copyPixels(frame, copy);
+
+		if (!QUEUE.offer(new Capture(copy, LocalDateTime.now(), (int) Settings.get("screenshotcompression")))) {
+			POOL.offer(copy);
+			Logging.PLAYER.warn("Screenshot dropped; too many screenshots are pending.");
+			return false;
+		}
+
+		startEncoder();
+		return true;
+	}
+
+	private static BufferedImage obtainImage(int width, int height) {
+		BufferedImage image;
+		while ((image = POOL.poll()) != null) {
+			if (image.getWidth() == width && image.getHeight() == height)
+				return image;
+			// Images of an outdated window size are dropped.
+		}
+
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+	}
+
+	private static void copyPixels(BufferedImage src, BufferedImage dst) {
+		if (src.getType() == BufferedImage.TYPE_INT_RGB && src.getRaster().getDataBuffer() instanceof DataBufferInt) {
+			int[] srcPixels = ((DataBufferInt) src.getRaster().getDataBuffer()).getData();
+			int[] dstPixels = ((DataBufferInt) dst.getRaster().getDataBuffer()).getData();
+			System.arraycopy(srcPixels, 0, dstPixels, 0, dstPixels.length);
+		} else {
+			dst.setData(src.getRaster());
+		}
+	}
+
+	private static synchronized void startEncoder() {
+		if (encoder != null) return;
+		encoder = new Thread(ScreenshotWriter::encodeLoop, "Screenshot Encoder");
+		encoder.setDaemon(true);
+		encoder.setPriority(Thread.MIN_PRIORITY);
+		encoder.start();
+	}
+
+	private static void encodeLoop() {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+		while (true) {
+			Capture capture;
+			try {
+				capture = QUEUE.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+
+			try {
+				File file = getFile(capture.time);
+				write(writer, capture, file);
+				Logging.PLAYER.info("Saved screenshot as {}.", file.getName());
+			} catch (IOException e) {
+				CrashHandler.errorHandle(e);
+			} finally {
+				POOL.offer(capture.image);
+			}
+		}
+	}
+
+	private static File getFile(LocalDateTime time) {
+		new File(Game.gameDir + "/screenshots/").mkdirs();
+		int count = 1;
+		String stamp = STAMP_FORMAT.format(time);
+		File file = new File(String.format("%s/screenshots/%s.png", Game.gameDir, stamp));
+		while (file.exists()) { // Screenshots are written one by one, so this does not collide with pending ones.
+			file = new File(String.format("%s/screenshots/%s_%s.png", Game.gameDir, stamp, count));
+			count++;
+		}
+
+		return file;
+	}
+
+	private static void write(ImageWriter writer, Capture capture, File file) throws IOException {
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		if (param.canWriteCompressed()) {
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			// The compression quality maps linearly to the deflate level; 1 being no compression.
+			param.setCompressionQuality(1f - capture.compression / 9f);
+		}
+
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+			writer.setOutput(out);
+			writer.write(null, new IIOImage(capture.image, null, null), param);
+		} finally {
+			writer.reset();
+		}
+	}
+}
@@ -27,6 +27,10 @@ public final class Settings {
 		OPTIONS.put("autosave", new BooleanEntry("minicraft.settings.autosave", true));
 		// For Windows, OpenGL hardware acceleration is disabled by default
 		OPTIONS.put("hwa", new BooleanEntry("minicraft.settings.opengl_hwa", !FileHandler.OS.contains("windows")));
+		OPTIONS.put("screenshotcompression", new RangeEntry("minicraft.settings.screenshot_compression", 0, 9, 6)); // PNG deflate level
+		// In chunks around each player; see ChunkTickets
+		OPTIONS.put("simulationdistance", new RangeEntry("minicraft.settings.simulation_distance", 1, 8, 3));
+		OPTIONS.put("viewdistance", new RangeEntry("minicraft.settings.view_distance", 1, 8, 3));
 
 		OPTIONS.put("size", new ArrayEntry<>("minicraft.settings.size", 128, 256, 512));
 		OPTIONS.put("theme", new ArrayEntry<>("minicraft.settings.theme", "minicraft.settings.theme.normal", "minicraft.settings.theme.forest", "minicraft.settings.theme.desert", "minicraft.settings.theme.plain", "minicraft.settings.theme.hell"));
@@ -1,6 +1,7 @@
 package minicraft.core.io;
 
 import minicraft.core.CrashHandler;
+import minicraft.core.LevelTicker;
 import minicraft.util.Logging;
 import org.jetbrains.annotations.Nullable;
 
@@ -20,18 +21,16 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Optional;
 
 public class Sound {
 	// Creates sounds from their respective files
 	private static final HashMap<String, Sound> SOUNDS = new HashMap<>();
-	private static final LinkedList<AudioPointer> POINTERS = new LinkedList<>();
+	private static final SoundMixer MIXER = new SoundMixer();
 	private static final AudioFormat STANDARD_FORMAT =
 		new AudioFormat(44100, 16, 2, true, true);
 	private static final int MAX_BUFFER_SIZE = 4096;
-	private static final SourceDataLine DATA_LINE;
+	@Nullable
+	private static final SourceDataLine DATA_LINE; // Null if there is no audio device, as in a headless run.
 	private static final int INTERNAL_BUFFER_SIZE;
 
 	/*
@@ -39,27 +38,21 @@ public class Sound {
 	 */
 
 	static {
+		SourceDataLine line;
 		try {
-			DATA_LINE = AudioSystem.getSourceDataLine(STANDARD_FORMAT);
-			DATA_LINE.open();
-			// Assume DirectAudioDevice is used
-			INTERNAL_BUFFER_SIZE = ((int) (STANDARD_FORMAT.getFrameRate() / 2)) * STANDARD_FORMAT.getFrameSize();
-		} catch (LineUnavailableException e) {
-			throw new RuntimeException(e);
+			line = AudioSystem.getSourceDataLine(STANDARD_FORMAT);
+			line.open();
+		} catch (LineUnavailableException | IllegalArgumentException e) {
+			Logging.RESOURCEHANDLER_SOUND.warn("No audio output available; sounds are disabled: {}", e.getMessage());
+			line = null;
 		}
+		DATA_LINE = line;
+		// Assume DirectAudioDevice is used
+		INTERNAL_BUFFER_SIZE = ((int) (STANDARD_FORMAT.getFrameRate() / 2)) * STANDARD_FORMAT.getFrameSize();
 	}
 
 	private final short[] raw;
 
-	private class AudioPointer {
-		private int offset = 0;
-
-		public Optional<Short> getData() {
-			if (offset == raw.length) return Optional.empty();
-			return Optional.of(raw[offset++]);
-		}
-	}
-
 	private Sound(short[] raw) {
 		this.raw = raw;
 	}
@@ -166,6 +159,7 @@ public class Sound {
 	}
 
 	public static void tick() {
+		if (DATA_LINE == null) return;
 		DATA_LINE.start();
 		// internalBufferSize - dataLine.available() == used buffer
 		// Proceed data and then buffer into the data line.
@@ -175,71 +169,14 @@ public class Sound {
 		if (available <= 0) return; // Skips tick if buffer is large causing latency
 		byte[] buf = new byte[available * 2];
 		short[] bufShort = new short[available];
-		while (available > 0) {
-			/* Audio Mixing Algorithm
-			 * Reference Article: https://stackoverflow.com/a/25102339
-			 * It is pointed out that, non-linear mixing algorithms are not the correct ways to perform mixing,
-			 * but it should be instead handled by (dynamic range) compression.
-			 * For now, C = sum{U_i} / n is not enough, but compression should be applied.
-			 *
-			 * It is noticed that for the quiet sounds, the sounds become quieter when mixed, even overall.
-			 * So, an upward compression is required. We now define a quiet sound to be a signal smaller than
-			 * a one-fourth of the maximum value.
-			 * For each quiet signal, we gain an upward compression factor and finally multiplied altogether to the
-			 * resultant value. And we can get the factor by a non-linear equation:
-			 *   F = log2((D-U)/D+1)+1, where F is the factor, D is the one-fourth value, U is the signal value.
-			 * Note that U ∈ [0, D), (D-U)/D ∈ (0, 1], F ∈ (1, 2].
-			 * But we cannot have this too big, so we make this into F^(1/3), where 2^(1/3) is approximately 1.26.
-			 * This can make sure that the factor would not go great.
-			 * Then, make sure that the factor cannot overflow the value,
-			 *   G = sqrt(product{F_i}),
-			 * as a final factor, would then be used.
-			 *
-			 * Finally, if the value really goes close to the maximum value even overflow, like 0.9 of the maximum value,
-			 * we can then apply an ultimate equation:
-			 *   H = (J) / (J + 1) * E,
-			 * where H is the value to add with the cut value (0.9 of the maximum), J is the exceeded value and
-			 * E is the certain amount smaller than 0.1 of the maximum, say 0.05 of it here.
-			 * We can get a compressed sound and also limited from the maximum, with 0.95x of the maximum.
-			 */
-
-			int n = 0;
-			int sum = 0;
-			double factor = 1;
-			for (Iterator<AudioPointer> iterator = POINTERS.iterator(); iterator.hasNext(); ) {
-				AudioPointer pointer = iterator.next();
-				Optional<Short> d = pointer.getData();
-				if (!d.isPresent()) iterator.remove();
-				else {
-					int val = d.get(); // Signed
-					int net = Math.abs(val); // Bounds are halved for absolute of signed value
-					if (net < 8192)
-						factor *= Math.pow(Math.log1p((8192 - net) / 8192D) / Math.log(2) + 1, 1D/3);
-					sum += val + 32768; // Turning to unsigned
-					n++;
-				}
-			}
-
-			if (n == 0) break; // No more data to be written at the moment
-			double val = (double) sum / n - 32768; // To signed
-			val *= Math.sqrt(factor);
-			double net = Math.abs(val); // Bounds are halved for absolute of signed value
-			if (net > 32768*.9D) {
-				val = (32768*.9D + ((net - 32768*.9D) / (net - 32768*.9D + 1) * 32768/10D)) * Math.signum(val);
-			}
-
-			// val should be between -32768 and 32767 exclusively
-			bufShort[bufShort.length - available] = (short) val;
-			available--;
-		}
-
+		MIXER.mix(bufShort); // Samples left after all the sounds have finished stay silent.
 		ByteBuffer.wrap(buf).asShortBuffer().put(bufShort);
 		DATA_LINE.write(buf, 0, buf.length);
 	}
 
 	public void play() {
-		if (!(boolean) Settings.get("sound")) return;
-		POINTERS.add(new AudioPointer());
+		if (DATA_LINE == null || !(boolean) Settings.get("sound")) return;
+		LevelTicker.runAfterLevels(() -> MIXER.play(raw)); // The mixer is used on the game thread.
 	}
 
 	/** @deprecated no longer supported, but reserved for future implementation. */
@@ -9,6 +9,7 @@ import minicraft.item.Item;
 import minicraft.level.Level;
 import minicraft.network.Network;
 import minicraft.util.Logging;
+import minicraft.util.MyUtils;
 import minicraft.level.tile.Tile;
 import org.jetbrains.annotations.Nullable;
 
@@ -35,7 +36,7 @@ public abstract class Entity implements Tickable {
 	 */
 
 	// Entity coordinates are per pixel, not per tile; each tile is 16x16 entity pixels.
-	protected final Random random = new Random();
+	protected final Random random = MyUtils.newRandom();
 	public int x, y; // x, y entity coordinates on the map
 	protected int pushTime = 0;
 	protected int multiPushTime = 0; // Time for each push; multi is for multiplayer, to make it so not so many updates are sent.
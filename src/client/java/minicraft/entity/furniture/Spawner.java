@@ -29,6 +29,7 @@ import minicraft.item.PowerGloveItem;
 import minicraft.item.ToolItem;
 import minicraft.item.ToolType;
 import minicraft.level.tile.Tile;
+import minicraft.util.MyUtils;
 import org.jetbrains.annotations.NotNull;
 import org.tinylog.Logger;
 
@@ -37,7 +38,7 @@ import java.util.Random;
 
 public class Spawner extends Furniture {
 
-	private final Random rnd = new Random();
+	private final Random rnd = MyUtils.newRandom();
 
 	private static final int ACTIVE_RADIUS = 8 << 4;
 	private static final int MIN_SPAWN_INTERVAL = 200, MAX_SPAWN_INTERVAL = 500;
@@ -3,7 +3,6 @@ package minicraft.entity.furniture;
 import minicraft.core.io.Sound;
 import minicraft.entity.Direction;
 import minicraft.entity.Entity;
-import minicraft.entity.ExplosionTileTicker;
 import minicraft.entity.mob.Mob;
 import minicraft.entity.mob.Player;
 import minicraft.gfx.Color;
@@ -13,6 +12,8 @@ import minicraft.gfx.SpriteLinker.LinkedSprite;
 import minicraft.gfx.SpriteLinker.SpriteType;
 import minicraft.item.Item;
 import minicraft.item.PowerGloveItem;
+import minicraft.level.ChunkTickets;
+import minicraft.level.tile.ExplodedTile;
 import minicraft.level.tile.Tile;
 import minicraft.screen.AchievementsDisplay;
 
@@ -56,8 +57,7 @@ public class Tnt extends Furniture {
 					if (e instanceof Tnt) {
 						Tnt tnt = (Tnt) e;
 						if (!tnt.fuseLit) {
-							tnt.fuseLit = true;
-							Sound.play("fuse");
+							tnt.lightFuse();
 							tnt.fTik = FUSE_TIME * 2 / 3;
 						}
 					}
@@ -77,12 +77,22 @@ public class Tnt extends Furniture {
 
 				AchievementsDisplay.setAchievement("minicraft.achievement.demolition", true);
 				Sound.play("explode");
-				ExplosionTileTicker.addTicker(level, xt, yt, 1);
+				ExplodedTile.explode(level, xt, yt, 1);
 				super.remove();
 			}
 		}
 	}
 
+	/**
+	 * Lights the fuse; the chunk of the tnt keeps ticking until it explodes, even with no player near.
+	 */
+	private void lightFuse() {
+		fuseLit = true;
+		Sound.play("fuse");
+		level.tickets.hold(this, ChunkTickets.chunkTicket(ChunkTickets.Type.EXPLOSION, ChunkTickets.Status.TICKING,
+			x >> Tile.TILE_SIZE_SHIFT, y >> Tile.TILE_SIZE_SHIFT));
+	}
+
 	@Override
 	public void render(Screen screen) {
 		if (fuseLit) {
@@ -100,8 +110,7 @@ public class Tnt extends Furniture {
 			}
 		} else {
 			if (!fuseLit) {
-				fuseLit = true;
-				Sound.play("fuse");
+				lightFuse();
 				return true;
 			}
 		}
@@ -5,12 +5,12 @@ import minicraft.core.io.Settings;
 import minicraft.core.io.Sound;
 import minicraft.entity.Direction;
 import minicraft.entity.Entity;
-import minicraft.entity.ExplosionTileTicker;
 import minicraft.entity.furniture.Spawner;
 import minicraft.gfx.Point;
 import minicraft.gfx.Screen;
 import minicraft.gfx.SpriteLinker.LinkedSprite;
 import minicraft.item.Items;
+import minicraft.level.tile.ExplodedTile;
 import minicraft.level.tile.Tile;
 
 import java.util.ArrayList;
@@ -123,7 +123,7 @@ public class Creeper extends EnemyMob {
 						}
 					}
 					if (!hasSpawner) {
-						ExplosionTileTicker.addTicker(level, tilePosition.x, tilePosition.y, 0);
+						ExplodedTile.explode(level, tilePosition.x, tilePosition.y, 0);
 					}
 				}
 
@@ -199,6 +199,13 @@ public abstract class Mob extends Entity {
 		return tile == Tiles.get("white wool");
 	}
 
+	/**
+	 * @return the ticks left before the mob can be hurt again; the mob flashes while this is not 0.
+	 */
+	public int getHurtTime() {
+		return hurtTime;
+	}
+
 	/**
 	 * Checks if this Mob is currently on a light tile; if so, the mob sprite is brightened.
 	 * @return true if the mob is on a light tile, false if not.
@@ -594,8 +594,8 @@ public class Player extends Mob implements ItemHolder, ClientTickable {
 			return;
 		}
 
-		// Ensure chunks generated around player
-		level.loadChunksAround(x >> Tile.TILE_SIZE_SHIFT, y >> Tile.TILE_SIZE_SHIFT);
+		// Ensure chunks generated and ticking around player
+		level.holdChunksAround(this);
 
 		super.tick(); // Ticks Mob.java
 
@@ -1347,8 +1347,9 @@ public class Player extends Mob implements ItemHolder, ClientTickable {
 
 		Sound.play("death");
 
-		// Add the death chest to the world.
-		World.levels[Game.currentLevel].add(dc);
+		// Add the death chest to the world, on the level of the player; the players of a server are not all on the current level.
+		Level level = getLevel();
+		(level != null ? level : World.levels[Game.currentLevel]).add(dc);
 
 		super.die(); // Calls the die() method in Mob.java
 	}
@@ -1434,7 +1435,7 @@ public class Player extends Mob implements ItemHolder, ClientTickable {
 
 	@Override
 	public void remove() {
-		Logging.WORLD.trace("Removing player from level " + getLevel());
+		Logging.WORLD.trace("Removing player from level {}", getLevel());
 		super.remove();
 	}
 
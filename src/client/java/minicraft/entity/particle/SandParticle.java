@@ -2,8 +2,7 @@ package minicraft.entity.particle;
 
 import minicraft.gfx.SpriteLinker.LinkedSprite;
 import minicraft.gfx.SpriteLinker.SpriteType;
-
-import java.util.Random;
+import minicraft.util.MyUtils;
 
 public class SandParticle extends Particle {
 	public static final LinkedSprite SPRITE = new LinkedSprite(SpriteType.Entity, "sand_footsteps");
@@ -14,6 +13,6 @@ public class SandParticle extends Particle {
 	 * @param y Y map position
 	 */
 	public SandParticle(int x, int y) {
-		super(x, y, 180 + new Random().nextInt(81) - 40, SPRITE);
+		super(x, y, 180 + MyUtils.newRandom().nextInt(81) - 40, SPRITE);
 	}
 }
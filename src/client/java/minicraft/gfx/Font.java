@@ -6,7 +6,9 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Font {
 	// These are all the characters that will be translated to the screen. (The spaces are important)
@@ -22,6 +24,51 @@ public class Font {
 
 	/* The order of the letters in the chars string is represented in the order that they appear in the sprite-sheet. */
 
+	// The position of each character in CHARS, indexed by the character; -1 if it is not in the font.
+	private static final short[] GLYPHS;
+	static {
+		char max = 0;
+		for (int i = 0; i < CHARS.length(); i++) max = (char) Math.max(max, CHARS.charAt(i));
+		GLYPHS = new short[max + 1];
+		Arrays.fill(GLYPHS, (short) -1);
+		for (int i = CHARS.length() - 1; i >= 0; i--) // Backwards, so the first of any duplicate is kept, like indexOf.
+			GLYPHS[CHARS.charAt(i)] = (short) i;
+	}
+
+	/*
+	 * Text drawn repeatedly, like labels, is rasterized once into a strip drawn with a single blit.
+	 * A strip is only made the second time its text is drawn, so text changing every frame does not fill the cache.
+	 * The tint is applied by the blit, so a strip serves all the colors of its text.
+	 */
+	private static final int RUN_CACHE_SIZE = 256;
+	private static final int MAX_RUN_LENGTH = 64; // Longer text is drawn glyph by glyph.
+	private static final LinkedHashMap<String, TextRun> runs = new LinkedHashMap<String, TextRun>(64, .75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, TextRun> eldest) {
+			return size() > RUN_CACHE_SIZE;
+		}
+	};
+	private static MinicraftImage runSheet = null; // The font sheet the cached strips are made of.
+
+	private static class TextRun {
+		private MinicraftImage strip = null; // Null until drawn a second time, or if nothing is visible.
+		private boolean seen = false;
+	}
+
+	/**
+	 * Gets the position of the character in the font sheet.
+	 * @param ch the character
+	 * @return the index of the glyph, 32 per row; -1 if the font does not have the character
+	 */
+	private static int glyphIndex(char ch) {
+		return ch < GLYPHS.length ? GLYPHS[ch] : -1;
+	}
+
+	/** The width of a single character; color codes take no space. */
+	private static int charWidth(char ch) {
+		return ch == Color.COLOR_CHAR ? 0 : MinicraftImage.BOX_WIDTH;
+	}
+
 	public static void draw(String msg, Screen screen, int x, int y) {
 		draw(msg, screen, x, y, -1);
 	}
@@ -31,15 +78,78 @@ public class Font {
 	 */
 	public static void
 	draw(String msg, Screen screen, int x, int y, int whiteTint) {
+		MinicraftImage sheet = Renderer.spriteLinker.getSheet(SpriteType.Gui, "font");
+		if (sheet == null) return;
+
+		MinicraftImage strip = getStrip(msg, sheet);
+		if (strip != null) {
+			screen.render(x - screen.getXOffset(), y - screen.getYOffset(), 0, 0, strip.width, strip.height, strip, 0, whiteTint);
+			return;
+		}
+
 		for (int i = 0; i < msg.length(); i++) { // Loops through all the characters that you typed
-			int ix = CHARS.indexOf(msg.charAt(i)); // The current letter in the message loop
+			char ch = msg.charAt(i);
+			int ix = glyphIndex(ch); // The current letter in the message loop
 			if (ix >= 0) {
 				// If that character's position is larger than or equal to 0, then render the character on the screen.
-				screen.render(x + i * textWidth(msg.substring(i, i + 1)), y, ix % 32, ix / 32, 0, Renderer.spriteLinker.getSheet(SpriteType.Gui, "font"), whiteTint);
+				screen.render(x + i * charWidth(ch), y, ix % 32, ix / 32, 0, sheet, whiteTint);
 			}
 		}
 	}
 
+	/**
+	 * Gets the cached strip of the text, making it if the text has been drawn before.
+	 * @return the strip; {@code null} if the text should be drawn glyph by glyph
+	 */
+	private static MinicraftImage getStrip(String msg, MinicraftImage sheet) {
+		if (msg.isEmpty() || msg.length() > MAX_RUN_LENGTH) return null;
+		if (sheet != runSheet) { // The font has been changed by resource packs.
+			runs.clear();
+			runSheet = sheet;
+		}
+
+		TextRun run = runs.get(msg);
+		if (run == null) {
+			run = new TextRun();
+			runs.put(msg, run);
+		}
+
+		if (!run.seen) {
+			run.seen = true;
+			return null;
+		}
+
+		if (run.strip == null) run.strip = rasterize(msg, sheet);
+		return run.strip;
+	}
+
+	// The strip has the same layout as drawing glyph by glyph, only starting at (0, 0).
+	private static MinicraftImage rasterize(String msg, MinicraftImage sheet) {
+		int width = 0;
+		for (int i = 0; i < msg.length(); i++) {
+			char ch = msg.charAt(i);
+			if (glyphIndex(ch) >= 0) width = Math.max(width, i * charWidth(ch) + MinicraftImage.BOX_WIDTH);
+		}
+		if (width == 0) return null;
+
+		MinicraftImage strip = new MinicraftImage(width, MinicraftImage.BOX_WIDTH);
+		for (int i = 0; i < msg.length(); i++) {
+			char ch = msg.charAt(i);
+			int ix = glyphIndex(ch);
+			if (ix < 0) continue;
+			int sx = ix % 32 * MinicraftImage.BOX_WIDTH, sy = ix / 32 * MinicraftImage.BOX_WIDTH;
+			int dx = i * charWidth(ch);
+			for (int y = 0; y < MinicraftImage.BOX_WIDTH; y++)
+				for (int x = 0; x < MinicraftImage.BOX_WIDTH; x++) {
+					int col = sheet.pixels[sx + x + (sy + y) * sheet.width];
+					if (col >> 24 != 0) strip.pixels[dx + x + y * width] = col; // Later glyphs are drawn over, as on screen.
+				}
+		}
+
+		strip.updatePackedPixels();
+		return strip;
+	}
+
 	public static void drawColor(String message, Screen screen, int x, int y) {
 		// Set default color message if it doesn't have initially
 		if (message.charAt(0) != Color.COLOR_CHAR) {
@@ -74,8 +184,9 @@ public class Font {
 	}
 
 	public static void drawBackground(String msg, Screen screen, int x, int y, int whiteTint) {
+		MinicraftImage hud = Renderer.spriteLinker.getSheet(SpriteType.Gui, "hud");
 		for (int i = 0; i < msg.length(); i++) { // Renders the black boxes under the text
-			screen.render(x + i * textWidth(msg.substring(i, i + 1)), y, 5, 2, 0, Renderer.spriteLinker.getSheet(SpriteType.Gui, "hud"));
+			screen.render(x + i * charWidth(msg.charAt(i)), y, 5, 2, 0, hud);
 		}
 
 		// Renders the text
@@ -145,7 +256,79 @@ public class Font {
 		return getLines(para, w, h, lineSpacing, false);
 	}
 
+	/**
+	 * Wraps the paragraph into lines fitting the given area.
+	 * The layouts are memoized, so the returned array is shared and must not be modified.
+	 * @param para the paragraph
+	 * @param w the maximum width of a line
+	 * @param h the maximum height of all the lines
+	 * @param lineSpacing the spacing between lines
+	 * @param keepEmptyRemainder whether the remainder is added even if empty
+	 * @return the lines, followed by the remainder not fitting in the area, if any
+	 */
 	public static String[] getLines(String para, int w, int h, int lineSpacing, boolean keepEmptyRemainder) {
+		synchronized (layouts) {
+			lookupKey.set(para, w, h, lineSpacing, keepEmptyRemainder);
+			String[] lines = layouts.get(lookupKey);
+			if (lines == null) {
+				lines = layoutLines(para, w, h, lineSpacing, keepEmptyRemainder);
+				LayoutKey key = new LayoutKey();
+				key.set(para, w, h, lineSpacing, keepEmptyRemainder);
+				layouts.put(key, lines);
+			}
+
+			return lines;
+		}
+	}
+
+	/**
+	 * Clears the memoized text layouts, like when the language is changed and the old texts are not drawn anymore.
+	 */
+	public static void clearLayouts() {
+		synchronized (layouts) {
+			layouts.clear();
+		}
+	}
+
+	private static final int LAYOUT_CACHE_SIZE = 128;
+	private static final LinkedHashMap<LayoutKey, String[]> layouts = new LinkedHashMap<LayoutKey, String[]>(32, .75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<LayoutKey, String[]> eldest) {
+			return size() > LAYOUT_CACHE_SIZE;
+		}
+	};
+	private static final LayoutKey lookupKey = new LayoutKey(); // Reused for lookups, so hits do not allocate.
+
+	private static class LayoutKey {
+		private String text;
+		private int width, height, lineSpacing;
+		private boolean keepEmptyRemainder;
+		private int hash;
+
+		private void set(String text, int width, int height, int lineSpacing, boolean keepEmptyRemainder) {
+			this.text = text;
+			this.width = width;
+			this.height = height;
+			this.lineSpacing = lineSpacing;
+			this.keepEmptyRemainder = keepEmptyRemainder;
+			hash = (((text.hashCode() * 31 + width) * 31 + height) * 31 + lineSpacing) * 2 + (keepEmptyRemainder ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof LayoutKey)) return false;
+			LayoutKey other = (LayoutKey) obj;
+			return width == other.width && height == other.height && lineSpacing == other.lineSpacing &&
+				keepEmptyRemainder == other.keepEmptyRemainder && text.equals(other.text);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static String[] layoutLines(String para, int w, int h, int lineSpacing, boolean keepEmptyRemainder) {
 		ArrayList<String> lines = new ArrayList<>();
 
 		// So, I have a paragraph. I give it to getLine, and it returns an index. Cut the string at that index, and add it to the lines list.
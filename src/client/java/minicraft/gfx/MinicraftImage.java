@@ -18,6 +18,7 @@ public class MinicraftImage {
 
 	public final int width, height; // Width and height of the sprite sheet
 	public final int[] pixels; // Integer array of the image's pixels
+	private final int[] packedPixels; // The pixels pre-converted into packed ARGB for blitting; 0 for transparent.
 
 	/**
 	 * Initializes a {@code MinicraftImage} instance from the provided size.
@@ -33,6 +34,7 @@ public class MinicraftImage {
 		this.width = width;
 		this.height = height;
 		pixels = new int[width * height];
+		packedPixels = new int[width * height];
 	}
 
 	/**
@@ -89,6 +91,28 @@ public class MinicraftImage {
 			// Uses 25 bits to store everything (8 for red, 8 for green, 8 for blue, and 1 for alpha)
 			pixels[i] = (transparent << 24) + red + green + blue;
 		}
+
+		packedPixels = new int[pixels.length];
+		updatePackedPixels();
+	}
+
+	/**
+	 * Gets the pixels converted into packed ARGB, where every opaque pixel has full alpha and
+	 * every transparent pixel is {@code 0}. This is the form the sprites are blitted from.
+	 * @return the packed pixels; should not be modified
+	 */
+	public int[] getPackedPixels() {
+		return packedPixels;
+	}
+
+	/**
+	 * Converts {@link #pixels} into the packed pixels again. This must be called after {@link #pixels} is modified.
+	 */
+	public void updatePackedPixels() {
+		for (int i = 0; i < pixels.length; i++) {
+			int col = pixels[i];
+			packedPixels[i] = col >> 24 == 0 ? 0 : 0xFF000000 | (col & 0xFFFFFF);
+		}
 	}
 
 	/**
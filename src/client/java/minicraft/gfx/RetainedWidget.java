@@ -0,0 +1,98 @@
+package minicraft.gfx;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * A part of the GUI kept as a pre-rendered image, drawn onto the screen with a single blit.
+ * The content is painted again only when the state it is bound to changes, or after the sprite sheets are reloaded.
+ * The state is supplied by the caller as a {@code long}, usually packing the few values the widget shows.
+ */
+public class RetainedWidget {
+	@FunctionalInterface
+	public interface Painter {
+		/**
+		 * Paints the content of the widget, with the top left corner of the widget at {@code (0, 0)}.
+		 * @param screen the offscreen screen of the widget size
+		 */
+		void paint(Screen screen);
+	}
+
+	private static int generation = 0; // Increased when all the widgets have to be painted again.
+	private static long hits = 0, misses = 0;
+
+	public final int width, height;
+	private final Screen canvas;
+	private final int[] canvasPixels;
+	private final MinicraftImage image;
+	private int paintedGeneration = -1;
+	private long state;
+
+	public RetainedWidget(int width, int height) {
+		this.width = width;
+		this.height = height;
+		BufferedImage buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		canvasPixels = ((DataBufferInt) buffer.getRaster().getDataBuffer()).getData();
+		canvas = new Screen(buffer);
+		image = new MinicraftImage(width, height);
+	}
+
+	/**
+	 * Draws the widget, painting it again first if the state has changed.
+	 * @param screen the screen to draw on
+	 * @param x the x position of the top left corner on the screen
+	 * @param y the y position of the top left corner on the screen
+	 * @param state the values the content depends on
+	 * @param painter paints the content for the given state
+	 */
+	public void render(Screen screen, int x, int y, long state, Painter painter) {
+		if (paintedGeneration != generation || this.state != state) {
+			misses++;
+			paint(painter);
+			this.state = state;
+			paintedGeneration = generation;
+		} else {
+			hits++;
+		}
+
+		screen.render(x, y, 0, 0, width, height, image);
+	}
+
+	private void paint(Painter painter) {
+		Arrays.fill(canvasPixels, 0);
+		painter.paint(canvas);
+		canvas.flush();
+
+		// Untouched pixels stay transparent.
+		for (int i = 0; i < canvasPixels.length; i++) {
+			int p = canvasPixels[i];
+			image.pixels[i] = p == 0 ? 0 : 1 << 24 | (p & 0xFFFFFF);
+		}
+
+		image.updatePackedPixels();
+	}
+
+	/**
+	 * Makes all the widgets be painted again when they are next drawn, like when the sprite sheets are changed.
+	 */
+	public static void invalidateAll() {
+		generation++;
+	}
+
+	/** @return the number of draws that reused the painted content */
+	public static long getHits() {
+		return hits;
+	}
+
+	/** @return the number of draws that had to paint the content again */
+	public static long getMisses() {
+		return misses;
+	}
+
+	/** @return the fraction of draws that reused the painted content; {@code 0} if nothing has been drawn */
+	public static double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+}
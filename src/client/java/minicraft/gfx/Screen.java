@@ -34,14 +34,15 @@ public class Screen {
 	private int yOffset;
 
 	// Used for mirroring an image:
-	private static final int BIT_MIRROR_X = 0x01; // Written in hexadecimal; binary: 01
-	private static final int BIT_MIRROR_Y = 0x02; // Binary: 10
+	private static final int BIT_MIRROR_X = SpriteBlitter.BIT_MIRROR_X; // Written in hexadecimal; binary: 01
+	private static final int BIT_MIRROR_Y = SpriteBlitter.BIT_MIRROR_Y; // Binary: 10
 
 	private final BufferedImage image;
 	private final int[] pixels;
+	private final int width, height; // The size of the image; only differs from W and H for offscreen screens.
 
 	private final ArrayDeque<Rendering> renderings = new ArrayDeque<>();
-	private final LightOverlay lightOverlay;
+	private LightOverlay lightOverlay = null; // Created on first use, as offscreen screens do not need one.
 	private ClearRendering lastClearRendering = null;
 
 	// Outdated Information:
@@ -53,7 +54,13 @@ public class Screen {
 		/// Screen width and height are determined by the actual game window size, meaning the screen is only as big as the window.buffer = new BufferedImage(Screen.w, Screen.h);
 		this.image = image;
 		pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
-		lightOverlay = new LightOverlay();
+		width = image.getWidth();
+		height = image.getHeight();
+	}
+
+	private LightOverlay getLightOverlay() {
+		if (lightOverlay == null) lightOverlay = new LightOverlay();
+		return lightOverlay;
 	}
 
 	private interface Rendering {
@@ -111,39 +118,10 @@ public class Screen {
 
 		@Override
 		public void render(Graphics2D graphics) {
-			int toffs = xt + yt * sheet.width;
-			// Determines if the image should be mirrored...
-			boolean mirrorX = (mirrors & BIT_MIRROR_X) > 0; // Horizontally.
-			boolean mirrorY = (mirrors & BIT_MIRROR_Y) > 0; // Vertically.
-			for (int y = 0; y < th; ++y) { // Relative
-				if (y + yp < 0) continue; // If the pixel is out of bounds, then skip the rest of the loop.
-				if (y + yp >= H) break;
-				int sy = mirrorY ? th - 1 - y : y; // Source relative; reverse if necessary
-				for (int x = 0; x < tw; ++x) { // Relative
-					if (x + xp < 0) continue; // Skip rest if out of bounds.
-					if (x + xp >= W) break;
-					int sx = mirrorX ? tw - 1 - x : x; // Source relative; reverse if necessary
-					int col = sheet.pixels[toffs + sx + sy * sheet.width]; // Gets the color of the current pixel from the value stored in the sheet.
-					if (col >> 24 != 0) { // if not transparent
-						int index = (xp + x) + (yp + y) * W;
-						if (whiteTint != -1 && col == 0x1FFFFFF) {
-							// If this is white, write the whiteTint over it
-							pixels[index] = Color.upgrade(whiteTint);
-						} else {
-							// Inserts the colors into the image
-							if (fullBright) {
-								pixels[index] = Color.WHITE;
-							} else {
-								if (color != 0) {
-									pixels[index] = color;
-								} else {
-									pixels[index] = Color.upgrade(col);
-								}
-							}
-						}
-					}
-				}
-			}
+			int tint = whiteTint == -1 ? 0 : 0xFF000000 | Color.upgrade(whiteTint); // Written over white pixels.
+			int fill = fullBright ? Color.WHITE : color; // Written over all the other pixels, unless 0.
+			SpriteBlitter.blit(pixels, width, height, sheet.getPackedPixels(), sheet.width, xt, yt, tw, th, xp, yp,
+				mirrors, whiteTint != -1, tint, fill);
 		}
 	}
 
@@ -218,13 +196,13 @@ public class Screen {
 			switch (axis) {
 				case 0:
 					for (int i = 0; i < l; i++) { // 1 pixel high and 8 pixel wide
-						int idx = x0 + i + y0 * Screen.W;
+						int idx = x0 + i + y0 * width;
 						pixels[idx] = Color.getLightnessFromRGB(pixels[idx]) >= .5 ? Color.BLACK : Color.WHITE;
 					}
 					break;
 				case 1:
 					for (int i = 0; i < l; i++) { // 8 pixel high and 1 pixel wide
-						int idx = x0 + (y0 + i) * Screen.W;
+						int idx = x0 + (y0 + i) * width;
 						pixels[idx] = Color.getLightnessFromRGB(pixels[idx]) >= .5 ? Color.BLACK : Color.WHITE;
 					}
 					break;
@@ -245,6 +223,7 @@ public class Screen {
 
 		@Override
 		public void render(Graphics2D graphics) {
+			LightOverlay lightOverlay = getLightOverlay();
 			double alpha = lightOverlay.getOverlayOpacity(currentLevel, darkFactor);
 			BufferedImage overlay = lightOverlay.render(xa, ya);
 			graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, .02f)); // Lightening
@@ -275,10 +254,15 @@ public class Screen {
 	public void flush() {
 		Graphics2D g2d = image.createGraphics();
 		Rendering rendering;
-		do { // Skips until the latest clear rendering is obtained.
-			rendering = renderings.poll(); // This can prevent redundant renderings operated.
+		if (lastClearRendering != null) {
+			do { // Skips until the latest clear rendering is obtained.
+				rendering = renderings.poll(); // This can prevent redundant renderings operated.
+				if (rendering == null) return;
+			} while (rendering != lastClearRendering);
+		} else { // Never cleared, like offscreen screens cleared by their owners.
+			rendering = renderings.poll();
 			if (rendering == null) return;
-		} while (rendering != lastClearRendering);
+		}
 		do { // Renders all renderings until all are operated.
 			rendering.render(g2d);
 		} while ((rendering = renderings.poll()) != null);
@@ -423,6 +407,14 @@ public class Screen {
 		this.yOffset = yOffset;
 	}
 
+	int getXOffset() {
+		return xOffset;
+	}
+
+	int getYOffset() {
+		return yOffset;
+	}
+
 	/* Used for the scattered dots at the edge of the light radius underground.
 
 		These values represent the minimum light level, on a scale from 0 to 25 (255/10), 0 being no light, 25 being full light (which will be portrayed as transparent on the overlay lightScreen pixels) that a pixel must have in order to remain lit (not black).
@@ -465,7 +457,7 @@ public class Screen {
 
 	public void renderLight(int x, int y, int r) {
 		// Applies offsets:
-		lightOverlay.renderLight(x - xOffset, y - yOffset, r);
+		getLightOverlay().renderLight(x - xOffset, y - yOffset, r);
 	}
 
 	private static class LightOverlay {
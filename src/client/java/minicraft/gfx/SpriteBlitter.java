@@ -0,0 +1,119 @@
+package minicraft.gfx;
+
+/**
+ * Blits regions of packed ARGB sprite sheets (see {@link MinicraftImage#getPackedPixels()}) into a pixel buffer.
+ * The destination is clipped once per blit, and each combination of mirroring, white tinting and color filling
+ * has its own row loop, so the inner loops only do an alpha test and a copy.
+ */
+final class SpriteBlitter {
+	private SpriteBlitter() {}
+
+	static final int BIT_MIRROR_X = 0x01;
+	static final int BIT_MIRROR_Y = 0x02;
+
+	/** The packed value of an opaque white pixel, the one replaced by white tints. */
+	private static final int PACKED_WHITE = 0xFFFFFFFF;
+
+	/**
+	 * Blits a region of the source sheet into the destination buffer.
+	 * @param dst the destination pixels
+	 * @param dstW the destination width
+	 * @param dstH the destination height
+	 * @param src the packed ARGB source pixels; {@code 0} is transparent
+	 * @param srcW the source width
+	 * @param sx the left of the source region
+	 * @param sy the top of the source region
+	 * @param w the width of the region
+	 * @param h the height of the region
+	 * @param dx the destination x of the top left corner
+	 * @param dy the destination y of the top left corner
+	 * @param mirrors the mirroring bits
+	 * @param tinted whether white pixels are replaced by {@code tint}
+	 * @param tint the color written over white pixels
+	 * @param fill if non-zero, the color written over all the other opaque pixels
+	 */
+	static void blit(int[] dst, int dstW, int dstH, int[] src, int srcW, int sx, int sy, int w, int h,
+	                 int dx, int dy, int mirrors, boolean tinted, int tint, int fill) {
+		// Clipping is done once here instead of per pixel.
+		int x0 = Math.max(0, -dx), x1 = Math.min(w, dstW - dx);
+		int y0 = Math.max(0, -dy), y1 = Math.min(h, dstH - dy);
+		if (x0 >= x1 || y0 >= y1) return;
+
+		boolean mirrorX = (mirrors & BIT_MIRROR_X) != 0;
+		boolean mirrorY = (mirrors & BIT_MIRROR_Y) != 0;
+		int len = x1 - x0;
+		for (int y = y0; y < y1; y++) {
+			int srcRow = sx + (sy + (mirrorY ? h - 1 - y : y)) * srcW;
+			int dstOff = dx + x0 + (dy + y) * dstW;
+			if (mirrorX) {
+				int srcOff = srcRow + w - 1 - x0; // The rightmost source pixel of the clipped row.
+				if (tinted) {
+					if (fill != 0) tintFillRowMirrored(dst, dstOff, src, srcOff, len, tint, fill);
+					else tintRowMirrored(dst, dstOff, src, srcOff, len, tint);
+				} else if (fill != 0) fillRowMirrored(dst, dstOff, src, srcOff, len, fill);
+				else copyRowMirrored(dst, dstOff, src, srcOff, len);
+			} else {
+				int srcOff = srcRow + x0;
+				if (tinted) {
+					if (fill != 0) tintFillRow(dst, dstOff, src, srcOff, len, tint, fill);
+					else tintRow(dst, dstOff, src, srcOff, len, tint);
+				} else if (fill != 0) fillRow(dst, dstOff, src, srcOff, len, fill);
+				else copyRow(dst, dstOff, src, srcOff, len);
+			}
+		}
+	}
+
+	private static void copyRow(int[] dst, int dstOff, int[] src, int srcOff, int len) {
+		for (int i = 0; i < len; i++) {
+			int p = src[srcOff + i];
+			if (p != 0) dst[dstOff + i] = p;
+		}
+	}
+
+	private static void copyRowMirrored(int[] dst, int dstOff, int[] src, int srcOff, int len) {
+		for (int i = 0; i < len; i++) {
+			int p = src[srcOff - i];
+			if (p != 0) dst[dstOff + i] = p;
+		}
+	}
+
+	private static void fillRow(int[] dst, int dstOff, int[] src, int srcOff, int len, int fill) {
+		for (int i = 0; i < len; i++) {
+			if (src[srcOff + i] != 0) dst[dstOff + i] = fill;
+		}
+	}
+
+	private static void fillRowMirrored(int[] dst, int dstOff, int[] src, int srcOff, int len, int fill) {
+		for (int i = 0; i < len; i++) {
+			if (src[srcOff - i] != 0) dst[dstOff + i] = fill;
+		}
+	}
+
+	private static void tintRow(int[] dst, int dstOff, int[] src, int srcOff, int len, int tint) {
+		for (int i = 0; i < len; i++) {
+			int p = src[srcOff + i];
+			if (p != 0) dst[dstOff + i] = p == PACKED_WHITE ? tint : p;
+		}
+	}
+
+	private static void tintRowMirrored(int[] dst, int dstOff, int[] src, int srcOff, int len, int tint) {
+		for (int i = 0; i < len; i++) {
+			int p = src[srcOff - i];
+			if (p != 0) dst[dstOff + i] = p == PACKED_WHITE ? tint : p;
+		}
+	}
+
+	private static void tintFillRow(int[] dst, int dstOff, int[] src, int srcOff, int len, int tint, int fill) {
+		for (int i = 0; i < len; i++) {
+			int p = src[srcOff + i];
+			if (p != 0) dst[dstOff + i] = p == PACKED_WHITE ? tint : fill;
+		}
+	}
+
+	private static void tintFillRowMirrored(int[] dst, int dstOff, int[] src, int srcOff, int len, int tint, int fill) {
+		for (int i = 0; i < len; i++) {
+			int p = src[srcOff - i];
+			if (p != 0) dst[dstOff + i] = p == PACKED_WHITE ? tint : fill;
+		}
+	}
+}
@@ -136,6 +136,7 @@ public class SpriteLinker {
 	public void updateLinkedSheets() {
 		Logging.SPRITE.debug("Updating all LinkedSprite.");
 		linkedSheets.forEach(s -> s.reload());
+		RetainedWidget.invalidateAll();
 	}
 
 	/**
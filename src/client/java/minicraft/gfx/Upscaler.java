@@ -0,0 +1,112 @@
+package minicraft.gfx;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.stream.IntStream;
+
+/**
+ * Nearest-neighbour upscaler of the final frame into an image of the window size.
+ * The frame is scaled by the largest integer factor that fits and is centered, leaving black borders.
+ * This replaces the generic (and often unaccelerated) scaling of {@code Graphics.drawImage}, so that
+ * presenting a frame is a plain, unscaled image draw.
+ */
+public class Upscaler {
+	/** The output size, in pixels, from which the frame is upscaled in parallel strips. */
+	private static final int PARALLEL_THRESHOLD = 1280 * 720;
+
+	private final int srcW, srcH;
+	private final int strips;
+
+	private BufferedImage output = null;
+	private int[] outPixels;
+	private int outW, outH;
+	private int scale, xOffset, yOffset;
+
+	/**
+	 * @param srcW the width of the frames to be upscaled
+	 * @param srcH the height of the frames to be upscaled
+	 */
+	public Upscaler(int srcW, int srcH) {
+		this.srcW = srcW;
+		this.srcH = srcH;
+		strips = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), srcH / 8));
+	}
+
+	/**
+	 * Upscales the frame into the output image of the given size.
+	 * The returned image is reused by the later calls, unless the size changes.
+	 * @param src the pixels of the frame, {@code srcW * srcH} in size
+	 * @param width the output width
+	 * @param height the output height
+	 * @return the output image; {@code null} if the output size is empty
+	 */
+	@Nullable
+	public BufferedImage upscale(int[] src, int width, int height) {
+		if (width < 1 || height < 1) return null;
+		if (output == null || width != outW || height != outH) resize(width, height);
+
+		if ((long) width * height >= PARALLEL_THRESHOLD && strips > 1) {
+			IntStream.range(0, strips).parallel()
+				.forEach(i -> upscaleRows(src, i * srcH / strips, (i + 1) * srcH / strips));
+		} else {
+			upscaleRows(src, 0, srcH);
+		}
+
+		return output;
+	}
+
+	private void resize(int width, int height) {
+		outW = width;
+		outH = height;
+		// The new image is all black, and the borders are never drawn over afterwards.
+		output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		outPixels = ((DataBufferInt) output.getRaster().getDataBuffer()).getData();
+		scale = Math.max(1, Math.min(width / srcW, height / srcH));
+		xOffset = (width - srcW * scale) / 2;
+		yOffset = (height - srcH * scale) / 2;
+	}
+
+	/**
+	 * Upscales the source rows {@code [sy0, sy1)}. Each source row is expanded into its first visible
+	 * output row, which is then copied into the rest of the rows of the same source row.
+	 */
+	private void upscaleRows(int[] src, int sy0, int sy1) {
+		int[] out = outPixels;
+		int visibleX0 = Math.max(xOffset, 0);
+		int visibleW = Math.min(xOffset + srcW * scale, outW) - visibleX0;
+		for (int sy = sy0; sy < sy1; sy++) {
+			int dy = yOffset + sy * scale;
+			int firstRow = Math.max(dy, 0), lastRow = Math.min(dy + scale, outH);
+			if (firstRow >= lastRow) continue;
+
+			int rowStart = firstRow * outW;
+			int srcRow = sy * srcW;
+			for (int sx = 0; sx < srcW; sx++) {
+				int dx = xOffset + sx * scale;
+				int from = Math.max(dx, 0), to = Math.min(dx + scale, outW);
+				int p = src[srcRow + sx];
+				for (int x = from; x < to; x++) out[rowStart + x] = p;
+			}
+
+			for (int row = firstRow + 1; row < lastRow; row++)
+				System.arraycopy(out, rowStart + visibleX0, out, row * outW + visibleX0, visibleW);
+		}
+	}
+
+	/** @return the current integer scale */
+	public int getScale() {
+		return scale;
+	}
+
+	/** @return the x position of the scaled frame in the output */
+	public int getXOffset() {
+		return xOffset;
+	}
+
+	/** @return the y position of the scaled frame in the output */
+	public int getYOffset() {
+		return yOffset;
+	}
+}
@@ -8,6 +8,7 @@ import minicraft.gfx.SpriteLinker.SpriteType;
 import minicraft.level.Level;
 import minicraft.level.tile.Tile;
 import minicraft.level.tile.Tiles;
+import minicraft.util.MyUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -28,7 +29,7 @@ public class FishingRodItem extends Item {
 	private int uses = 0; // The more uses, the higher the chance of breaking
 	public int level; // The higher the level the lower the chance of breaking
 
-	private Random random = new Random();
+	private Random random = MyUtils.newRandom();
 
 	/* These numbers are a bit confusing, so here's an explanation
 	 * If you want to know the percent chance of a category (let's say tool, which is third)
@@ -13,6 +13,7 @@ import minicraft.level.tile.Tile;
 import minicraft.level.tile.Tiles;
 import minicraft.level.tile.WaterTile;
 import minicraft.level.tile.farming.CropTile;
+import minicraft.util.MyUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -54,7 +55,7 @@ public class WateringCanItem extends Item {
 			content--;
 			updateSprite();
 			renderingTick++;
-			Random random = new Random();
+			Random random = MyUtils.newRandom();
 			if (renderingTick >= 8) {
 				int px = player.x + 16 * attackDir.getX();
 				int py = player.y + 16 * attackDir.getY();
@@ -1,28 +1,54 @@
 package minicraft.level;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import minicraft.gfx.Point;
 import minicraft.level.tile.Tile;
 import minicraft.level.tile.Tiles;
 
+/**
+ * The tiles of a level, in chunks created as they are first used.
+ * <p>
+ * The chunks may be read from any thread while they are added from another one, as a network client applies the chunks
+ * it receives off the render thread; so the maps are concurrent, and adding or replacing a chunk is synchronized.
+ * Setting the tiles themselves is not synchronized.
+ */
 public class ChunkManager {
 
 	public static final int CHUNK_SIZE = 64;
 	public static final int CHUNK_STAGE_UNFINISHED_STAIRS = 3;
 	public static final int CHUNK_STAGE_DONE = 4;
 
+	/**
+	 * The approximate heap held by a chunk whose tiles are all set: the tile array,
+	 * and an object of two shorts per tile, with compressed object pointers.
+	 */
+	public static final int ESTIMATED_CHUNK_BYTES = 16 + CHUNK_SIZE * CHUNK_SIZE * 4 + CHUNK_SIZE * CHUNK_SIZE * 16;
+
 	/**
 	 * A data structure where
 	 * [x][y] input points to CHUNK_SIZE x CHUNK_SIZE list of TileDat
 	 */
-	public Map<Integer, Map<Integer, Chunk>> chunks;
+	public final Map<Integer, Map<Integer, Chunk>> chunks;
+
+	private int chunkCount = 0;
+	private int pendingChunkCount = 0; // The chunks not yet done.
 
 	public ChunkManager() {
-		chunks = new HashMap<>();
+		chunks = new ConcurrentHashMap<>();
+	}
+
+	/** @return the number of chunks in memory */
+	public int getChunkCount() {
+		return chunkCount;
+	}
+
+	/** @return the number of chunks in memory which are not fully generated */
+	public int getPendingChunkCount() {
+		return pendingChunkCount;
 	}
 
 	public Set<Point> getAllChunks() {
@@ -38,12 +64,9 @@ public class ChunkManager {
 	 */
 	private Chunk getChunk(int tileX, int tileY) {
 		int cX = Math.floorDiv(tileX, CHUNK_SIZE), cY = Math.floorDiv(tileY, CHUNK_SIZE);
-		// If [cX][cY] are not keys in chunks, put them there
-		if(!chunks.containsKey(cX))
-			chunks.put(cX, new HashMap<>());
-		if(!chunks.get(cX).containsKey(cY))
-			chunks.get(cX).put(cY, new Chunk());
-		return chunks.get(cX).get(cY);
+		Map<Integer, Chunk> column = chunks.get(cX);
+		Chunk chunk = column == null ? null : column.get(cY);
+		return chunk != null ? chunk : putChunk(cX, cY);
 	}
 
 	/**
@@ -72,18 +95,62 @@ public class ChunkManager {
 
 	public int getChunkStage(int chunkX, int chunkY) {
 		// If [cX][cY] are not keys in chunks, stage must be 0
-		if(!chunks.containsKey(chunkX) || !chunks.get(chunkX).containsKey(chunkY))
-			return 0;
-		return chunks.get(chunkX).get(chunkY).stage;
-	}
-
-	public void setChunkStage(int chunkX, int chunkY, int stage) {
-		// If [chunkX][chunkY] are not keys in chunks, put them there
-		if(!chunks.containsKey(chunkX))
-			chunks.put(chunkX, new HashMap<>());
-		if(!chunks.get(chunkX).containsKey(chunkY))
-			chunks.get(chunkX).put(chunkY, new Chunk());
-		chunks.get(chunkX).get(chunkY).stage = (short)stage;
+		Map<Integer, Chunk> column = chunks.get(chunkX);
+		Chunk chunk = column == null ? null : column.get(chunkY);
+		return chunk == null ? 0 : chunk.stage;
+	}
+
+	public synchronized void setChunkStage(int chunkX, int chunkY, int stage) {
+		Chunk chunk = putChunk(chunkX, chunkY);
+		if (chunk.stage != CHUNK_STAGE_DONE && stage == CHUNK_STAGE_DONE) pendingChunkCount--;
+		else if (chunk.stage == CHUNK_STAGE_DONE && stage != CHUNK_STAGE_DONE) pendingChunkCount++;
+		chunk.stage = (short)stage;
+	}
+
+	/**
+	 * Copies the tiles of a chunk, row by row; the chunk is created if it does not exist.
+	 * @param ids the tile IDs, of {@code CHUNK_SIZE * CHUNK_SIZE} elements
+	 * @param data the tile data, of {@code CHUNK_SIZE * CHUNK_SIZE} elements
+	 */
+	public void getChunkTiles(int chunkX, int chunkY, short[] ids, short[] data) {
+		Chunk chunk = getChunk(chunkX * CHUNK_SIZE, chunkY * CHUNK_SIZE);
+		for (int i = 0; i < CHUNK_SIZE * CHUNK_SIZE; i++) {
+			TileDat dat = chunk.tiles[i];
+			ids[i] = dat == null ? 0 : dat.id;
+			data[i] = dat == null ? 0 : dat.data;
+		}
+	}
+
+	/**
+	 * Replaces a chunk by a done one with the tiles, row by row, as received from a server.
+	 * Readers on other threads see either the old chunk or the whole new one.
+	 * @param ids the tile IDs, of {@code CHUNK_SIZE * CHUNK_SIZE} elements
+	 * @param data the tile data, of {@code CHUNK_SIZE * CHUNK_SIZE} elements
+	 */
+	public synchronized void setChunkTiles(int chunkX, int chunkY, short[] ids, short[] data) {
+		Chunk chunk = new Chunk();
+		for (int i = 0; i < CHUNK_SIZE * CHUNK_SIZE; i++) {
+			chunk.tiles[i] = new TileDat(ids[i]);
+			chunk.tiles[i].data = data[i];
+		}
+		chunk.stage = CHUNK_STAGE_DONE;
+
+		Chunk old = chunks.computeIfAbsent(chunkX, x -> new ConcurrentHashMap<>()).put(chunkY, chunk);
+		if (old == null) chunkCount++;
+		else if (old.stage != CHUNK_STAGE_DONE) pendingChunkCount--;
+	}
+
+	// Gets the chunk, creating it if it does not exist.
+	private synchronized Chunk putChunk(int chunkX, int chunkY) {
+		Map<Integer, Chunk> column = chunks.computeIfAbsent(chunkX, x -> new ConcurrentHashMap<>());
+		Chunk chunk = column.get(chunkY);
+		if (chunk == null) {
+			chunk = new Chunk();
+			column.put(chunkY, chunk);
+			chunkCount++;
+			pendingChunkCount++;
+		}
+		return chunk;
 	}
 
 	private static class Chunk {
@@ -0,0 +1,277 @@
+package minicraft.level;
+
+import minicraft.core.Game;
+import minicraft.core.LevelTicker;
+import minicraft.core.World;
+import minicraft.core.io.Settings;
+import minicraft.level.tile.Tile;
+import minicraft.level.tile.Tiles;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Objects;
+
+/**
+ * The tickets holding the chunks of a level. Each ticket is held by something on the level, like a player, and holds
+ * the chunks within its radius at its level: ticking, or only loaded. A chunk is as the strongest ticket on it holds it:
+ * <ul>
+ *     <li>ticking: its random tiles and its entities are ticked;</li>
+ *     <li>loaded: it is generated and kept, but frozen;</li>
+ *     <li>unloadable: nothing holds it, so that nothing needs it in memory.</li>
+ * </ul>
+ * The players hold the chunks within the simulation distance ticking, and those within the view distance loaded; a level
+ * with no player holds those within the simulation distance of where the last one left ticking, or of its middle;
+ * spawners hold their chunk loaded, and pending explosions theirs ticking. The stairs in ticking chunks hold the chunk
+ * they lead to loaded, on the level above or below, so that taking them does not wait on generating it.
+ * <p>
+ * The tickets of a level are used on the thread ticking it; those of the stairs are taken and released on the other
+ * levels after the levels tick, through {@link LevelTicker#runAfterLevels(Runnable)}.
+ */
+public class ChunkTickets {
+	public enum Type { PLAYER, SPAWNER, STAIRS, EXPLOSION, FORCED } // Forced: by the game itself, as the headless simulation may.
+
+	/** How a chunk is held, the strongest first. */
+	public enum Status { TICKING, LOADED, UNLOADABLE }
+
+	private static final Status[] STATUSES = Status.values();
+
+	public static class Ticket {
+		public final Type type;
+		public final Status level;
+		public final int chunkX, chunkY, radius;
+
+		/** @param level {@link Status#TICKING} or {@link Status#LOADED} */
+		public Ticket(Type type, Status level, int chunkX, int chunkY, int radius) {
+			if (level == Status.UNLOADABLE) throw new IllegalArgumentException("A ticket cannot hold chunks unloadable");
+			this.type = type;
+			this.level = level;
+			this.chunkX = chunkX;
+			this.chunkY = chunkY;
+			this.radius = radius;
+		}
+
+		public boolean covers(int x, int y) {
+			return Math.abs(x - chunkX) <= radius && Math.abs(y - chunkY) <= radius;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Ticket)) return false;
+			Ticket ticket = (Ticket) other;
+			return type == ticket.type && level == ticket.level && chunkX == ticket.chunkX && chunkY == ticket.chunkY && radius == ticket.radius;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, level, chunkX, chunkY, radius);
+		}
+	}
+
+	/** @return the chunks around a player simulated, in chunks */
+	public static int getSimulationDistance() {
+		return (int) Settings.get("simulationdistance");
+	}
+
+	/** @return the chunks around a player loaded, and sent to it by the dedicated server, in chunks */
+	public static int getViewDistance() {
+		return (int) Settings.get("viewdistance");
+	}
+
+	/**
+	 * Holds the chunks around a tile for a player: ticking within the simulation distance, and loaded within the view
+	 * distance, or the simulation distance if further.
+	 */
+	public static Ticket[] playerTickets(int xt, int yt) {
+		int x = Math.floorDiv(xt, ChunkManager.CHUNK_SIZE), y = Math.floorDiv(yt, ChunkManager.CHUNK_SIZE);
+		int simulation = getSimulationDistance();
+		return new Ticket[] {
+			new Ticket(Type.PLAYER, Status.TICKING, x, y, simulation),
+			new Ticket(Type.PLAYER, Status.LOADED, x, y, Math.max(simulation, getViewDistance()))
+		};
+	}
+
+	/** Holds the chunk of a tile, at the given level. */
+	public static Ticket chunkTicket(Type type, Status level, int xt, int yt) {
+		return new Ticket(type, level, Math.floorDiv(xt, ChunkManager.CHUNK_SIZE), Math.floorDiv(yt, ChunkManager.CHUNK_SIZE), 0);
+	}
+
+	private final Level level;
+	private final HashMap<Object, Ticket[]> tickets = new HashMap<>(); // By holder.
+	private final HashMap<Integer, Object> stairs = new HashMap<>(); // The holder of the tickets of the stairs in each ticking chunk.
+	private int columns, rows; // Of the chunks of the original size of the level, which most tickets are on.
+	private byte[] statuses = null; // By ordinal, of the chunks of the original size of the level, row by row.
+	private long[] tickingChunks = new long[0]; // The keys of all the chunks ticking, sorted.
+	private boolean changed = true;
+	private volatile int ticking = 0, loaded = 0;
+
+	ChunkTickets(Level level) {
+		this.level = level;
+	}
+
+	/**
+	 * Replaces the tickets of the holder, loading the chunks they hold which are not yet.
+	 * @param holder compared by {@link Object#equals(Object)}
+	 */
+	public void hold(Object holder, Ticket... held) {
+		Ticket[] previous = tickets.put(holder, held);
+		if (!Arrays.equals(previous, held)) changed = true;
+
+		for (Ticket ticket : held) {
+			for (int x = ticket.chunkX - ticket.radius; x <= ticket.chunkX + ticket.radius; x++)
+				for (int y = ticket.chunkY - ticket.radius; y <= ticket.chunkY + ticket.radius; y++)
+					if (level.chunkManager.getChunkStage(x, y) != ChunkManager.CHUNK_STAGE_DONE)
+						level.loadChunk(x, y);
+		}
+	}
+
+	/** Drops the tickets of the holder, if any. */
+	public void release(Object holder) {
+		if (tickets.remove(holder) != null) changed = true;
+	}
+
+	/** @return how the chunk is held */
+	public Status getStatus(int chunkX, int chunkY) {
+		update();
+		if (chunkX >= 0 && chunkY >= 0 && chunkX < columns && chunkY < rows)
+			return STATUSES[statuses[chunkX + chunkY * columns]];
+
+		if (Arrays.binarySearch(tickingChunks, key(chunkX, chunkY)) >= 0) return Status.TICKING;
+		Status status = Status.UNLOADABLE;
+		for (Ticket[] held : tickets.values())
+			for (Ticket ticket : held)
+				if (ticket.level.compareTo(status) < 0 && ticket.covers(chunkX, chunkY)) status = ticket.level;
+		return status;
+	}
+
+	/** @return whether the chunk of the tile is ticking */
+	public boolean isTicking(int xt, int yt) {
+		update();
+		int x = Math.floorDiv(xt, ChunkManager.CHUNK_SIZE), y = Math.floorDiv(yt, ChunkManager.CHUNK_SIZE);
+		if (x < 0 || y < 0 || x >= columns || y >= rows) return Arrays.binarySearch(tickingChunks, key(x, y)) >= 0;
+		return statuses[x + y * columns] == Status.TICKING.ordinal();
+	}
+
+	/**
+	 * @return the chunks ticking, in and out of the original size of the level, as keys of {@link #keyX(long)} and
+	 * {@link #keyY(long)}, sorted; not to be modified
+	 */
+	public long[] getTickingChunks() {
+		update();
+		return tickingChunks;
+	}
+
+	public static long key(int chunkX, int chunkY) {
+		return (long) chunkX << 32 | chunkY & 0xFFFFFFFFL;
+	}
+
+	public static int keyX(long key) {
+		return (int) (key >> 32);
+	}
+
+	public static int keyY(long key) {
+		return (int) key;
+	}
+
+	/** @return the number of chunks ticking, as of the last update; may be called from any thread */
+	public int getTickingCount() {
+		return ticking;
+	}
+
+	/**
+	 * @return the number of chunks of the original size of the level loaded but frozen, as of the last update;
+	 * may be called from any thread
+	 */
+	public int getFrozenCount() {
+		return loaded;
+	}
+
+	/**
+	 * Classifies the chunks again if the tickets changed since; the stairs in the chunks starting to tick take
+	 * their tickets, and those in the chunks stopping release them.
+	 */
+	public void update() {
+		if (!changed) return;
+		changed = false;
+
+		if (statuses == null) {
+			columns = Math.max(1, Math.floorDiv(level.w - 1, ChunkManager.CHUNK_SIZE) + 1);
+			rows = Math.max(1, Math.floorDiv(level.h - 1, ChunkManager.CHUNK_SIZE) + 1);
+			statuses = new byte[columns * rows];
+			Arrays.fill(statuses, (byte) Status.UNLOADABLE.ordinal());
+		}
+
+		byte[] next = new byte[statuses.length];
+		Arrays.fill(next, (byte) Status.UNLOADABLE.ordinal());
+		HashSet<Long> allTicking = new HashSet<>();
+		for (Ticket[] held : tickets.values()) {
+			for (Ticket ticket : held) {
+				if (ticket.level == Status.TICKING) {
+					for (int y = ticket.chunkY - ticket.radius; y <= ticket.chunkY + ticket.radius; y++)
+						for (int x = ticket.chunkX - ticket.radius; x <= ticket.chunkX + ticket.radius; x++)
+							allTicking.add(key(x, y));
+				}
+				for (int y = Math.max(0, ticket.chunkY - ticket.radius); y <= Math.min(rows - 1, ticket.chunkY + ticket.radius); y++)
+					for (int x = Math.max(0, ticket.chunkX - ticket.radius); x <= Math.min(columns - 1, ticket.chunkX + ticket.radius); x++)
+						next[x + y * columns] = (byte) Math.min(next[x + y * columns], ticket.level.ordinal());
+			}
+		}
+
+		tickingChunks = new long[allTicking.size()];
+		int index = 0;
+		for (long key : allTicking) tickingChunks[index++] = key;
+		Arrays.sort(tickingChunks);
+
+		byte[] previous = statuses;
+		statuses = next;
+		int loadedCount = 0;
+		for (int i = 0; i < next.length; i++) {
+			boolean wasTicking = previous[i] == Status.TICKING.ordinal(), isTicking = next[i] == Status.TICKING.ordinal();
+			if (next[i] == Status.LOADED.ordinal()) loadedCount++;
+			if (isTicking && !wasTicking) holdStairs(i % columns, i / columns);
+			else if (wasTicking && !isTicking) releaseStairs(i % columns, i / columns);
+		}
+		ticking = tickingChunks.length;
+		loaded = loadedCount;
+	}
+
+	private void holdStairs(int chunkX, int chunkY) {
+		Object holder = new Object();
+		Level above = depthLevel(level.depth + 1), below = depthLevel(level.depth - 1);
+		Tile up = Tiles.get("Stairs Up"), down = Tiles.get("Stairs Down");
+		boolean toAbove = false, toBelow = false;
+		int size = ChunkManager.CHUNK_SIZE;
+		for (int y = chunkY * size; y < Math.min(level.h, chunkY * size + size); y++) {
+			for (int x = chunkX * size; x < Math.min(level.w, chunkX * size + size); x++) {
+				Tile tile = level.getTile(x, y);
+				if (tile == up && above != null && !toAbove) {
+					Ticket ticket = new Ticket(Type.STAIRS, Status.LOADED, chunkX, chunkY, 0);
+					LevelTicker.runAfterLevels(() -> above.tickets.hold(holder, ticket));
+					toAbove = true;
+				} else if (tile == down && below != null && !toBelow) {
+					Ticket ticket = new Ticket(Type.STAIRS, Status.LOADED, chunkX, chunkY, 0);
+					LevelTicker.runAfterLevels(() -> below.tickets.hold(holder, ticket));
+					toBelow = true;
+				}
+			}
+		}
+
+		if (toAbove || toBelow) stairs.put(chunkX + chunkY * columns, holder);
+	}
+
+	private void releaseStairs(int chunkX, int chunkY) {
+		Object holder = stairs.remove(chunkX + chunkY * columns);
+		if (holder == null) return;
+		Level above = depthLevel(level.depth + 1), below = depthLevel(level.depth - 1);
+		LevelTicker.runAfterLevels(() -> {
+			if (above != null) above.tickets.release(holder);
+			if (below != null) below.tickets.release(holder);
+		});
+	}
+
+	// The level the stairs lead to; null past the top and the bottom, and on levels outside the world.
+	private Level depthLevel(int depth) {
+		if (depth > World.MAX_LEVEL_DEPTH || depth < World.MIN_LEVEL_DEPTH || Game.levels[World.lvlIdx(level.depth)] != level) return null;
+		return Game.levels[World.lvlIdx(depth)];
+	}
+}
@@ -0,0 +1,117 @@
+package minicraft.level;
+
+import minicraft.level.tile.FluidTile;
+import minicraft.level.tile.Tile;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+
+/**
+ * The fluids of a level which may flow: a fluid tile is only added when a tile next to it, or itself, is set, or its
+ * chunk or one next to it is loaded, and only if it can flow then (see {@link FluidTile#canFlow(Level, int, int)}).
+ * It flows once its delay passed, and then leaves the set, as its own changes add the tiles they made flow in turn.
+ * So the fluids which cannot flow anywhere, like most of them, cost nothing.
+ * <p>
+ * At most {@link #BATCH} fluids flow in a tick, in the order they were added in; the rest are late. The fluids in
+ * chunks not ticking wait for them to tick again.
+ */
+public class FluidTicks {
+	public static final int BATCH = 1024; // Fluids flowing in a tick at most.
+	private static final int FROZEN_DELAY = 60; // Before trying a fluid again, as its chunk was not ticking.
+
+	private static class Active {
+		private final int x, y;
+		private final long due, order;
+
+		private Active(int x, int y, long due, long order) {
+			this.x = x;
+			this.y = y;
+			this.due = due;
+			this.order = order;
+		}
+	}
+
+	private static final Comparator<Active> ORDER = Comparator.<Active>comparingLong(a -> a.due).thenComparingLong(a -> a.order);
+
+	private final Level level;
+	private final PriorityQueue<Active> queue = new PriorityQueue<>(ORDER);
+	private final HashSet<Long> positions = new HashSet<>();
+	private long time = 0; // In the ticks of the level.
+	private long added = 0;
+	private volatile int count = 0;
+
+	FluidTicks(Level level) {
+		this.level = level;
+	}
+
+	private static long position(int x, int y) {
+		return (long) x << 32 | y & 0xFFFFFFFFL;
+	}
+
+	/** Adds the fluids which may flow, of the tile set and the tiles next to it. */
+	public void tileChanged(int x, int y) {
+		check(x, y);
+		check(x - 1, y);
+		check(x + 1, y);
+		check(x, y - 1);
+		check(x, y + 1);
+	}
+
+	/**
+	 * Adds the fluids which may flow, of a chunk loaded, and of the edges of the chunks next to it already loaded,
+	 * as those may now border what the chunk brought.
+	 */
+	public void chunkLoaded(int chunkX, int chunkY) {
+		int size = ChunkManager.CHUNK_SIZE;
+		int x0 = chunkX * size, y0 = chunkY * size;
+		for (int y = y0; y < y0 + size; y++)
+			for (int x = x0; x < x0 + size; x++)
+				check(x, y);
+
+		if (isLoaded(chunkX, chunkY - 1)) for (int x = x0; x < x0 + size; x++) check(x, y0 - 1);
+		if (isLoaded(chunkX, chunkY + 1)) for (int x = x0; x < x0 + size; x++) check(x, y0 + size);
+		if (isLoaded(chunkX - 1, chunkY)) for (int y = y0; y < y0 + size; y++) check(x0 - 1, y);
+		if (isLoaded(chunkX + 1, chunkY)) for (int y = y0; y < y0 + size; y++) check(x0 + size, y);
+	}
+
+	private boolean isLoaded(int chunkX, int chunkY) {
+		return level.chunkManager.getChunkStage(chunkX, chunkY) == ChunkManager.CHUNK_STAGE_DONE;
+	}
+
+	private void check(int x, int y) {
+		Tile tile = level.getTile(x, y);
+		if (tile instanceof FluidTile && ((FluidTile) tile).canFlow(level, x, y))
+			add(x, y, ((FluidTile) tile).getFlowDelay());
+	}
+
+	private void add(int x, int y, int delay) {
+		if (!positions.add(position(x, y))) return;
+		queue.add(new Active(x, y, time + delay, added++));
+		count = queue.size();
+	}
+
+	/** @return the number of fluids which may flow, as of the last change; may be called from any thread */
+	public int getCount() {
+		return count;
+	}
+
+	/** Makes the fluids due flow, up to the batch. */
+	public void tick() {
+		time++;
+		for (int i = 0; i < BATCH && !queue.isEmpty() && queue.peek().due <= time; i++) {
+			Active active = queue.poll();
+			long position = position(active.x, active.y);
+			if (!level.tickets.isTicking(active.x, active.y)) {
+				queue.add(new Active(active.x, active.y, time + FROZEN_DELAY, added++));
+				continue;
+			}
+
+			Tile tile = level.getTile(active.x, active.y);
+			if (tile instanceof FluidTile) // Still in the set while it flows, so that its own changes do not add it again.
+				((FluidTile) tile).flow(level, active.x, active.y);
+			positions.remove(position);
+		}
+		count = queue.size();
+	}
+}
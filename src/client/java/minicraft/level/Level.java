@@ -1,7 +1,11 @@
 package minicraft.level;
 
 import minicraft.core.Game;
+import minicraft.core.LevelTicker;
+import minicraft.core.Metrics;
+import minicraft.core.Profiler;
 import minicraft.core.Updater;
+import minicraft.core.World;
 import minicraft.core.io.Localization;
 import minicraft.core.io.Settings;
 import minicraft.entity.Entity;
@@ -51,6 +55,7 @@ import java.util.function.ToIntFunction;
 
 public class Level {
 	private final Random random;
+	private final Random seeds; // Of the game objects made while the level ticks; see #newRandom().
 
 	private static final String[] LEVEL_NAMES = { "Sky", "Surface", "Iron", "Gold", "Lava", "Dungeon" };
 
@@ -84,6 +89,23 @@ public class Level {
 	private final List<Entity> entitiesToAdd = new ArrayList<>(); /// entities that will be added to the level on next tick are stored here. This is for the sake of multithreading optimization. (hopefully)
 	private final List<Entity> entitiesToRemove = new ArrayList<>(); /// entities that will be removed from the level on next tick are stored here. This is for the sake of multithreading optimization. (hopefully)
 
+	/**
+	 * Notified when a tile, or its data, is set through the level, as the stairs matched with the level above are when
+	 * a chunk is generated; not of the tiles the generator sets in the chunks directly.
+	 */
+	public interface TileListener {
+		void tileChanged(Level level, int x, int y);
+	}
+
+	private final List<TileListener> tileListeners = new ArrayList<>();
+	public final ChunkTickets tickets = new ChunkTickets(this); // Sized from the level on first use.
+	private final RandomTicks randomTicks;
+	public final ScheduledTicks scheduledTicks = new ScheduledTicks(this);
+	public final FluidTicks fluids = new FluidTicks(this);
+	private final Object away = new Object(); // Holds the chunks around where the last player left ticking, while there is no player.
+	private boolean awayHeld = false;
+	private int awayX, awayY; // In tiles; the middle of the level until a player leaves it.
+
 	// Creates a sorter for all the entities to be rendered.
 	//private static Comparator<Entity> spriteSorter = Comparator.comparingInt(e -> e.y); // Broken
 	@SuppressWarnings("Convert2Lambda")
@@ -133,7 +155,7 @@ public class Level {
 			}
 		}
 
-		Logging.WORLDNAMED.info("Found " + numFound + " entities in level of depth " + depth);
+		Logging.WORLDNAMED.info("Found {} entities in level of depth {}", numFound, depth);
 	}
 
 	private void updateMobCap() {
@@ -146,9 +168,13 @@ public class Level {
 		depth = level;
 		this.w = w;
 		this.h = h;
+		awayX = w / 2;
+		awayY = h / 2;
 		this.seed = seed;
 		this.parentLevel = parentLevel;
 		random = new Random(seed);
+		seeds = new Random(~seed);
+		randomTicks = new RandomTicks(this, seed + depth);
 		short[][] maps; // Multidimensional array (an array within a array), used for the map
 
 		treeTypes = new TreeTile.TreeType[w * h];
@@ -192,7 +218,7 @@ public class Level {
 			return;
 		}
 
-		Logging.WORLD.debug("Making level " + level + "...");
+		Logging.WORLD.debug("Making level {}...", level);
 
 		chunkManager = LevelGen.createAndValidateMap(w, h, level, seed);
 		if (chunkManager == null) {
@@ -217,7 +243,7 @@ public class Level {
 							Structure.DUNGEON_GATE.draw(this, x, y); // Te gate should not intersect with the boss room.
 							Structure.DUNGEON_BOSS_ROOM.draw(this, w / 2, h / 2); // Generating the boss room at the center.
 						} else if (level == 0) { // Surface
-							Logging.WORLD.trace("Setting tiles around " + x + "," + y + " to hard rock");
+							Logging.WORLD.trace("Setting tiles around {},{} to hard rock", x, y);
 							setAreaTiles(x, y, 1, Tiles.get("Hard Rock"), 0); // surround the sky stairs with hard rock
 						} else // Any other level, the up-stairs should have dirt on all sides.
 							setAreaTiles(x, y, 1, Tiles.get("dirt"), 0);
@@ -284,7 +310,7 @@ public class Level {
 							Structure.DUNGEON_GATE.draw(level, x, y); // Te gate should not intersect with the boss room.
 							Structure.DUNGEON_BOSS_ROOM.draw(level, level.w / 2, level.h / 2); // Generating the boss room at the center.
 						} else if (level.depth == 0) { // Surface
-							Logging.WORLD.trace("Setting tiles around " + x + "," + y + " to hard rock");
+							Logging.WORLD.trace("Setting tiles around {},{} to hard rock", x, y);
 							level.setAreaTiles(x, y, 1, Tiles.get("Hard Rock"), 0); // surround the sky stairs with hard rock
 						} else // Any other level, the up-stairs should have dirt on all sides.
 							level.setAreaTiles(x, y, 1, Tiles.get("dirt"), 0);
@@ -359,7 +385,7 @@ public class Level {
 			for (Entity e : entities)
 				if (e instanceof DungeonChest)
 					numChests++;
-			Logging.WORLDNAMED.debug("Found " + numChests + " chests.");
+			Logging.WORLDNAMED.debug("Found {} chests.", numChests);
 		}
 
 		/// Make DungeonChests!
@@ -425,6 +451,7 @@ public class Level {
 	}
 
 	public void tick(boolean fullTick) {
+		Profiler.begin(Profiler.LEVEL_TICK);
 		int count = 0;
 
 		while (entitiesToAdd.size() > 0) {
@@ -441,25 +468,40 @@ public class Level {
 						players.add((Player) entity);
 					}
 				}
+				if (entity instanceof Spawner) // Spawners keep their chunk loaded, frozen unless a player is near.
+					tickets.hold(entity, ChunkTickets.chunkTicket(ChunkTickets.Type.SPAWNER, ChunkTickets.Status.LOADED,
+						entity.x >> Tile.TILE_SIZE_SHIFT, entity.y >> Tile.TILE_SIZE_SHIFT));
+				Metrics.ENTITIES_ADDED.increment();
 			}
 
 			entitiesToAdd.remove(entity);
 		}
 
 		if (fullTick) {
-			// This prevents any entity (or tile) tick action from happening on a server level with no players.
-
-			for (int i = 0; i < w * h / 50; i++) {
-				int xt = random.nextInt(w);
-				int yt = random.nextInt(w);
-				getTile(xt, yt).tick(this, xt, yt);
+			// Only the chunks held ticking are ticked; the others are frozen. A level with no player keeps the chunks
+			// around where the last one left ticking, so that it does not freeze as a whole.
+			if (players.isEmpty() != awayHeld) {
+				if (awayHeld) tickets.release(away);
+				else tickets.hold(away, new ChunkTickets.Ticket(ChunkTickets.Type.PLAYER, ChunkTickets.Status.TICKING,
+					Math.floorDiv(awayX, ChunkManager.CHUNK_SIZE), Math.floorDiv(awayY, ChunkManager.CHUNK_SIZE),
+					ChunkTickets.getSimulationDistance()));
+				awayHeld = !awayHeld;
 			}
 
+			Profiler.begin(Profiler.TILE_TICK);
+			randomTicks.tick();
+			scheduledTicks.tick();
+			fluids.tick();
+			Profiler.end(Profiler.TILE_TICK);
+
 			// Entity loop
+			Profiler.begin(Profiler.ENTITY_TICK);
 			for (Entity e : entities) {
-				tickEntity(e);
+				if (e instanceof Player || tickets.isTicking(e.x >> Tile.TILE_SIZE_SHIFT, e.y >> Tile.TILE_SIZE_SHIFT))
+					tickEntity(e);
 				if (e instanceof Mob) count++;
 			}
+			Profiler.end(Profiler.ENTITY_TICK);
 		}
 
 		while (entitiesToRemove.size() > 0) {
@@ -468,12 +510,15 @@ public class Level {
 			if (Logging.logLevel) printEntityStatus("Removing ", entity, "mob.Player");
 
 			entity.remove(this); // This will safely fail if the entity's level doesn't match this one.
+			tickets.release(entity);
 			synchronized (entityLock) {
-				entities.remove(entity);
+				if (entities.remove(entity)) Metrics.ENTITIES_REMOVED.increment();
 			}
 
-			if (entity instanceof Player)
-				players.remove(entity);
+			if (entity instanceof Player && players.remove(entity)) {
+				awayX = entity.x >> Tile.TILE_SIZE_SHIFT;
+				awayY = entity.y >> Tile.TILE_SIZE_SHIFT;
+			}
 			entitiesToRemove.remove(entity);
 		}
 
@@ -481,19 +526,35 @@ public class Level {
 
 		if (fullTick && count < maxMobCount)
 			trySpawn();
+		Profiler.end(Profiler.LEVEL_TICK);
 	}
 
-	public void loadChunksAround(int tileX, int tileY) {
-		// Update all chunks up to 3 chunks away from the player to make sure they are loaded
-		int cX = Math.floorDiv(tileX, ChunkManager.CHUNK_SIZE), cY = Math.floorDiv(tileY, ChunkManager.CHUNK_SIZE);
-		for (int x = cX - 3; x <= cX + 3; x++)
-			for (int y = cY - 3; y <= cY + 3; y++)
-				if (chunkManager.getChunkStage(x, y) != ChunkManager.CHUNK_STAGE_DONE)
-					loadChunk(x, y);
+	/**
+	 * Moves the tickets of the player to where it is, loading the chunks within the simulation and view distances
+	 * which are not yet.
+	 */
+	public void holdChunksAround(Player player) {
+		Profiler.begin(Profiler.CHUNK_LOAD);
+		tickets.hold(player, ChunkTickets.playerTickets(player.x >> Tile.TILE_SIZE_SHIFT, player.y >> Tile.TILE_SIZE_SHIFT));
+		Profiler.end(Profiler.CHUNK_LOAD);
 	}
 
 	public void loadChunk(int x, int y) {
+		long start = System.nanoTime();
+		int stage = chunkManager.getChunkStage(x, y);
+		generateChunk(x, y);
+		if (stage != chunkManager.getChunkStage(x, y)) {
+			Metrics.CHUNK_GENERATION.record(System.nanoTime() - start);
+			if (chunkManager.getChunkStage(x, y) == ChunkManager.CHUNK_STAGE_DONE) fluids.chunkLoaded(x, y);
+		}
+	}
+
+	private void generateChunk(int x, int y) {
 		if (chunkManager.getChunkStage(x, y) == ChunkManager.CHUNK_STAGE_UNFINISHED_STAIRS && parentLevel != null) {
+			if (LevelTicker.getTickingLevel() != null) { // The stairs are matched with the level above once it is not ticking.
+				LevelTicker.runAfterLevels(() -> generateChunk(x, y));
+				return;
+			}
 			if (parentLevel.chunkManager.getChunkStage(x, y) == 0)
 				LevelGen.generateChunk(parentLevel.chunkManager, x, y, parentLevel.depth, seed);
 			int S = ChunkManager.CHUNK_SIZE;
@@ -504,7 +565,7 @@ public class Level {
 							Structure.DUNGEON_GATE.draw(this, i, j); // Te gate should not intersect with the boss room.
 							Structure.DUNGEON_BOSS_ROOM.draw(this, w / 2, h / 2); // Generating the boss room at the center.
 						} else if (depth == 0) { // Surface
-							Logging.WORLD.trace("Setting tiles around " + i + "," + j + " to hard rock");
+							Logging.WORLD.trace("Setting tiles around {},{} to hard rock", i, j);
 							setAreaTiles(i, j, 1, Tiles.get("Hard Rock"), 0); // surround the sky stairs with hard rock
 						} else // Any other level, the up-stairs should have dirt on all sides.
 							setAreaTiles(i, j, 1, Tiles.get("dirt"), 0);
@@ -678,6 +739,8 @@ public class Level {
 	public void setTile(int x, int y, Tile t, int dataVal) {
 		chunkManager.setTile(x, y, t, dataVal);
 		getTile(x, y).onTileSet(this, x, y);
+		fluids.tileChanged(x, y);
+		fireTileChanged(x, y);
 	}
 
 	public int getData(int x, int y) {
@@ -686,6 +749,20 @@ public class Level {
 
 	public void setData(int x, int y, int val) {
 		chunkManager.setData(x, y, val);
+		fireTileChanged(x, y);
+	}
+
+	public void addTileListener(TileListener listener) {
+		tileListeners.add(listener);
+	}
+
+	public void removeTileListener(TileListener listener) {
+		tileListeners.remove(listener);
+	}
+
+	private void fireTileChanged(int x, int y) {
+		for (int i = 0; i < tileListeners.size(); i++)
+			tileListeners.get(i).tileChanged(this, x, y);
 	}
 
 	public void add(Entity e) {
@@ -716,6 +793,43 @@ public class Level {
 			entitiesToRemove.add(e);
 	}
 
+	/**
+	 * Creates a random number generator for a game object made while the level ticks, seeded from the level alone, so
+	 * that the levels make the same objects ticked in any order.
+	 */
+	public Random newRandom() {
+		return new Random(seeds.nextLong());
+	}
+
+	/**
+	 * @return what the tiles draw from while the level ticks: the generator of the chunk being random ticked, or else
+	 * the level's
+	 */
+	public Random getTileRandom() {
+		Random current = randomTicks.getCurrent();
+		return current == null ? random : current;
+	}
+
+	/**
+	 * Generates an ID for an entity added while the level ticks, without looking at the other levels, which may be
+	 * ticking meanwhile: the index of the level is in the low 3 bits, so that the levels do not generate the same IDs,
+	 * and the rest is checked against the entities of this level.
+	 */
+	public int newEntityId() {
+		int index = World.lvlIdx(depth);
+		while (true) {
+			int eid = (seeds.nextInt(Integer.MAX_VALUE >> 3) + 1) << 3 | index;
+			boolean available = true;
+			synchronized (entityLock) {
+				for (Entity entity : entities)
+					if (entity.eID == eid) available = false;
+			}
+			for (Entity entity : entitiesToAdd)
+				if (entity.eID == eid) available = false;
+			if (available) return eid;
+		}
+	}
+
 	/**
 	 * Natural spawn.
 	 */
@@ -732,6 +846,7 @@ public class Level {
 				int rnd = random.nextInt(100);
 				int nx = (random.nextInt(ChunkManager.CHUNK_SIZE * 2) - ChunkManager.CHUNK_SIZE) * Tile.TILE_PIXELS + player.x,
 					ny = (random.nextInt(ChunkManager.CHUNK_SIZE * 2) - ChunkManager.CHUNK_SIZE) * Tile.TILE_PIXELS + player.y;
+				if (!tickets.isTicking(nx >> Tile.TILE_SIZE_SHIFT, ny >> Tile.TILE_SIZE_SHIFT)) continue; // Would be frozen at once.
 
 				//System.out.println("trySpawn on level " + depth + " of lvl " + lvl + " mob w/ rand " + rnd + " at tile " + nx + "," + ny);
 
@@ -796,6 +911,20 @@ public class Level {
 		entities.clear();
 	}
 
+	public int getEntityCount() {
+		return entities.size();
+	}
+
+	/** @return the number of entities to be added on the next tick */
+	public int getEntitiesToAddCount() {
+		return entitiesToAdd.size();
+	}
+
+	/** @return the number of entities to be removed on the next tick */
+	public int getEntitiesToRemoveCount() {
+		return entitiesToRemove.size();
+	}
+
 	public Entity[] getEntityArray() {
 		Entity[] entityArray;
 		int index = 0;
@@ -62,7 +62,8 @@ public class LevelGen {
 		values[(x & (w - 1)) + (y & (h - 1)) * w] = value;
 	}
 
-	static void generateChunk(ChunkManager chunkManager, int x, int y, int level, long seed) {
+	// Synchronized, as the generators are shared by the levels, which may load chunks while ticking in parallel.
+	static synchronized void generateChunk(ChunkManager chunkManager, int x, int y, int level, long seed) {
 		worldSeed = seed;
 
 		if (level == 1)
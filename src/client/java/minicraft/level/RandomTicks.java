@@ -0,0 +1,125 @@
+package minicraft.level;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * The random ticks of the tiles of a level: each chunk ticking has {@link #TICKS_PER_CHUNK} of its tiles, picked at
+ * random, ticked each tick, in and out of the original size of the level alike. Each chunk draws from a xorshift
+ * generator of its own, seeded from the level and the chunk, so that the ticks of a chunk do not depend on the others.
+ * <p>
+ * The cost grows with the chunks ticking, up to the budget of random ticks a tick: past it, the chunks share the
+ * budget evenly, and take turns for the remainder.
+ */
+public class RandomTicks {
+	/** As many as the tiles of a chunk had when a level ticked {@code w * h / 50} tiles a tick. */
+	public static final int TICKS_PER_CHUNK = ChunkManager.CHUNK_SIZE * ChunkManager.CHUNK_SIZE / 50;
+	public static final int DEFAULT_BUDGET = TICKS_PER_CHUNK * 256; // As many chunks as 5 players apart tick, at 49 each by default.
+
+	private static volatile int budget = DEFAULT_BUDGET;
+
+	/** Sets the most random ticks a level has each tick. */
+	public static void setBudget(int budget) {
+		if (budget < 1) throw new IllegalArgumentException("The budget must be at least 1, but was " + budget);
+		RandomTicks.budget = budget;
+	}
+
+	public static int getBudget() {
+		return budget;
+	}
+
+	/**
+	 * A xorshift generator, as a {@link Random} so that the tiles can draw from it; much cheaper than the linear
+	 * congruential generator it replaces, with no synchronization.
+	 */
+	@SuppressWarnings("serial") // Never serialized.
+	static class ChunkRandom extends Random {
+		private long state; // Never 0, which xorshift would never leave.
+
+		ChunkRandom(long seed) {
+			super(seed);
+		}
+
+		@Override
+		public synchronized void setSeed(long seed) {
+			super.setSeed(seed);
+			// Mixes the seed (splitmix64), so that close seeds, as of close chunks, give unrelated sequences.
+			seed = (seed ^ seed >>> 30) * 0xBF58476D1CE4E5B9L;
+			seed = (seed ^ seed >>> 27) * 0x94D049BB133111EBL;
+			seed ^= seed >>> 31;
+			state = seed == 0 ? 0x9E3779B97F4A7C15L : seed;
+		}
+
+		@Override
+		protected int next(int bits) {
+			long x = state;
+			x ^= x << 13;
+			x ^= x >>> 7;
+			x ^= x << 17;
+			state = x;
+			return (int) (x >>> 64 - bits);
+		}
+	}
+
+	private final Level level;
+	private final long seed;
+	private final HashMap<Long, ChunkRandom> randoms = new HashMap<>(); // Of the chunks ticking.
+	private long[] chunks = null; // The chunks ticking, as of the last tick.
+	private int made = 0; // The generators made, so that a chunk ticking again does not repeat its ticks.
+	private int turn = 0; // The first chunk to have one of the remainder of the budget.
+	private ChunkRandom current = null;
+
+	RandomTicks(Level level, long seed) {
+		this.level = level;
+		this.seed = seed;
+	}
+
+	/** Ticks random tiles of each chunk ticking. */
+	public void tick() {
+		long[] ticking = level.tickets.getTickingChunks();
+		if (ticking != chunks) {
+			randoms.keySet().removeIf(key -> Arrays.binarySearch(ticking, key) < 0);
+			chunks = ticking;
+		}
+		if (ticking.length == 0) return;
+
+		int budget = RandomTicks.budget;
+		int perChunk = Math.min(TICKS_PER_CHUNK, budget / ticking.length);
+		int remainder = perChunk < TICKS_PER_CHUNK ? budget % ticking.length : 0;
+		turn %= ticking.length;
+
+		int size = ChunkManager.CHUNK_SIZE, shift = Integer.numberOfTrailingZeros(size);
+		int bits = 2 * shift;
+		try {
+			for (int i = 0; i < ticking.length; i++) {
+				int count = perChunk + (Math.floorMod(i - turn, ticking.length) < remainder ? 1 : 0);
+				if (count == 0) continue;
+
+				long key = ticking[i];
+				ChunkRandom random = randoms.get(key);
+				if (random == null) {
+					random = new ChunkRandom(seed ^ key * 0x9E3779B97F4A7C15L ^ (long) made++ << 48);
+					randoms.put(key, random);
+				}
+
+				current = random;
+				int x0 = ChunkTickets.keyX(key) * size, y0 = ChunkTickets.keyY(key) * size;
+				for (int n = 0; n < count; n++) {
+					int tile = random.next(bits);
+					int xt = x0 + (tile & size - 1), yt = y0 + (tile >>> shift);
+					level.getTile(xt, yt).tick(level, xt, yt);
+				}
+			}
+		} finally {
+			current = null;
+		}
+
+		turn += remainder;
+	}
+
+	/** @return the generator of the chunk being random ticked, if any */
+	Random getCurrent() {
+		return current;
+	}
+}
@@ -0,0 +1,167 @@
+package minicraft.level;
+
+import minicraft.level.tile.Tile;
+import minicraft.level.tile.Tiles;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The scheduled ticks of the tiles of a level: a tile schedules a tick of itself after a delay, like an exploding tile
+ * turning into a hole, and {@link Tile#scheduledTick(Level, int, int)} is called then if the tile is still there.
+ * A position has at most one tick scheduled; scheduling another before it is due does nothing.
+ * <p>
+ * The ticks are kept in a priority queue by when they are due, then by their position, so that they run in the same
+ * order in any run. At most {@link #BUDGET} of them run in a tick; the rest are late. The ticks in chunks not ticking
+ * wait for them to tick again, unless they hold their chunk ticking with a ticket until they run, as explosions do.
+ * They are saved with the level, by the delays left.
+ */
+public class ScheduledTicks {
+	public static final int BUDGET = 4096; // Ticks run in a tick at most.
+	private static final int FROZEN_DELAY = 60; // Before trying a tick again, as its chunk was not ticking.
+
+	private static class Scheduled {
+		private final int x, y;
+		private final Tile tile;
+		private final long due;
+		private final @Nullable ChunkTickets.Type ticket;
+
+		private Scheduled(int x, int y, Tile tile, long due, @Nullable ChunkTickets.Type ticket) {
+			this.x = x;
+			this.y = y;
+			this.tile = tile;
+			this.due = due;
+			this.ticket = ticket;
+		}
+	}
+
+	// The holder of the ticket of a chunk, for the ticks of the chunk holding it.
+	private static class Held {
+		private int count = 0;
+	}
+
+	private static final Comparator<Scheduled> ORDER = Comparator.<Scheduled>comparingLong(s -> s.due)
+		.thenComparingInt(s -> s.y).thenComparingInt(s -> s.x);
+
+	private final Level level;
+	private final PriorityQueue<Scheduled> queue = new PriorityQueue<>(ORDER);
+	private final HashMap<Long, Scheduled> positions = new HashMap<>();
+	private final HashMap<Long, Held> held = new HashMap<>(); // By chunk.
+	private long time = 0; // In the ticks of the level.
+	private volatile int count = 0;
+
+	ScheduledTicks(Level level) {
+		this.level = level;
+	}
+
+	private static long position(int x, int y) {
+		return (long) x << 32 | y & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Schedules a tick of the tile at the position.
+	 * @param delay in ticks of the level, at least 1
+	 * @return whether it was scheduled; {@code false} if a tick was already scheduled at the position
+	 */
+	public boolean schedule(int x, int y, Tile tile, int delay) {
+		return schedule(x, y, tile, delay, null);
+	}
+
+	/**
+	 * Schedules a tick of the tile at the position, which holds the chunk of the tile ticking until it runs.
+	 * @param ticket the type of the ticket holding the chunk; {@code null} not to hold it
+	 * @see #schedule(int, int, Tile, int)
+	 */
+	public boolean schedule(int x, int y, Tile tile, int delay, @Nullable ChunkTickets.Type ticket) {
+		if (delay < 1) throw new IllegalArgumentException("The delay must be at least 1, but was " + delay);
+		long position = position(x, y);
+		if (positions.containsKey(position)) return false;
+		Scheduled scheduled = new Scheduled(x, y, tile, time + delay, ticket);
+		positions.put(position, scheduled);
+		queue.add(scheduled);
+		count = queue.size();
+		if (ticket != null) hold(x, y, ticket);
+		return true;
+	}
+
+	private void hold(int x, int y, ChunkTickets.Type ticket) {
+		long chunk = position(Math.floorDiv(x, ChunkManager.CHUNK_SIZE), Math.floorDiv(y, ChunkManager.CHUNK_SIZE));
+		Held holder = held.computeIfAbsent(chunk, key -> new Held());
+		if (holder.count++ == 0)
+			level.tickets.hold(holder, ChunkTickets.chunkTicket(ticket, ChunkTickets.Status.TICKING, x, y));
+	}
+
+	private void release(int x, int y) {
+		long chunk = position(Math.floorDiv(x, ChunkManager.CHUNK_SIZE), Math.floorDiv(y, ChunkManager.CHUNK_SIZE));
+		Held holder = held.get(chunk);
+		if (holder != null && --holder.count == 0) {
+			held.remove(chunk);
+			level.tickets.release(holder);
+		}
+	}
+
+	public boolean isScheduled(int x, int y) {
+		return positions.containsKey(position(x, y));
+	}
+
+	/** @return the number of ticks scheduled, as of the last change; may be called from any thread */
+	public int getCount() {
+		return count;
+	}
+
+	/** Runs the ticks due, up to the budget. */
+	public void tick() {
+		time++;
+		List<Scheduled> frozen = null;
+		for (int i = 0; i < BUDGET && !queue.isEmpty() && queue.peek().due <= time; i++) {
+			Scheduled scheduled = queue.poll();
+			positions.remove(position(scheduled.x, scheduled.y));
+			if (!level.tickets.isTicking(scheduled.x, scheduled.y)) {
+				if (frozen == null) frozen = new ArrayList<>();
+				frozen.add(scheduled);
+				continue;
+			}
+
+			if (level.getTile(scheduled.x, scheduled.y) == scheduled.tile)
+				scheduled.tile.scheduledTick(level, scheduled.x, scheduled.y);
+			if (scheduled.ticket != null) release(scheduled.x, scheduled.y);
+		}
+
+		if (frozen != null) {
+			for (Scheduled scheduled : frozen) {
+				if (scheduled.ticket != null) release(scheduled.x, scheduled.y);
+				schedule(scheduled.x, scheduled.y, scheduled.tile, FROZEN_DELAY, scheduled.ticket);
+			}
+		}
+		count = queue.size();
+	}
+
+	/**
+	 * @return the ticks scheduled, as x, y, the delay left, the name of the tile and the type of the ticket of each,
+	 * or {@code NONE}
+	 */
+	public List<String> save() {
+		List<String> data = new ArrayList<>(queue.size() * 5);
+		for (Scheduled scheduled : queue) {
+			data.add(String.valueOf(scheduled.x));
+			data.add(String.valueOf(scheduled.y));
+			data.add(String.valueOf(Math.max(1, scheduled.due - time)));
+			data.add(scheduled.tile.name);
+			data.add(scheduled.ticket == null ? "NONE" : scheduled.ticket.name());
+		}
+		return data;
+	}
+
+	/** Schedules the ticks saved by {@link #save()}, holding their chunks again. */
+	public void load(List<String> data) {
+		for (int i = 0; i + 4 < data.size(); i += 5) {
+			String ticket = data.get(i + 4);
+			schedule(Integer.parseInt(data.get(i)), Integer.parseInt(data.get(i + 1)), Tiles.get(data.get(i + 3)),
+				Integer.parseInt(data.get(i + 2)), ticket.equals("NONE") ? null : ChunkTickets.Type.valueOf(ticket));
+		}
+	}
+}
@@ -3,10 +3,13 @@ package minicraft.level.tile;
 import minicraft.entity.Entity;
 import minicraft.gfx.SpriteAnimation;
 import minicraft.gfx.SpriteLinker.SpriteType;
+import minicraft.level.ChunkTickets;
 import minicraft.level.Level;
 
 /// This class is for tiles WHILE THEY ARE EXPLODING
 public class ExplodedTile extends Tile {
+	private static final int EXPLOSION_TIME = 18; // 18 ticks == 0.3 second
+
 	private static SpriteAnimation sprite = new SpriteAnimation(SpriteType.Tile, "exploded")
 		.setConnectionChecker((level, x, y, tile, side) -> tile instanceof ExplodedTile);
 
@@ -14,6 +17,27 @@ public class ExplodedTile extends Tile {
 		super(name, sprite);
 	}
 
+	/**
+	 * Explodes the tiles around a tile, but those of {@link Tiles#EXPLOSION_BLACKLIST}: they are exploding for a moment,
+	 * then turn into holes, or into the sky on the sky level. Their chunks keep ticking until then.
+	 * @param r the radius of the square exploded, in tiles
+	 */
+	public static void explode(Level level, int x, int y, int r) {
+		Tile exploded = Tiles.get("explode");
+		for (int yt = y - r; yt <= y + r; yt++) {
+			for (int xt = x - r; xt <= x + r; xt++) {
+				if (Tiles.EXPLOSION_BLACKLIST.contains(level.getTile(xt, yt).id)) continue;
+				level.setTile(xt, yt, exploded, 0);
+				level.scheduledTicks.schedule(xt, yt, exploded, EXPLOSION_TIME, ChunkTickets.Type.EXPLOSION);
+			}
+		}
+	}
+
+	@Override
+	public void scheduledTick(Level level, int xt, int yt) {
+		level.setTile(xt, yt, Tiles.get(level.depth != 1 ? "hole" : "Infinite Fall"), 0);
+	}
+
 	@Override
 	public boolean connectsToFluid(Level level, int x, int y) {
 		return true;
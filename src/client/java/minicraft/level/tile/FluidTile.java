@@ -0,0 +1,23 @@
+package minicraft.level.tile;
+
+import minicraft.gfx.SpriteAnimation;
+import minicraft.level.Level;
+
+/**
+ * A tile of a fluid, which flows only when the tiles around it change, through the {@link minicraft.level.FluidTicks}
+ * of its level; a fluid which cannot flow anywhere costs nothing.
+ */
+public abstract class FluidTile extends Tile {
+	protected FluidTile(String name, SpriteAnimation sprite) {
+		super(name, sprite);
+	}
+
+	/** @return the ticks the fluid takes to flow once it can */
+	public abstract int getFlowDelay();
+
+	/** @return whether the fluid at the tile would flow into, or change, a tile next to it */
+	public abstract boolean canFlow(Level level, int x, int y);
+
+	/** Flows into, or changes, the tiles next to it. */
+	public abstract void flow(Level level, int x, int y);
+}
@@ -1,12 +1,16 @@
 package minicraft.level.tile;
 
+import minicraft.entity.Direction;
 import minicraft.entity.Entity;
 import minicraft.gfx.Screen;
 import minicraft.gfx.SpriteAnimation;
 import minicraft.gfx.SpriteLinker.SpriteType;
 import minicraft.level.Level;
 
-public class LavaTile extends Tile {
+public class LavaTile extends FluidTile {
+	private static final int FLOW_DELAY = 90; // A second and a half; lava is slower than water.
+	private static Tile hole = null; // Looked up once the tiles are all made, as Tiles.get(String) goes through them all.
+
 	private static SpriteAnimation sprite = new SpriteAnimation(SpriteType.Tile, "lava")
 		.setConnectionChecker((level, x, y, tile, side) -> tile.connectsToFluid(level, x, y))
 		.setSingletonWithConnective(true);
@@ -37,19 +41,33 @@ public class LavaTile extends Tile {
 	}
 
 	@Override
-	public boolean tick(Level level, int xt, int yt) {
-		int xn = xt;
-		int yn = yt;
+	public int getFlowDelay() {
+		return FLOW_DELAY;
+	}
 
-		if (random.nextBoolean()) xn += random.nextInt(2) * 2 - 1;
-		else yn += random.nextInt(2) * 2 - 1;
+	private static Tile getHole() {
+		if (hole == null) hole = Tiles.get("hole"); // Any thread may set it first; they all set the same tile.
+		return hole;
+	}
 
-		if (level.getTile(xn, yn) == Tiles.get("hole")) {
-			level.setTile(xn, yn, this);
-		}
+	@Override
+	public boolean canFlow(Level level, int x, int y) {
+		Tile hole = getHole();
+		for (Direction dir : Direction.VALUES)
+			if (dir != Direction.NONE && level.getTile(x + dir.getX(), y + dir.getY()) == hole) return true;
 		return false;
 	}
 
+	@Override
+	public void flow(Level level, int x, int y) {
+		Tile hole = getHole();
+		for (Direction dir : Direction.VALUES) {
+			if (dir == Direction.NONE) continue;
+			int xn = x + dir.getX(), yn = y + dir.getY();
+			if (level.getTile(xn, yn) == hole) level.setTile(xn, yn, this);
+		}
+	}
+
 	@Override
 	public int getLightRadius(Level level, int x, int y) {
 		return 6;
@@ -1,5 +1,6 @@
 package minicraft.level.tile;
 
+import minicraft.core.LevelTicker;
 import minicraft.core.World;
 import minicraft.entity.Direction;
 import minicraft.entity.Entity;
@@ -11,12 +12,28 @@ import minicraft.gfx.SpriteAnimation;
 import minicraft.item.Item;
 import minicraft.item.ToolType;
 import minicraft.level.Level;
+import minicraft.util.MyUtils;
 
 import java.util.Random;
 
 public abstract class Tile {
 	public static int tickCount = 0; // A global tickCount used in the Lava & water tiles.
-	protected Random random = new Random();
+	protected Random random = new TileRandom();
+
+	/**
+	 * The tiles are shared by the levels, so what they draw from while a level ticks is the level's, so that the levels
+	 * tick the same in any order; see {@link Level#getTileRandom()}. Otherwise, it is a generator of the tile's own.
+	 */
+	@SuppressWarnings("serial") // Never serialized.
+	private static class TileRandom extends Random {
+		private final Random own = MyUtils.newRandom();
+
+		@Override
+		protected int next(int bits) {
+			Level level = LevelTicker.getTickingLevel();
+			return (level == null ? own : level.getTileRandom()).nextInt() >>> 32 - bits;
+		}
+	}
 
 	public static final int TILE_PIXELS = 16; // Amount of pixels in a tile.
 	public static final int TILE_CENTER = TILE_PIXELS / 2; // For finding the center of a tile.
@@ -133,6 +150,12 @@ public abstract class Tile {
 		return false;
 	}
 
+	/**
+	 * Called when a tick the tile scheduled with {@link minicraft.level.ScheduledTicks#schedule(int, int, Tile, int)}
+	 * is due, if the tile is still there.
+	 */
+	public void scheduledTick(Level level, int xt, int yt) {}
+
 	/**
 	 * What happens when you are inside the tile (ex: lava)
 	 */
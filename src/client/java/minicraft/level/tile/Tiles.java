@@ -232,16 +232,17 @@ public final class Tiles {
 		)));
 	}
 
-	private static int overflowCheck = 0;
+	private static final ThreadLocal<int[]> overflowCheck = ThreadLocal.withInitial(() -> new int[1]); // Per thread, as levels tick in parallel.
 
 	public static Tile get(String name) {
 		//System.out.println("Getting from tile list: " + name);
 
 		name = name.toUpperCase();
 
-		overflowCheck++;
+		int[] overflowCheck = Tiles.overflowCheck.get();
+		overflowCheck[0]++;
 
-		if (overflowCheck > 50) {
+		if (overflowCheck[0] > 50) {
 			CrashHandler.crashHandle(new StackOverflowError("Tiles#get: " + name), new CrashHandler.ErrorInfo("Tile fetching Stacking",
 				CrashHandler.ErrorInfo.ErrorType.SERIOUS, "STACKOVERFLOW prevented in Tiles.get(), on: " + name));
 		}
@@ -267,7 +268,7 @@ public final class Tiles {
 			getting = tiles.get((short) 0);
 		}
 
-		overflowCheck = 0;
+		overflowCheck[0] = 0;
 		return getting;
 	}
 
@@ -1,12 +1,15 @@
 package minicraft.level.tile;
 
+import minicraft.entity.Direction;
 import minicraft.entity.Entity;
 import minicraft.gfx.Screen;
 import minicraft.gfx.SpriteAnimation;
 import minicraft.gfx.SpriteLinker.SpriteType;
 import minicraft.level.Level;
 
-public class WaterTile extends Tile {
+public class WaterTile extends FluidTile {
+	private static final int FLOW_DELAY = 15; // A quarter of a second.
+
 	private static SpriteAnimation sprite = new SpriteAnimation(SpriteType.Tile, "water")
 		.setConnectionChecker((level, x, y, tile, side) -> tile.connectsToFluid(level, x, y))
 		.setSingletonWithConnective(true);
@@ -32,26 +35,29 @@ public class WaterTile extends Tile {
 	}
 
 	@Override
-	public boolean tick(Level level, int xt, int yt) {
-		int xn = xt;
-		int yn = yt;
-
-		if (random.nextBoolean()) xn += random.nextInt(2) * 2 - 1;
-		else yn += random.nextInt(2) * 2 - 1;
+	public int getFlowDelay() {
+		return FLOW_DELAY;
+	}
 
-		if (level.getTile(xn, yn) instanceof HoleTile) {
-			level.setTile(xn, yn, this);
+	@Override
+	public boolean canFlow(Level level, int x, int y) {
+		for (Direction dir : Direction.VALUES) {
+			if (dir == Direction.NONE) continue;
+			Tile tile = level.getTile(x + dir.getX(), y + dir.getY());
+			if (tile instanceof HoleTile || tile instanceof LavaTile) return true;
 		}
+		return false;
+	}
 
-		// These set only the non-diagonally adjacent lava tiles to obsidian
-		for (int x = -1; x < 2; x++) {
-			if (level.getTile(xt + x, yt) instanceof LavaTile)
-				level.setTile(xt + x, yt, Tiles.get("Raw Obsidian"));
-		}
-		for (int y = -1; y < 2; y++) {
-			if (level.getTile(xt, yt + y) instanceof LavaTile)
-				level.setTile(xt, yt + y, Tiles.get("Raw Obsidian"));
+	@Override
+	public void flow(Level level, int x, int y) {
+		// Fills the holes, and sets the lava to obsidian, next to it but not diagonally.
+		for (Direction dir : Direction.VALUES) {
+			if (dir == Direction.NONE) continue;
+			int xn = x + dir.getX(), yn = y + dir.getY();
+			Tile tile = level.getTile(xn, yn);
+			if (tile instanceof HoleTile) level.setTile(xn, yn, this);
+			else if (tile instanceof LavaTile) level.setTile(xn, yn, Tiles.get("Raw Obsidian"));
 		}
-		return false;
 	}
 }
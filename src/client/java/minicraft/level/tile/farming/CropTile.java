@@ -14,6 +14,7 @@ import minicraft.level.Level;
 import minicraft.level.tile.Tile;
 import minicraft.level.tile.Tiles;
 import minicraft.level.tile.WaterTile;
+import minicraft.util.MyUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
@@ -135,7 +136,7 @@ public class CropTile extends FarmTile {
 	public boolean interact(Level level, int xt, int yt, Player player, Item item, Direction attackDir) {
 		if (item instanceof StackableItem && item.getName().equalsIgnoreCase("Fertilizer")) {
 			((StackableItem) item).count--;
-			Random random = new Random();
+			Random random = MyUtils.newRandom();
 			for (int i = 0; i < 2; ++i) {
 				double x = (double) (xt << Tile.TILE_SIZE_SHIFT) + Tile.TILE_CENTER + (random.nextGaussian() * 0.5) * Tile.TILE_CENTER;
 				double y = (double) (yt << Tile.TILE_SIZE_SHIFT) + Tile.TILE_CENTER + (random.nextGaussian() * 0.5) * Tile.TILE_CENTER;
@@ -0,0 +1,49 @@
+package minicraft.network;
+
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the values packed by a {@link BitWriter}, in the order they were written.
+ * Reading past the end throws a {@link BufferUnderflowException}, like reading a {@link Message}.
+ */
+public class BitReader {
+	private final byte[] bytes;
+	private int bit = 0; // The position of the next bit.
+
+	public BitReader(byte[] bytes) {
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Reads a value written by {@link BitWriter#writeBits(int, int)}.
+	 * @param count the number of bits, from 0 to 32
+	 */
+	public int readBits(int count) {
+		if (count < 0 || count > 32) throw new IllegalArgumentException("Invalid bit count " + count);
+		if (bit + count > bytes.length << 3) throw new BufferUnderflowException();
+		int value = 0;
+		for (int i = 0; i < count; i++, bit++)
+			value = value << 1 | (bytes[bit >> 3] >>> (7 - (bit & 7)) & 1);
+		return value;
+	}
+
+	public boolean readBoolean() {
+		return readBits(1) != 0;
+	}
+
+	public int readUnsigned() {
+		return readBits(readBits(5) + 1);
+	}
+
+	public int readSigned() {
+		int zigzag = readUnsigned();
+		return zigzag >>> 1 ^ -(zigzag & 1);
+	}
+
+	public String readString() {
+		byte[] utf = new byte[readBits(8)];
+		for (int i = 0; i < utf.length; i++) utf[i] = (byte) readBits(8);
+		return new String(utf, StandardCharsets.UTF_8);
+	}
+}
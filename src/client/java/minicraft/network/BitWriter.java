@@ -0,0 +1,82 @@
+package minicraft.network;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Packs values into the fewest bits, most significant bit first, for the payloads where bytes would be wasteful;
+ * read back by a {@link BitReader}. A writer grows as needed and can be reused after {@link #reset()}.
+ */
+public class BitWriter {
+	private byte[] bytes = new byte[256];
+	private int bits = 0; // The number of bits written.
+
+	/** Clears the written bits, keeping the buffer. */
+	public BitWriter reset() {
+		bits = 0;
+		return this;
+	}
+
+	/** @return the number of bytes written, counting the last partial byte */
+	public int length() {
+		return (bits + 7) >> 3;
+	}
+
+	/**
+	 * Writes the lowest bits of a value.
+	 * @param count the number of bits, from 0 to 32
+	 */
+	public BitWriter writeBits(int value, int count) {
+		if (count < 0 || count > 32) throw new IllegalArgumentException("Invalid bit count " + count);
+		int end = bits + count;
+		if (end > bytes.length << 3) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, (end + 7) >> 3));
+
+		for (int i = count - 1; i >= 0; i--) {
+			if ((value >>> i & 1) != 0) bytes[bits >> 3] |= (byte) (0x80 >>> (bits & 7));
+			else bytes[bits >> 3] &= (byte) ~(0x80 >>> (bits & 7));
+			bits++;
+		}
+
+		return this;
+	}
+
+	public BitWriter writeBoolean(boolean value) {
+		return writeBits(value ? 1 : 0, 1);
+	}
+
+	/**
+	 * Writes an unsigned value as its bit length less one, in 5 bits, followed by the bits;
+	 * small values take few bits. Negative values are taken as unsigned, and take 37 bits.
+	 */
+	public BitWriter writeUnsigned(int value) {
+		int length = Math.max(1, 32 - Integer.numberOfLeadingZeros(value));
+		writeBits(length - 1, 5);
+		return writeBits(value, length);
+	}
+
+	/**
+	 * Writes a signed value like {@link #writeUnsigned(int)}, after mapping it to 0, -1, 1, -2, 2... so that
+	 * values close to 0 take few bits whatever their sign.
+	 */
+	public BitWriter writeSigned(int value) {
+		return writeUnsigned(value << 1 ^ value >> 31);
+	}
+
+	/**
+	 * Writes a short string as a byte length and the UTF-8 bytes.
+	 * @throws IllegalArgumentException if the string is longer than 255 bytes in UTF-8
+	 */
+	public BitWriter writeString(String value) {
+		byte[] utf = value.getBytes(StandardCharsets.UTF_8);
+		if (utf.length > 0xFF) throw new IllegalArgumentException("String too long: " + utf.length + " bytes");
+		writeBits(utf.length, 8);
+		for (byte b : utf) writeBits(b, 8);
+		return this;
+	}
+
+	/** Adds the written bytes to a payload, the last one padded with zeros. */
+	public void writeTo(PayloadWriter payload) {
+		if ((bits & 7) != 0) bytes[bits >> 3] &= (byte) (0xFF00 >>> (bits & 7));
+		payload.putBytes(bytes, 0, length());
+	}
+}
@@ -0,0 +1,175 @@
+package minicraft.network;
+
+import minicraft.level.ChunkManager;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses the tiles of a chunk for the network: a palette of the distinct tiles (ID and data), the runs of equal
+ * tiles row by row as palette indices, and all of that deflated. Most chunks have a few dozen distinct tiles in long
+ * runs, so this takes a few hundred bytes instead of 16 KiB.
+ * <p>
+ * Before deflating: the palette size, each tile of the palette as two shorts, and for each run its length less one
+ * and its palette index; the counts as variable-length integers, 7 bits per byte.
+ * <p>
+ * A codec keeps its buffers between chunks, and is not thread-safe.
+ */
+public class ChunkCodec {
+	public static final int TILES = ChunkManager.CHUNK_SIZE * ChunkManager.CHUNK_SIZE;
+	private static final int MAX_RAW_LENGTH = 1 << 16; // Above what a chunk can take, as a guard against deflate bombs.
+	private static final int TABLE_BITS = 32 - Integer.numberOfLeadingZeros(TILES); // At most half full.
+
+	private final short[] ids = new short[TILES];
+	private final short[] data = new short[TILES];
+	private final int[] palette = new int[TILES];
+	private int paletteSize = 0;
+	// The palette indices by tile (ID << 16 | data), open addressed; the entries of older chunks have older stamps.
+	private final int[] tableTiles = new int[1 << TABLE_BITS];
+	private final int[] tableIndices = new int[1 << TABLE_BITS];
+	private final int[] tableStamps = new int[1 << TABLE_BITS];
+	private int stamp = 0;
+	private byte[] raw = new byte[TILES * 2];
+	private int rawLength = 0;
+	private int position = 0; // In the raw bytes, while decoding.
+	private byte[] compressed = new byte[TILES];
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+	private final Inflater inflater = new Inflater();
+
+	/**
+	 * Appends the compressed tiles of a chunk to the payload.
+	 * @return the number of bytes appended
+	 */
+	public int encode(ChunkManager chunks, int chunkX, int chunkY, PayloadWriter payload) {
+		chunks.getChunkTiles(chunkX, chunkY, ids, data);
+		if (++stamp == 0) { // Wrapped around; the stamps left could match again.
+			Arrays.fill(tableStamps, 0);
+			stamp = 1;
+		}
+		paletteSize = 0;
+		for (int i = 0; i < TILES; i++)
+			paletteIndex(ids[i] << 16 | data[i] & 0xFFFF);
+
+		rawLength = 0;
+		putVarInt(paletteSize);
+		for (int i = 0; i < paletteSize; i++) {
+			putShort(palette[i] >> 16);
+			putShort(palette[i]);
+		}
+
+		int start = 0;
+		for (int i = 1; i <= TILES; i++) {
+			if (i < TILES && ids[i] == ids[start] && data[i] == data[start]) continue;
+			putVarInt(i - start - 1);
+			putVarInt(paletteIndex(ids[start] << 16 | data[start] & 0xFFFF));
+			start = i;
+		}
+
+		deflater.reset();
+		deflater.setInput(raw, 0, rawLength);
+		deflater.finish();
+		int length = 0;
+		while (!deflater.finished()) {
+			if (length == compressed.length) compressed = Arrays.copyOf(compressed, compressed.length * 2);
+			length += deflater.deflate(compressed, length, compressed.length - length);
+		}
+
+		payload.putBytes(compressed, 0, length);
+		return length;
+	}
+
+	// The palette index of the tile, adding it to the palette if it is not in it yet.
+	private int paletteIndex(int tile) {
+		int mask = (1 << TABLE_BITS) - 1;
+		int slot = tile * 0x9E3779B9 >>> 32 - TABLE_BITS;
+		while (tableStamps[slot] == stamp) {
+			if (tableTiles[slot] == tile) return tableIndices[slot];
+			slot = slot + 1 & mask;
+		}
+
+		tableStamps[slot] = stamp;
+		tableTiles[slot] = tile;
+		tableIndices[slot] = paletteSize;
+		palette[paletteSize] = tile;
+		return paletteSize++;
+	}
+
+	/**
+	 * Reads the tiles of a chunk compressed by {@link #encode(ChunkManager, int, int, PayloadWriter)}.
+	 * @param ids the tile IDs, row by row, of {@link #TILES} elements
+	 * @param data the tile data, row by row, of {@link #TILES} elements
+	 * @throws IllegalArgumentException if the bytes are not a compressed chunk
+	 */
+	public void decode(byte[] bytes, short[] ids, short[] data) {
+		inflater.reset();
+		inflater.setInput(bytes);
+		rawLength = 0;
+		try {
+			while (!inflater.finished()) {
+				if (rawLength == MAX_RAW_LENGTH) throw new IllegalArgumentException("Chunk too long");
+				if (rawLength == raw.length) raw = Arrays.copyOf(raw, Math.min(raw.length * 2, MAX_RAW_LENGTH));
+				int count = inflater.inflate(raw, rawLength, raw.length - rawLength);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					throw new IllegalArgumentException("Truncated chunk");
+				rawLength += count;
+			}
+		} catch (DataFormatException e) {
+			throw new IllegalArgumentException("Invalid chunk: " + e.getMessage(), e);
+		}
+
+		position = 0;
+		int paletteSize = getVarInt();
+		if (paletteSize < 1 || paletteSize > TILES) throw new IllegalArgumentException("Invalid palette size " + paletteSize);
+		for (int i = 0; i < paletteSize; i++)
+			palette[i] = getShort() << 16 | getShort() & 0xFFFF;
+
+		int tile = 0;
+		while (tile < TILES) {
+			int end = tile + getVarInt() + 1;
+			int index = getVarInt();
+			if (end > TILES || end <= tile || index < 0 || index >= paletteSize) throw new IllegalArgumentException("Invalid run");
+			Arrays.fill(ids, tile, end, (short) (palette[index] >> 16));
+			Arrays.fill(data, tile, end, (short) palette[index]);
+			tile = end;
+		}
+	}
+
+	private void ensure(int extra) {
+		if (rawLength + extra > raw.length) raw = Arrays.copyOf(raw, Math.max(raw.length * 2, rawLength + extra));
+	}
+
+	private void putShort(int value) {
+		ensure(2);
+		raw[rawLength++] = (byte) (value >> 8);
+		raw[rawLength++] = (byte) value;
+	}
+
+	private void putVarInt(int value) {
+		ensure(5);
+		while ((value & ~0x7F) != 0) {
+			raw[rawLength++] = (byte) (value & 0x7F | 0x80);
+			value >>>= 7;
+		}
+		raw[rawLength++] = (byte) value;
+	}
+
+	private int getShort() {
+		if (position + 2 > rawLength) throw new IllegalArgumentException("Truncated chunk");
+		int value = (short) (raw[position] << 8 | raw[position + 1] & 0xFF);
+		position += 2;
+		return value;
+	}
+
+	private int getVarInt() {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			if (position >= rawLength) throw new IllegalArgumentException("Truncated chunk");
+			byte b = raw[position++];
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) return value;
+		}
+		throw new IllegalArgumentException("Invalid count");
+	}
+}
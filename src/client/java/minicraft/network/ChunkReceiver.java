@@ -0,0 +1,105 @@
+package minicraft.network;
+
+import minicraft.level.ChunkManager;
+import minicraft.level.tile.Tiles;
+import minicraft.network.MinicraftProtocol.InputType;
+import minicraft.util.Logging;
+
+import java.io.Closeable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * The client side of the chunk streaming of the dedicated server: applies the {@code TILES} messages, each a chunk
+ * compressed by a {@link ChunkCodec}, and the {@code TILE} updates, to the chunk managers of the levels.
+ * <p>
+ * The messages are decoded and applied on a thread of the receiver, in the order received, so that the render thread
+ * does not wait on inflating; {@link ChunkManager} lets it read the chunks meanwhile.
+ */
+public class ChunkReceiver implements Closeable {
+	private final IntFunction<ChunkManager> levels;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Chunk Receiver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// Only used on the thread of the receiver.
+	private final ChunkCodec codec = new ChunkCodec();
+	private final short[] ids = new short[ChunkCodec.TILES];
+	private final short[] data = new short[ChunkCodec.TILES];
+
+	private final AtomicLong chunksApplied = new AtomicLong(), tilesApplied = new AtomicLong();
+
+	/**
+	 * @param levels gives the chunk manager of the level at a depth; {@code null} to ignore the messages of the level
+	 */
+	public ChunkReceiver(IntFunction<ChunkManager> levels) {
+		this.levels = levels;
+	}
+
+	/**
+	 * Queues a message to be applied.
+	 * @return whether the message is a {@code TILES} or a {@code TILE} update
+	 */
+	public boolean receive(Message message) {
+		if (message.type != InputType.TILES && message.type != InputType.TILE) return false;
+		int depth = message.getInt(), x = message.getInt(), y = message.getInt();
+		if (message.type == InputType.TILES) {
+			byte[] bytes = message.getBytes(message.remaining());
+			executor.execute(() -> applyChunk(depth, x, y, bytes));
+		} else {
+			short id = (short) message.getShort(), tileData = (short) message.getShort();
+			executor.execute(() -> applyTile(depth, x, y, id, tileData));
+		}
+
+		return true;
+	}
+
+	/** Waits until the messages received so far are applied. */
+	public void awaitApplied() throws InterruptedException {
+		try {
+			executor.submit(() -> {}).get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	public long getChunksApplied() {
+		return chunksApplied.get();
+	}
+
+	public long getTilesApplied() {
+		return tilesApplied.get();
+	}
+
+	/** Stops applying the messages; those not applied yet are dropped. */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	private void applyChunk(int depth, int chunkX, int chunkY, byte[] bytes) {
+		ChunkManager chunks = levels.apply(depth);
+		if (chunks == null) return;
+		try {
+			codec.decode(bytes, ids, data);
+		} catch (IllegalArgumentException e) {
+			Logging.NETWORK.warn("Invalid chunk {},{} on level {}: {}", chunkX, chunkY, depth, e.getMessage());
+			return;
+		}
+
+		chunks.setChunkTiles(chunkX, chunkY, ids, data);
+		chunksApplied.incrementAndGet();
+	}
+
+	private void applyTile(int depth, int x, int y, short id, short tileData) {
+		ChunkManager chunks = levels.apply(depth);
+		if (chunks == null) return;
+		chunks.setTile(x, y, Tiles.get(id), tileData);
+		tilesApplied.incrementAndGet();
+	}
+}
@@ -0,0 +1,164 @@
+package minicraft.network;
+
+import minicraft.network.MinicraftProtocol.InputType;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Frames {@link Message}s over a socket channel, as described in {@link MinicraftProtocol}.
+ * <p>
+ * This works with both blocking and non-blocking channels. With a non-blocking channel, {@link #read()} and
+ * {@link #flush()} only transfer what the socket takes without waiting; the rest stays buffered until the next call.
+ * A connection is not thread-safe; it is meant to be used by a single thread.
+ */
+public class Connection {
+	private static final int HEADER_LENGTH = 4;
+
+	private final SocketChannel channel;
+	private ByteBuffer in = ByteBuffer.allocate(8192); // In write mode: filled by the socket, drained by poll().
+	private ByteBuffer out = ByteBuffer.allocate(8192); // In write mode: filled by send(), drained by flush().
+	private long bytesReceived = 0, bytesSent = 0;
+	private long messagesReceived = 0, messagesSent = 0;
+
+	public Connection(SocketChannel channel) {
+		this.channel = channel;
+	}
+
+	public SocketChannel getChannel() {
+		return channel;
+	}
+
+	@Nullable
+	public SocketAddress getRemoteAddress() {
+		try {
+			return channel.getRemoteAddress();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads what is available from the socket; with a blocking channel, this waits for at least one byte.
+	 * @return {@code false} if the other side has closed the connection
+	 */
+	public boolean read() throws IOException {
+		if (!in.hasRemaining()) in = grow(in, in.capacity() * 2);
+		int count = channel.read(in);
+		if (count < 0) return false;
+		bytesReceived += count;
+		return true;
+	}
+
+	/**
+	 * Takes the next complete message from what has been read.
+	 * @return the message; {@code null} if it has not been fully read yet
+	 * @throws ProtocolException if the message is too long or of an unknown type; the connection should be closed
+	 */
+	@Nullable
+	public Message poll() throws ProtocolException {
+		in.flip();
+		try {
+			if (in.remaining() < HEADER_LENGTH) return null;
+			int length = in.getInt(in.position());
+			if (length < 1 || length > MinicraftProtocol.MAX_MESSAGE_LENGTH)
+				throw new ProtocolException("Invalid message length " + length);
+			if (in.remaining() < HEADER_LENGTH + length) {
+				if (in.capacity() < HEADER_LENGTH + length) { // Makes room for the rest of the message.
+					in.compact();
+					in = grow(in, HEADER_LENGTH + length);
+					in.flip();
+				}
+				return null;
+			}
+
+			in.getInt();
+			int type = in.get() & 0xFF;
+			if (type >= InputType.VALUES.length)
+				throw new ProtocolException("Unknown message type " + type);
+			byte[] payload = new byte[length - 1];
+			in.get(payload);
+			messagesReceived++;
+			return new Message(InputType.VALUES[type], payload);
+		} finally {
+			in.compact();
+		}
+	}
+
+	/**
+	 * Queues a message with an empty payload. Nothing is written until {@link #flush()}.
+	 */
+	public void send(InputType type) {
+		send(type, null);
+	}
+
+	/**
+	 * Queues a message. Nothing is written until {@link #flush()}.
+	 * @param payload the payload, which may be reused right after; {@code null} for an empty one
+	 */
+	public void send(InputType type, @Nullable PayloadWriter payload) {
+		int length = 1 + (payload == null ? 0 : payload.length());
+		if (length > MinicraftProtocol.MAX_MESSAGE_LENGTH)
+			throw new IllegalArgumentException("Message too long: " + length + " bytes");
+		if (out.remaining() < HEADER_LENGTH + length)
+			out = grow(out, out.position() + HEADER_LENGTH + length);
+		out.putInt(length);
+		out.put((byte) type.ordinal());
+		if (payload != null) payload.writeTo(out);
+		messagesSent++;
+	}
+
+	/**
+	 * Writes the queued messages; with a non-blocking channel, only as much as the socket takes now.
+	 * @return whether everything has been written
+	 */
+	public boolean flush() throws IOException {
+		out.flip();
+		try {
+			while (out.hasRemaining()) {
+				int count = channel.write(out);
+				bytesSent += count;
+				if (count == 0) break; // The socket buffer is full.
+			}
+			return !out.hasRemaining();
+		} finally {
+			out.compact();
+		}
+	}
+
+	/** @return whether there are queued bytes not written yet */
+	public boolean hasPendingWrites() {
+		return out.position() > 0;
+	}
+
+	/** @return the number of bytes queued and not written yet */
+	public int getPendingBytes() {
+		return out.position();
+	}
+
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException ignored) {
+		}
+	}
+
+	public long getBytesReceived() { return bytesReceived; }
+	public long getBytesSent() { return bytesSent; }
+	public long getMessagesReceived() { return messagesReceived; }
+	public long getMessagesSent() { return messagesSent; }
+
+	// The buffer is in write mode.
+	private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+		int size = buffer.capacity();
+		while (size < capacity) size *= 2;
+		ByteBuffer grown = ByteBuffer.allocate(size);
+		buffer.flip();
+		grown.put(buffer);
+		return grown;
+	}
+}
@@ -0,0 +1,262 @@
+package minicraft.network;
+
+import minicraft.network.MinicraftProtocol.InputType;
+
+import java.util.Arrays;
+
+/**
+ * Replicates the entities around a player to its client, as {@code ENTITIES} updates acknowledged by {@code ACK}s.
+ * <p>
+ * Each update has a sequence number, and is the difference between the current {@link EntitySnapshot} and the last
+ * one the client acknowledged, its baseline; so entities which did not change take a single bit, and the others only
+ * the fields which changed. Full snapshots, against an empty baseline, are only sent when there is no baseline: to a
+ * new client, after the client asks for one, or when the acknowledgements fall too far behind to still have the baseline.
+ * <p>
+ * The payload of an update: the sequence number, the baseline sequence number ({@link #FULL} for a full snapshot),
+ * and the bits written by a {@link BitWriter}:
+ * <ul>
+ *     <li>For each entity of the baseline, in order: whether it changed; if so, whether it was removed; if not,
+ *     a mask of the changed fields, and the difference of each changed field, signed.</li>
+ *     <li>The count of new entities, unsigned; and for each, by increasing ID: the ID (31 bits), the class name,
+ *     and each field, signed.</li>
+ * </ul>
+ * The payload of an acknowledgement is the sequence number of the update applied, or {@link #FULL} to ask for a full snapshot.
+ */
+public final class EntityReplication {
+	private EntityReplication() {}
+
+	/** The baseline of full snapshots; and the acknowledgement asking for one. */
+	public static final int FULL = -1;
+
+	/**
+	 * The number of updates a sender keeps as possible baselines; when the client has not acknowledged any of them,
+	 * it is sent a full snapshot again.
+	 */
+	public static final int HISTORY = 32;
+
+	/** Writes the difference from the baseline to the snapshot. */
+	static void writeDelta(EntitySnapshot baseline, EntitySnapshot snapshot, BitWriter bits) {
+		int next = 0; // The next entity of the snapshot.
+		for (int i = 0; i < baseline.size(); i++) {
+			int id = baseline.getId(i);
+			while (next < snapshot.size() && snapshot.getId(next) < id) next++; // Added since the baseline.
+
+			if (next == snapshot.size() || snapshot.getId(next) != id || !snapshot.getType(next).equals(baseline.getType(i))) {
+				bits.writeBoolean(true).writeBoolean(true); // Removed; an ID reused by another type of entity is added again.
+				continue;
+			}
+
+			if (snapshot.sameAs(next, baseline, i)) {
+				bits.writeBoolean(false);
+			} else {
+				int mask = 0;
+				for (int field = 0; field < EntitySnapshot.FIELDS; field++)
+					if (snapshot.get(next, field) != baseline.get(i, field)) mask |= 1 << field;
+				bits.writeBoolean(true).writeBoolean(false).writeBits(mask, EntitySnapshot.FIELDS);
+				for (int field = 0; field < EntitySnapshot.FIELDS; field++)
+					if ((mask & 1 << field) != 0) bits.writeSigned(snapshot.get(next, field) - baseline.get(i, field));
+			}
+			next++;
+		}
+
+		int added = 0;
+		for (int i = 0; i < snapshot.size(); i++)
+			if (isAdded(baseline, snapshot, i)) added++;
+		bits.writeUnsigned(added);
+		for (int i = 0; i < snapshot.size(); i++) {
+			if (!isAdded(baseline, snapshot, i)) continue;
+			bits.writeBits(snapshot.getId(i), 31).writeString(snapshot.getType(i));
+			for (int field = 0; field < EntitySnapshot.FIELDS; field++)
+				bits.writeSigned(snapshot.get(i, field));
+		}
+	}
+
+	// Whether the entity of the snapshot is not in the baseline, or has another type there.
+	private static boolean isAdded(EntitySnapshot baseline, EntitySnapshot snapshot, int index) {
+		int baselineIndex = baseline.indexOf(snapshot.getId(index));
+		return baselineIndex < 0 || !baseline.getType(baselineIndex).equals(snapshot.getType(index));
+	}
+
+	/**
+	 * Reads the difference written by {@link #writeDelta(EntitySnapshot, EntitySnapshot, BitWriter)}.
+	 * @return the snapshot
+	 * @throws IllegalArgumentException if the new entities are not sorted, or are already in the snapshot
+	 */
+	static EntitySnapshot readDelta(EntitySnapshot baseline, BitReader bits) {
+		int kept = 0;
+		int[] ids = new int[baseline.size()];
+		String[] types = new String[baseline.size()];
+		int[] values = new int[baseline.size() * EntitySnapshot.FIELDS];
+		for (int i = 0; i < baseline.size(); i++) {
+			int mask = 0;
+			if (bits.readBoolean()) {
+				if (bits.readBoolean()) continue; // Removed.
+				mask = bits.readBits(EntitySnapshot.FIELDS);
+			}
+
+			ids[kept] = baseline.getId(i);
+			types[kept] = baseline.getType(i);
+			for (int field = 0; field < EntitySnapshot.FIELDS; field++) {
+				int value = baseline.get(i, field);
+				if ((mask & 1 << field) != 0) value += bits.readSigned();
+				values[kept * EntitySnapshot.FIELDS + field] = value;
+			}
+			kept++;
+		}
+
+		int added = bits.readUnsigned();
+		if (added < 0 || added > MinicraftProtocol.MAX_MESSAGE_LENGTH) throw new IllegalArgumentException("Invalid entity count " + added);
+		int size = kept + added;
+		int[] newIds = new int[added];
+		String[] newTypes = new String[added];
+		int[] newValues = new int[added * EntitySnapshot.FIELDS];
+		for (int i = 0; i < added; i++) {
+			newIds[i] = bits.readBits(31);
+			if (i > 0 && newIds[i] <= newIds[i - 1]) throw new IllegalArgumentException("Unsorted entity " + newIds[i]);
+			newTypes[i] = bits.readString();
+			for (int field = 0; field < EntitySnapshot.FIELDS; field++)
+				newValues[i * EntitySnapshot.FIELDS + field] = bits.readSigned();
+		}
+
+		// Merges the new entities into the kept ones, by ID.
+		int[] mergedIds = new int[size];
+		String[] mergedTypes = new String[size];
+		int[] mergedValues = new int[size * EntitySnapshot.FIELDS];
+		int a = 0, b = 0;
+		for (int i = 0; i < size; i++) {
+			boolean fromKept = b == added || a < kept && ids[a] < newIds[b];
+			if (!fromKept && a < kept && ids[a] == newIds[b])
+				throw new IllegalArgumentException("Entity " + ids[a] + " added twice");
+			int[] fromIds = fromKept ? ids : newIds;
+			int index = fromKept ? a++ : b++;
+			mergedIds[i] = fromIds[index];
+			mergedTypes[i] = fromKept ? types[index] : newTypes[index];
+			System.arraycopy(fromKept ? values : newValues, index * EntitySnapshot.FIELDS, mergedValues, i * EntitySnapshot.FIELDS, EntitySnapshot.FIELDS);
+		}
+
+		return new EntitySnapshot(mergedIds, mergedTypes, mergedValues);
+	}
+
+	/**
+	 * The server side of the replication to a client: remembers the updates sent, and which one the client has acknowledged.
+	 */
+	public static class Sender {
+		private final EntitySnapshot[] sent = new EntitySnapshot[HISTORY]; // By sequence number, modulo HISTORY.
+		private final BitWriter bits = new BitWriter();
+		private int sequence = 0; // Of the next update.
+		private int acknowledged = FULL;
+		private int fullSequence = FULL; // Of the last full snapshot sent, until it is acknowledged.
+		private int waited = 0; // The updates not sent while waiting for the acknowledgement of the full snapshot.
+		private long fullUpdates = 0, deltaUpdates = 0;
+
+		/**
+		 * Writes the next update, if there is one to send.
+		 * @param payload the payload of the {@code ENTITIES} message, reset first
+		 * @return {@code false} if there is nothing to send: the last full snapshot has not been acknowledged yet,
+		 * and sending another would only add to the traffic
+		 */
+		public boolean write(EntitySnapshot snapshot, PayloadWriter payload) {
+			EntitySnapshot baseline;
+			if (acknowledged != FULL && sequence - acknowledged <= HISTORY) {
+				baseline = sent[acknowledged % HISTORY];
+				deltaUpdates++;
+			} else if (fullSequence != FULL && waited++ < HISTORY) {
+				return false; // Sent again if it is not acknowledged after a while.
+			} else {
+				baseline = EntitySnapshot.EMPTY;
+				acknowledged = FULL;
+				fullSequence = sequence;
+				waited = 0;
+				fullUpdates++;
+			}
+
+			payload.reset().putInt(sequence).putInt(baseline == EntitySnapshot.EMPTY ? FULL : acknowledged);
+			writeDelta(baseline, snapshot, bits.reset());
+			bits.writeTo(payload);
+			sent[sequence % HISTORY] = snapshot;
+			sequence++;
+			return true;
+		}
+
+		/**
+		 * Handles an {@code ACK} from the client.
+		 * @param sequence the sequence number of the update applied; or {@link #FULL} to send a full snapshot next
+		 * @throws IllegalArgumentException if the update was not sent
+		 */
+		public void acknowledge(int sequence) {
+			if (sequence == FULL) {
+				acknowledged = FULL;
+				fullSequence = FULL;
+				return;
+			}
+
+			if (sequence < 0 || sequence >= this.sequence) throw new IllegalArgumentException("Update " + sequence + " not sent");
+			if (fullSequence != FULL && sequence < fullSequence) return; // Older than the full snapshot the client will apply.
+			if (acknowledged == FULL || sequence > acknowledged) {
+				acknowledged = sequence;
+				fullSequence = FULL;
+			}
+		}
+
+		/** @return the number of full snapshots sent */
+		public long getFullUpdates() {
+			return fullUpdates;
+		}
+
+		/** @return the number of updates sent against an acknowledged baseline */
+		public long getDeltaUpdates() {
+			return deltaUpdates;
+		}
+	}
+
+	/**
+	 * The client side of the replication: applies the updates to the baselines they were made against.
+	 */
+	public static class Receiver {
+		/** Returned by {@link #receive(Message)} when there is nothing to acknowledge. */
+		public static final int NO_ACK = -2;
+
+		private final EntitySnapshot[] received = new EntitySnapshot[HISTORY]; // By sequence number, modulo HISTORY.
+		private final int[] sequences = new int[HISTORY];
+		private EntitySnapshot snapshot = EntitySnapshot.EMPTY;
+		private boolean askedFull = false;
+
+		public Receiver() {
+			Arrays.fill(sequences, FULL);
+		}
+
+		/**
+		 * Applies an {@code ENTITIES} update.
+		 * @return what to send back in an {@code ACK}: the sequence number of the update; {@link #FULL} if its
+		 * baseline is not known any more; or {@link #NO_ACK} if a full snapshot has already been asked for
+		 * @throws IllegalArgumentException if the update is malformed
+		 */
+		public int receive(Message message) {
+			if (message.type != InputType.ENTITIES) throw new IllegalArgumentException("Not an update: " + message);
+			int sequence = message.getInt();
+			int baselineSequence = message.getInt();
+			if (sequence < 0) throw new IllegalArgumentException("Invalid sequence number " + sequence);
+
+			EntitySnapshot baseline = EntitySnapshot.EMPTY;
+			if (baselineSequence != FULL) {
+				if (baselineSequence < 0 || sequences[baselineSequence % HISTORY] != baselineSequence) {
+					if (askedFull) return NO_ACK;
+					askedFull = true;
+					return FULL;
+				}
+				baseline = received[baselineSequence % HISTORY];
+			}
+
+			snapshot = readDelta(baseline, new BitReader(message.getBytes(message.remaining())));
+			if (baselineSequence == FULL) askedFull = false;
+			received[sequence % HISTORY] = snapshot;
+			sequences[sequence % HISTORY] = sequence;
+			return sequence;
+		}
+
+		/** @return the last snapshot received */
+		public EntitySnapshot getSnapshot() {
+			return snapshot;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package minicraft.network;
+
+import minicraft.entity.Entity;
+import minicraft.entity.mob.Mob;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * The replicated state of a set of entities at one moment, as sent by an {@link EntityReplication.Sender}:
+ * for each entity, its ID, its class name, and the {@link #FIELDS} values, sorted by entity ID.
+ * A snapshot is immutable, so that it can be kept as the baseline of later updates.
+ */
+public final class EntitySnapshot {
+	/** The indices of the replicated values. Entities other than mobs have a direction of -1 and a health of -1. */
+	public static final int X = 0, Y = 1, DIR = 2, HEALTH = 3, WALK_DIST = 4, HURT_TIME = 5;
+	public static final int FIELDS = 6;
+
+	public static final EntitySnapshot EMPTY = new EntitySnapshot(new int[0], new String[0], new int[0]);
+
+	private static final Comparator<Entity> BY_ID = (a, b) -> Integer.compare(a.eID, b.eID);
+
+	private final int[] ids;
+	private final String[] types;
+	private final int[] values; // FIELDS values per entity.
+
+	EntitySnapshot(int[] ids, String[] types, int[] values) {
+		this.ids = ids;
+		this.types = types;
+		this.values = values;
+	}
+
+	/**
+	 * Captures the current state of the entities. Entities without an ID yet, not added to a level, are left out.
+	 */
+	public static EntitySnapshot capture(Collection<? extends Entity> entities) {
+		Entity[] sorted = entities.toArray(new Entity[0]);
+		Arrays.sort(sorted, BY_ID);
+		int start = 0;
+		while (start < sorted.length && sorted[start].eID < 0) start++; // Not added to a level yet.
+
+		int count = sorted.length - start;
+		int[] ids = new int[count];
+		String[] types = new String[count];
+		int[] values = new int[count * FIELDS];
+		for (int i = 0; i < count; i++) {
+			Entity entity = sorted[start + i];
+			ids[i] = entity.eID;
+			types[i] = entity.getClass().getSimpleName();
+			int offset = i * FIELDS;
+			values[offset + X] = entity.x;
+			values[offset + Y] = entity.y;
+			if (entity instanceof Mob) {
+				Mob mob = (Mob) entity;
+				values[offset + DIR] = mob.dir.getDir();
+				values[offset + HEALTH] = mob.health;
+				values[offset + WALK_DIST] = mob.walkDist;
+				values[offset + HURT_TIME] = mob.getHurtTime();
+			} else {
+				values[offset + DIR] = -1;
+				values[offset + HEALTH] = -1;
+			}
+		}
+
+		return new EntitySnapshot(ids, types, values);
+	}
+
+	/** @return the number of entities */
+	public int size() {
+		return ids.length;
+	}
+
+	/** @return the ID of the entity at the index */
+	public int getId(int index) {
+		return ids[index];
+	}
+
+	/** @return the simple class name of the entity at the index, like {@code Zombie} */
+	public String getType(int index) {
+		return types[index];
+	}
+
+	/**
+	 * @param field one of {@link #X}, {@link #Y}, {@link #DIR}, {@link #HEALTH}, {@link #WALK_DIST} and {@link #HURT_TIME}
+	 * @return the value of the entity at the index
+	 */
+	public int get(int index, int field) {
+		return values[index * FIELDS + field];
+	}
+
+	/** @return the index of the entity with the ID; negative if it is not in the snapshot */
+	public int indexOf(int eid) {
+		return Arrays.binarySearch(ids, eid);
+	}
+
+	/** @return whether the entity at the index has the same state as the entity at the other index of the other snapshot */
+	boolean sameAs(int index, EntitySnapshot other, int otherIndex) {
+		for (int field = 0; field < FIELDS; field++)
+			if (values[index * FIELDS + field] != other.values[otherIndex * FIELDS + field]) return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "EntitySnapshot (" + ids.length + " entities)";
+	}
+}
@@ -0,0 +1,218 @@
+package minicraft.network;
+
+import minicraft.entity.Entity;
+import minicraft.level.ChunkManager;
+import minicraft.level.ChunkTickets;
+import minicraft.level.Level;
+import minicraft.level.tile.Tile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Routes the changes of a level to the clients interested in them: the level is divided into cells of a chunk, each with
+ * the entities in it and its subscribers, and each client subscribes to the cells within its view distance.
+ * <p>
+ * A subscriber is told when an entity enters its view, by being added in a cell it subscribed to, by moving into one
+ * or by the subscriber subscribing to the cell; and when the entity leaves it, in the same ways. It is also told of
+ * the tiles set in its cells. The entities are placed in their cells by {@link #update()}, to be called after each
+ * tick of the level; the tiles are routed as they are set.
+ * <p>
+ * As the level has no bounds, the cells are kept by their coordinates, and only while they have entities or
+ * subscribers.
+ * <p>
+ * A grid is used on the thread ticking the level.
+ */
+public class InterestGrid implements Level.TileListener {
+	public static final int CELL_SIZE = ChunkManager.CHUNK_SIZE; // In tiles.
+
+	/** A client interested in some cells of the level. */
+	public interface Subscriber {
+		void entityEntered(Entity entity);
+		void entityLeft(Entity entity);
+		void tileChanged(Level level, int x, int y);
+	}
+
+	private static class Cell {
+		private final long key;
+		private final ArrayList<Subscriber> subscribers = new ArrayList<>(2);
+		private final HashSet<Entity> entities = new HashSet<>();
+
+		private Cell(long key) {
+			this.key = key;
+		}
+
+		private boolean isEmpty() {
+			return subscribers.isEmpty() && entities.isEmpty();
+		}
+	}
+
+	private static class Tracked {
+		private Cell cell;
+		private int update; // The last update the entity was seen in.
+
+		private Tracked(Cell cell) {
+			this.cell = cell;
+		}
+	}
+
+	// The cells a subscriber subscribed to, around a cell.
+	private static class View {
+		private final int x, y, radius;
+
+		private View(int x, int y, int radius) {
+			this.x = x;
+			this.y = y;
+			this.radius = radius;
+		}
+
+		private boolean contains(int cellX, int cellY) {
+			return Math.abs(cellX - x) <= radius && Math.abs(cellY - y) <= radius;
+		}
+	}
+
+	private final Level level;
+	private final HashMap<Long, Cell> cells = new HashMap<>(); // By the coordinates of the cell.
+	private final IdentityHashMap<Entity, Tracked> tracked = new IdentityHashMap<>();
+	private final HashMap<Subscriber, View> views = new HashMap<>();
+	private int update = 0;
+
+	public InterestGrid(Level level) {
+		this.level = level;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	// The cell of a tile, if it has entities or subscribers.
+	private Cell cellAt(int xt, int yt) {
+		return cells.get(ChunkTickets.key(Math.floorDiv(xt, CELL_SIZE), Math.floorDiv(yt, CELL_SIZE)));
+	}
+
+	private Cell getCell(int cellX, int cellY) {
+		return cells.computeIfAbsent(ChunkTickets.key(cellX, cellY), Cell::new);
+	}
+
+	// Drops the cell once nothing is left in it.
+	private void trim(Cell cell) {
+		if (cell.isEmpty()) cells.remove(cell.key);
+	}
+
+	/**
+	 * Places the entities of the level in their cells, telling the subscribers of the entities entering and leaving their
+	 * cells; the entities removed from the level leave their cell.
+	 */
+	public void update() {
+		update++;
+		for (Entity entity : level.getEntityArray()) {
+			if (entity.isRemoved()) continue;
+			Cell cell = getCell(Math.floorDiv(entity.x >> Tile.TILE_SIZE_SHIFT, CELL_SIZE),
+				Math.floorDiv(entity.y >> Tile.TILE_SIZE_SHIFT, CELL_SIZE));
+			Tracked entry = tracked.get(entity);
+			if (entry == null) {
+				entry = new Tracked(cell);
+				tracked.put(entity, entry);
+				move(entity, null, cell);
+			} else if (entry.cell != cell) {
+				move(entity, entry.cell, cell);
+				entry.cell = cell;
+			}
+			entry.update = update;
+		}
+
+		for (Iterator<Map.Entry<Entity, Tracked>> it = tracked.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<Entity, Tracked> entry = it.next();
+			if (entry.getValue().update == update) continue;
+			move(entry.getKey(), entry.getValue().cell, null);
+			it.remove();
+		}
+	}
+
+	// Moves the entity between the cells, either of which may be null.
+	private void move(Entity entity, Cell from, Cell to) {
+		if (from != null) {
+			from.entities.remove(entity);
+			for (Subscriber subscriber : from.subscribers)
+				if (to == null || !to.subscribers.contains(subscriber)) subscriber.entityLeft(entity);
+			trim(from);
+		}
+
+		if (to != null) {
+			to.entities.add(entity);
+			for (Subscriber subscriber : to.subscribers)
+				if (from == null || !from.subscribers.contains(subscriber)) subscriber.entityEntered(entity);
+		}
+	}
+
+	/**
+	 * Subscribes to the cells around a tile, unsubscribing from the cells of the previous view which are not in it.
+	 * Nothing happens if the view does not change cells.
+	 * @param radius in cells around the cell of the tile
+	 */
+	public void setView(Subscriber subscriber, int xt, int yt, int radius) {
+		int x = Math.floorDiv(xt, CELL_SIZE), y = Math.floorDiv(yt, CELL_SIZE);
+		View previous = views.get(subscriber);
+		if (previous != null && previous.x == x && previous.y == y && previous.radius == radius) return;
+
+		View view = new View(x, y, radius);
+		views.put(subscriber, view);
+		if (previous != null) forEachCell(previous, (cellX, cellY) -> {
+			if (!view.contains(cellX, cellY)) unsubscribe(subscriber, cellX, cellY);
+		});
+		forEachCell(view, (cellX, cellY) -> {
+			if (previous == null || !previous.contains(cellX, cellY)) subscribe(subscriber, cellX, cellY);
+		});
+	}
+
+	/** Unsubscribes from all the cells, as the subscriber leaves the level. */
+	public void removeView(Subscriber subscriber) {
+		View view = views.remove(subscriber);
+		if (view != null) forEachCell(view, (cellX, cellY) -> unsubscribe(subscriber, cellX, cellY));
+	}
+
+	private interface CellConsumer {
+		void accept(int cellX, int cellY);
+	}
+
+	private static void forEachCell(View view, CellConsumer action) {
+		for (int y = view.y - view.radius; y <= view.y + view.radius; y++)
+			for (int x = view.x - view.radius; x <= view.x + view.radius; x++)
+				action.accept(x, y);
+	}
+
+	private void subscribe(Subscriber subscriber, int cellX, int cellY) {
+		Cell cell = getCell(cellX, cellY);
+		cell.subscribers.add(subscriber);
+		for (Entity entity : cell.entities)
+			subscriber.entityEntered(entity);
+	}
+
+	private void unsubscribe(Subscriber subscriber, int cellX, int cellY) {
+		Cell cell = cells.get(ChunkTickets.key(cellX, cellY));
+		if (cell == null) return;
+		cell.subscribers.remove(subscriber);
+		for (Entity entity : cell.entities)
+			subscriber.entityLeft(entity);
+		trim(cell);
+	}
+
+	/** Tells the subscribers of the cell of the tile. */
+	@Override
+	public void tileChanged(Level level, int x, int y) {
+		Cell cell = cellAt(x, y);
+		if (cell == null) return;
+		for (Subscriber subscriber : cell.subscribers)
+			subscriber.tileChanged(level, x, y);
+	}
+
+	/** @return the number of subscribers of the cell of the tile */
+	public int getSubscriberCount(int xt, int yt) {
+		Cell cell = cellAt(xt, yt);
+		return cell == null ? 0 : cell.subscribers.size();
+	}
+}
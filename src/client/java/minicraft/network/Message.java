@@ -0,0 +1,65 @@
+package minicraft.network;
+
+import minicraft.network.MinicraftProtocol.InputType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A received message: its type, and the payload to be read in the order it was written by a {@link PayloadWriter}.
+ * Reading past the end of the payload throws a {@link BufferUnderflowException}.
+ */
+public class Message {
+	public final InputType type;
+	private final ByteBuffer payload;
+
+	Message(InputType type, byte[] payload) {
+		this.type = type;
+		this.payload = ByteBuffer.wrap(payload);
+	}
+
+	/** @return the number of bytes left to be read */
+	public int remaining() {
+		return payload.remaining();
+	}
+
+	public int getByte() {
+		return payload.get();
+	}
+
+	public boolean getBoolean() {
+		return payload.get() != 0;
+	}
+
+	public int getShort() {
+		return payload.getShort();
+	}
+
+	public int getInt() {
+		return payload.getInt();
+	}
+
+	public long getLong() {
+		return payload.getLong();
+	}
+
+	public byte[] getBytes(int count) {
+		byte[] bytes = new byte[count];
+		payload.get(bytes);
+		return bytes;
+	}
+
+	public String getString() {
+		int length = payload.getShort() & 0xFFFF;
+		if (length > payload.remaining()) throw new BufferUnderflowException();
+		String value = new String(payload.array(), payload.position(), length, StandardCharsets.UTF_8);
+		payload.position(payload.position() + length);
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return type + " (" + payload.limit() + " bytes)";
+	}
+}
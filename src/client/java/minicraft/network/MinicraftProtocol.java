@@ -4,16 +4,26 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * The protocol between the dedicated server and its clients, over TCP.
+ * <p>
+ * Each message is framed as a big-endian {@code int} length, followed by that many bytes: the ordinal of the
+ * {@link InputType}, as a byte, and the payload. Strings in the payloads are written as an unsigned {@code short}
+ * length and that many bytes of UTF-8; see {@link PayloadWriter} and {@link Message}.
+ */
 public interface MinicraftProtocol {
 
 	int PORT = 4225;
 
+	/** The maximum length of a message after the length prefix, including the type. Longer messages close the connection. */
+	int MAX_MESSAGE_LENGTH = 1 << 20;
+
 	enum InputType {
-		INVALID, PING, USERNAMES, LOGIN, GAME, INIT, LOAD, TILES, ENTITIES, TILE, ENTITY, PLAYER, MOVE, ADD, REMOVE, DISCONNECT, SAVE, NOTIFY, INTERACT, PUSH, PICKUP, CHESTIN, CHESTOUT, ADDITEMS, BED, POTION, HURT, DIE, RESPAWN, DROP, STAMINA, SHIRT, STOPFISHING;
+		INVALID, PING, USERNAMES, LOGIN, GAME, INIT, LOAD, TILES, ENTITIES, TILE, ENTITY, PLAYER, MOVE, ADD, REMOVE, DISCONNECT, SAVE, NOTIFY, INTERACT, PUSH, PICKUP, CHESTIN, CHESTOUT, ADDITEMS, BED, POTION, HURT, DIE, RESPAWN, DROP, STAMINA, SHIRT, STOPFISHING, ACK;
 
 		public static final InputType[] VALUES = InputType.values();
 		public static final List<InputType> SERVER_ONLY = Arrays.asList(INIT, TILES, ENTITIES, ADD, REMOVE, HURT, GAME, ADDITEMS, STAMINA, STOPFISHING);
-		public static final List<InputType> ENTITY_UPDATES = Arrays.asList(ENTITY, ADD, REMOVE);
+		public static final List<InputType> ENTITY_UPDATES = Arrays.asList(ENTITIES, ENTITY, ADD, REMOVE);
 		public static final List<InputType> TILE_UPDATES = Collections.singletonList(TILE);
 	}
 }
@@ -6,11 +6,13 @@ import kong.unirest.Unirest;
 import kong.unirest.UnirestException;
 import minicraft.core.Action;
 import minicraft.core.Game;
+import minicraft.core.LevelTicker;
 import minicraft.saveload.Version;
 import minicraft.core.VersionInfo;
 import minicraft.entity.Entity;
 import minicraft.level.Level;
 import minicraft.util.Logging;
+import minicraft.util.MyUtils;
 import org.jetbrains.annotations.Nullable;
 import org.json.JSONObject;
 import kong.unirest.json.JSONArray;
@@ -21,7 +23,7 @@ public class Network extends Game {
 	private Network() {
 	}
 
-	private static final Random RANDOM = new Random();
+	private static final Random RANDOM = MyUtils.newRandom();
 
 	private static VersionInfo latestVersion = null;
 
@@ -37,8 +39,8 @@ public class Network extends Game {
 			try {
 				HttpResponse<JsonNode> response = Unirest.get("https://api.github.com/repositories/83168941/releases").asJson();
 				if (response.getStatus() != 200) {
-					Logging.NETWORK.error("Version request returned status code " + response.getStatus() + ": " + response.getStatusText());
-					Logging.NETWORK.error("Response body: " + response.getBody());
+					Logging.NETWORK.error("Version request returned status code {}: {}", response.getStatus(), response.getStatusText());
+					Logging.NETWORK.error("Response body: {}", response.getBody());
 					latestVersion = new VersionInfo(VERSION, "", "");
 				} else {
 					JSONArray versions = response.getBody().getArray();
@@ -78,6 +80,9 @@ public class Network extends Game {
 	}
 
 	public static int generateUniqueEntityId() {
+		Level ticking = LevelTicker.getTickingLevel();
+		if (ticking != null) return ticking.newEntityId(); // The other levels may be ticking meanwhile.
+
 		int eid;
 		int tries = 0; // Just in case it gets out of hand.
 		do {
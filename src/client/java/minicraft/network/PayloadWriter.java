@@ -0,0 +1,91 @@
+package minicraft.network;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Builds the payload of a {@link Message}. A writer grows as needed and can be reused after {@link #reset()},
+ * so that sending messages does not allocate once it is large enough.
+ */
+public class PayloadWriter {
+	private byte[] bytes;
+	private int length = 0;
+
+	public PayloadWriter() {
+		this(256);
+	}
+
+	public PayloadWriter(int capacity) {
+		bytes = new byte[capacity];
+	}
+
+	/** Clears the payload, keeping the buffer. */
+	public PayloadWriter reset() {
+		length = 0;
+		return this;
+	}
+
+	public int length() {
+		return length;
+	}
+
+	private void ensure(int extra) {
+		if (length + extra > bytes.length)
+			bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+	}
+
+	public PayloadWriter putByte(int value) {
+		ensure(1);
+		bytes[length++] = (byte) value;
+		return this;
+	}
+
+	public PayloadWriter putBoolean(boolean value) {
+		return putByte(value ? 1 : 0);
+	}
+
+	public PayloadWriter putShort(int value) {
+		ensure(2);
+		bytes[length++] = (byte) (value >> 8);
+		bytes[length++] = (byte) value;
+		return this;
+	}
+
+	public PayloadWriter putInt(int value) {
+		ensure(4);
+		bytes[length++] = (byte) (value >> 24);
+		bytes[length++] = (byte) (value >> 16);
+		bytes[length++] = (byte) (value >> 8);
+		bytes[length++] = (byte) value;
+		return this;
+	}
+
+	public PayloadWriter putLong(long value) {
+		putInt((int) (value >> 32));
+		return putInt((int) value);
+	}
+
+	public PayloadWriter putBytes(byte[] value, int offset, int count) {
+		ensure(count);
+		System.arraycopy(value, offset, bytes, length, count);
+		length += count;
+		return this;
+	}
+
+	/**
+	 * Writes a string as an unsigned short length and the UTF-8 bytes.
+	 * @throws IllegalArgumentException if the string is longer than 65535 bytes in UTF-8
+	 */
+	public PayloadWriter putString(String value) {
+		byte[] utf = value.getBytes(StandardCharsets.UTF_8);
+		if (utf.length > 0xFFFF) throw new IllegalArgumentException("String too long for a payload: " + utf.length + " bytes");
+		putShort(utf.length);
+		return putBytes(utf, 0, utf.length);
+	}
+
+	/** Copies the payload into the buffer, which must have enough room. */
+	void writeTo(ByteBuffer buffer) {
+		buffer.put(bytes, 0, length);
+	}
+}
@@ -740,6 +740,9 @@ public class Load {
 		Settings.set("fps", json.getInt("fps"));
 		Settings.set("showquests", json.optBoolean("showquests", true));
 		if (json.has("hwa")) Settings.set("hwa", json.getBoolean("hwa")); // Default should have been configured
+		if (json.has("screenshotCompression")) Settings.set("screenshotcompression", json.getInt("screenshotCompression"));
+		if (json.has("simulationDistance")) Settings.set("simulationdistance", json.getInt("simulationDistance"));
+		if (json.has("viewDistance")) Settings.set("viewdistance", json.getInt("viewDistance"));
 
 		if (partialLoad) return; // Partial loading only loads basic settings.
 
@@ -831,7 +834,7 @@ public class Load {
 						if (Tiles.oldids.get(tileID) != null)
 							tileName = Tiles.oldids.get(tileID);
 						else {
-							Logging.SAVELOAD.warn("Tile list doesn't contain tile " + tileID);
+							Logging.SAVELOAD.warn("Tile list doesn't contain tile {}", tileID);
 							tileName = "grass";
 						}
 					}
@@ -1010,6 +1013,13 @@ public class Load {
 				}
 				map.setChunkStage(c.x, c.y, ChunkManager.CHUNK_STAGE_DONE);
 			}
+			for (Point c : chunks)
+				curLevel.fluids.chunkLoaded(c.x, c.y);
+
+			if (new File(location + filename + lvlIDx + "/scheduled" + EXTENSION).exists()) { // Since the scheduled ticks.
+				loadFromFile(location + filename + lvlIDx + "/scheduled" + EXTENSION, data);
+				curLevel.scheduledTicks.load(data);
+			}
 
 			if (Logging.logLevel) curLevel.printTileLocs(Tiles.get("Stairs Down"));
 
@@ -1177,7 +1187,7 @@ public class Load {
 				cols[i] = Integer.parseInt(color[i]) / 50;
 
 			String col = "" + cols[0] + cols[1] + cols[2];
-			Logging.SAVELOAD.debug("Getting color as " + col);
+			Logging.SAVELOAD.debug("Getting color as {}", col);
 			player.shirtColor = Integer.parseInt(col);
 		} else if (worldVer.compareTo(new Version("2.0.6-dev4")) < 0) {
 			String color = data.remove(0);
@@ -1430,7 +1440,7 @@ public class Load {
 				enemyMob.lvl = Integer.parseInt(info.get(info.size() - 2));
 
 				if (enemyMob.lvl == 0) {
-					Logging.SAVELOAD.debug("Level 0 mob: " + entityName);
+					Logging.SAVELOAD.debug("Level 0 mob: {}", entityName);
 					enemyMob.lvl = 1;
 				} else if (enemyMob.lvl > enemyMob.getMaxLevel()) {
 					enemyMob.lvl = enemyMob.getMaxLevel();
@@ -1600,7 +1610,7 @@ public class Load {
 			case "Boat":
 				return new Boat(Direction.NONE);
 			default:
-				Logging.SAVELOAD.error("LOAD ERROR: Unknown or outdated entity requested: " + string);
+				Logging.SAVELOAD.error("LOAD ERROR: Unknown or outdated entity requested: {}", string);
 				return null;
 		}
 	}
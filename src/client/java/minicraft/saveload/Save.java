@@ -1,6 +1,7 @@
 package minicraft.saveload;
 
 import minicraft.core.Game;
+import minicraft.core.Metrics;
 import minicraft.core.Renderer;
 import minicraft.core.Updater;
 import minicraft.core.World;
@@ -80,14 +81,14 @@ public class Save {
 		if (worldFolder.getParent().equals("saves")) {
 			String worldName = worldFolder.getName();
 			if (!worldName.toLowerCase().equals(worldName)) {
-				Logging.SAVELOAD.debug("Renaming world in " + worldFolder + " to lowercase");
+				Logging.SAVELOAD.debug("Renaming world in {} to lowercase", worldFolder);
 				String path = worldFolder.toString();
 				path = path.substring(0, path.lastIndexOf(worldName));
 				File newFolder = new File(path + worldName.toLowerCase());
 				if (worldFolder.renameTo(newFolder))
 					worldFolder = newFolder;
 				else
-					Logging.SAVELOAD.error("Failed to rename world folder " + worldFolder + " to " + newFolder);
+					Logging.SAVELOAD.error("Failed to rename world folder {} to {}", worldFolder, newFolder);
 			}
 		}
 
@@ -103,12 +104,14 @@ public class Save {
 	 */
 	public Save(String worldname) {
 		this(new File(Game.gameDir + "/saves/" + worldname + "/"));
+		long start = System.nanoTime();
 
 		writeGame("Game");
 		writeWorld("Level");
 		writePlayer("Player", Game.player);
 		writeInventory("Inventory", Game.player);
 		writeEntities("Entities");
+		Metrics.SAVE_TIME.record(System.nanoTime() - start);
 
 		WorldSelectDisplay.updateWorlds();
 
@@ -240,6 +243,9 @@ public class Save {
 		json.put("resourcePacks", new JSONArray(ResourcePackDisplay.getLoadedPacks()));
 		json.put("showquests", String.valueOf(Settings.get("showquests")));
 		json.put("hwa", String.valueOf(Settings.get("hwa")));
+		json.put("screenshotCompression", String.valueOf(Settings.get("screenshotcompression")));
+		json.put("simulationDistance", String.valueOf(Settings.get("simulationdistance")));
+		json.put("viewDistance", String.valueOf(Settings.get("viewdistance")));
 
 		// Save json
 		try {
@@ -303,6 +309,7 @@ public class Save {
 				writeToFile(location + filename + l + "/t." + String.valueOf(p.x) + "." + String.valueOf(p.y) + extension, tiles);
 			}
 			writeToFile(location + filename + l + "/index" + extension, index);
+			writeToFile(location + filename + l + "/scheduled" + extension, World.levels[l].scheduledTicks.save());
 		}
 
 		{ // Advancements
@@ -468,7 +475,7 @@ public class Save {
 
 		int depth = 0;
 		if (e.getLevel() == null)
-			Logging.SAVELOAD.warn("Saving entity with no level reference: " + e + "; setting level to surface");
+			Logging.SAVELOAD.warn("Saving entity with no level reference: {}; setting level to surface", e);
 		else
 			depth = e.getLevel().depth;
 
@@ -1,6 +1,7 @@
 package minicraft.screen;
 
 import minicraft.core.Game;
+import minicraft.core.LevelTicker;
 import minicraft.core.io.InputHandler;
 import minicraft.core.io.Localization;
 import minicraft.core.io.Sound;
@@ -149,6 +150,11 @@ public class AchievementsDisplay extends Display {
 	}
 
 	private static boolean setAchievement(String id, boolean unlocked, boolean save, boolean allowCreative) {
+		if (LevelTicker.getTickingLevel() != null) { // Set once the levels are done ticking, as they may tick in parallel.
+			LevelTicker.runAfterLevels(() -> setAchievement(id, unlocked, save, allowCreative));
+			return false;
+		}
+
 		Achievement a = ACHIEVEMENTS.get(id);
 
 		// Return if it is in creative mode
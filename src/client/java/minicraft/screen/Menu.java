@@ -10,6 +10,7 @@ import minicraft.gfx.Insets;
 import minicraft.gfx.MinicraftImage;
 import minicraft.gfx.Point;
 import minicraft.gfx.Rectangle;
+import minicraft.gfx.RetainedWidget;
 import minicraft.gfx.Screen;
 import minicraft.gfx.SpriteLinker.LinkedSprite;
 import minicraft.gfx.SpriteLinker.SpriteType;
@@ -21,13 +22,25 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public class Menu {
 
 	private static final int LIMIT_TYPING_SEARCHER = 22;
 
+	// Frames only depend on their size, so they are shared by all menus; the least recently drawn sizes are dropped.
+	private static final int FRAME_CACHE_SIZE = 32;
+	private static final LinkedSprite frameSheet = new LinkedSprite(SpriteType.Gui, "hud");
+	private static final LinkedHashMap<Long, CachedFrame> frameCache = new LinkedHashMap<Long, CachedFrame>(16, .75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, CachedFrame> eldest) {
+			return size() > FRAME_CACHE_SIZE;
+		}
+	};
+
 	@NotNull
 	private final ArrayList<ListEntry> entries = new ArrayList<>();
 
@@ -415,19 +428,37 @@ public class Menu {
 
 	private void renderFrame(Screen screen) {
 		if (!hasFrame) return;
+		int width = bounds.getWidth(), height = bounds.getHeight();
+		if (width < MinicraftImage.BOX_WIDTH || height < MinicraftImage.BOX_WIDTH) return; // Nothing would be drawn.
+
+		CachedFrame frame = frameCache.computeIfAbsent((long) width << 32 | height, k -> new CachedFrame(width, height));
+		frame.widget.render(screen, bounds.getLeft(), bounds.getTop(), 0, frame.painter);
+	}
+
+	/** A frame of a certain size, painted at the top left corner of its widget. */
+	private static class CachedFrame {
+		private final RetainedWidget widget;
+		private final RetainedWidget.Painter painter;
+
+		private CachedFrame(int width, int height) {
+			widget = new RetainedWidget(width, height);
+			painter = screen -> paintFrame(screen, width, height);
+		}
+	}
 
-		int bottom = bounds.getBottom() - MinicraftImage.BOX_WIDTH;
-		int right = bounds.getRight() - MinicraftImage.BOX_WIDTH;
+	private static void paintFrame(Screen screen, int width, int height) {
+		int bottom = height - MinicraftImage.BOX_WIDTH;
+		int right = width - MinicraftImage.BOX_WIDTH;
 
-		for (int y = bounds.getTop(); y <= bottom; y += MinicraftImage.BOX_WIDTH) { // loop through the height of the bounds
-			for (int x = bounds.getLeft(); x <= right; x += MinicraftImage.BOX_WIDTH) { // loop through the width of the bounds
+		for (int y = 0; y <= bottom; y += MinicraftImage.BOX_WIDTH) { // loop through the height of the bounds
+			for (int x = 0; x <= right; x += MinicraftImage.BOX_WIDTH) { // loop through the width of the bounds
 
-				boolean xend = x == bounds.getLeft() || x == right;
-				boolean yend = y == bounds.getTop() || y == bottom;
+				boolean xend = x == 0 || x == right;
+				boolean yend = y == 0 || y == bottom;
 				int spriteoffset = (xend && yend ? 0 : (yend ? 1 : (xend ? 2 : 3))); // determines which sprite to use
 				int mirrors = (x == right ? 1 : 0) + (y == bottom ? 2 : 0); // gets mirroring
 
-				screen.render(x, y, spriteoffset, 6, mirrors, hudSheet.getSheet());
+				screen.render(x, y, spriteoffset, 6, mirrors, frameSheet.getSheet());
 
 				if (x < right && x + MinicraftImage.BOX_WIDTH > right)
 					x = right - MinicraftImage.BOX_WIDTH;
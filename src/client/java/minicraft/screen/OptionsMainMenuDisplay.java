@@ -18,6 +18,9 @@ public class OptionsMainMenuDisplay extends Display {
 			Settings.getEntry("sound"),
 			Settings.getEntry("showquests"),
 			Settings.getEntry("hwa"),
+			Settings.getEntry("screenshotcompression"),
+			Settings.getEntry("simulationdistance"),
+			Settings.getEntry("viewdistance"),
 			new SelectEntry("minicraft.display.options_display.change_key_bindings", () -> Game.setDisplay(new KeyInputDisplay())),
 			new SelectEntry("minicraft.displays.controls", () -> Game.setDisplay(new ControlsDisplay())),
 			new SelectEntry("minicraft.display.options_display.language", () -> Game.setDisplay(new LanguageSettingsDisplay())),
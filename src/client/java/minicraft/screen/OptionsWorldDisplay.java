@@ -85,6 +85,8 @@ public class OptionsWorldDisplay extends Display {
 			Settings.getEntry("sound"),
 			Settings.getEntry("autosave"),
 			Settings.getEntry("hwa"),
+			Settings.getEntry("simulationdistance"),
+			Settings.getEntry("viewdistance"),
 			new SelectEntry("minicraft.display.options_display.change_key_bindings", () -> Game.setDisplay(new KeyInputDisplay())),
 			new SelectEntry("minicraft.displays.controls", () -> Game.setDisplay(new ControlsDisplay())),
 			new SelectEntry("minicraft.display.options_display.language", () -> Game.setDisplay(new LanguageSettingsDisplay())),
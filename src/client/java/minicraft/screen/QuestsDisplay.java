@@ -503,6 +503,7 @@ public class QuestsDisplay extends Display {
 					menu.render(screen);
 				Arrays.fill(rasterPixels, Color.BLACK);
 				renderRaster();
+				image.updatePackedPixels();
 				// Border
 				screen.drawRect(rasterX - 1, rasterY - 1, rasterWidth + 2, rasterHeight + 2, Color.WHITE);
 				screen.render(rasterX, rasterY, 0, 0, rasterWidth, rasterHeight, image);
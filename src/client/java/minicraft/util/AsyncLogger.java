@@ -0,0 +1,246 @@
+package minicraft.util;
+
+import org.tinylog.Level;
+import org.tinylog.configuration.Configuration;
+import org.tinylog.format.AdvancedMessageFormatter;
+import org.tinylog.format.MessageFormatter;
+import org.tinylog.provider.InternalLogger;
+import org.tinylog.provider.LoggingProvider;
+import org.tinylog.provider.ProviderRegistry;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A tagged logger which only records the log calls into a bounded ring buffer; formatting and writing the messages
+ * are left to a writer thread, so that logging does not hold up the game thread. Recording a message with up to two
+ * arguments does not allocate, as long as the arguments are immutable values.
+ * <p>
+ * Other arguments are converted into strings when recorded, as they may change before the message is written.
+ * {@link Supplier} messages and arguments are only evaluated if the level is enabled.
+ * When the buffer is full, messages are dropped and counted, and the count is logged once there is room again.
+ * <p>
+ * The caller location is not recorded, so log formats showing the method or the line do not show them for these loggers.
+ */
+public final class AsyncLogger {
+	private static final int CAPACITY = 4096; // A power of two.
+	private static final long IDLE_NANOS = 2_000_000; // How long the writer waits when there is nothing to write.
+	private static final MessageFormatter FORMATTER = new AdvancedMessageFormatter(Configuration.getLocale(), Configuration.isEscapingEnabled());
+
+	// A recorded log call. The sequence tells whether the slot is free or filled, for the position in the buffer.
+	private static class Slot {
+		private volatile long sequence;
+		private long millis;
+		private Thread thread;
+		private String tag;
+		private Level level;
+		private Throwable exception;
+		private String message;
+		private int argumentCount;
+		private Object[] arguments = new Object[2]; // Of the slot, grown for calls with more arguments.
+	}
+
+	/*
+	 * A bounded multi-producer queue: producers claim positions from the tail, and the writer reads from the head.
+	 * Slot i starts with sequence i, meaning free for position i; it is set to position + 1 once filled,
+	 * and to position + CAPACITY once written, which frees it for the next round.
+	 */
+	private static final Slot[] SLOTS = new Slot[CAPACITY];
+	private static final AtomicLong tail = new AtomicLong();
+	private static long head = 0; // Guarded by the class lock.
+	private static final AtomicLong dropped = new AtomicLong();
+	private static long droppedReported = 0;
+
+	static {
+		for (int i = 0; i < CAPACITY; i++) {
+			SLOTS[i] = new Slot();
+			SLOTS[i].sequence = i;
+		}
+
+		Thread writer = new Thread(AsyncLogger::runWriter, "Async Log Writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	private final String tag;
+
+	public AsyncLogger(String tag) {
+		this.tag = tag;
+	}
+
+	public String getTag() {
+		return tag;
+	}
+
+	/** @return the number of messages dropped since the start, because the buffer was full */
+	public static long getDroppedCount() {
+		return dropped.get();
+	}
+
+	public boolean isEnabled(Level level) {
+		LoggingProvider provider = ProviderRegistry.getLoggingProvider();
+		if (provider instanceof TinylogLoggingProvider)
+			return ((TinylogLoggingProvider) provider).isEnabled(tag, level);
+		return provider.getMinimumLevel(tag).ordinal() <= level.ordinal();
+	}
+
+	public boolean isTraceEnabled() { return isEnabled(Level.TRACE); }
+	public boolean isDebugEnabled() { return isEnabled(Level.DEBUG); }
+
+	public void trace(String message) { record(Level.TRACE, null, message, 0, null, null, null); }
+	public void trace(String message, Object argument) { record(Level.TRACE, null, message, 1, argument, null, null); }
+	public void trace(String message, Object argument1, Object argument2) { record(Level.TRACE, null, message, 2, argument1, argument2, null); }
+	public void trace(String message, Object... arguments) { record(Level.TRACE, null, message, arguments.length, null, null, arguments); }
+	public void trace(Supplier<String> message) { record(Level.TRACE, null, message); }
+	public void trace(Throwable exception, String message) { record(Level.TRACE, exception, message, 0, null, null, null); }
+	public void trace(Throwable exception, String message, Object... arguments) { record(Level.TRACE, exception, message, arguments.length, null, null, arguments); }
+
+	public void debug(String message) { record(Level.DEBUG, null, message, 0, null, null, null); }
+	public void debug(String message, Object argument) { record(Level.DEBUG, null, message, 1, argument, null, null); }
+	public void debug(String message, Object argument1, Object argument2) { record(Level.DEBUG, null, message, 2, argument1, argument2, null); }
+	public void debug(String message, Object... arguments) { record(Level.DEBUG, null, message, arguments.length, null, null, arguments); }
+	public void debug(Supplier<String> message) { record(Level.DEBUG, null, message); }
+	public void debug(Throwable exception, String message) { record(Level.DEBUG, exception, message, 0, null, null, null); }
+	public void debug(Throwable exception, String message, Object... arguments) { record(Level.DEBUG, exception, message, arguments.length, null, null, arguments); }
+
+	public void info(String message) { record(Level.INFO, null, message, 0, null, null, null); }
+	public void info(String message, Object argument) { record(Level.INFO, null, message, 1, argument, null, null); }
+	public void info(String message, Object argument1, Object argument2) { record(Level.INFO, null, message, 2, argument1, argument2, null); }
+	public void info(String message, Object... arguments) { record(Level.INFO, null, message, arguments.length, null, null, arguments); }
+	public void info(Supplier<String> message) { record(Level.INFO, null, message); }
+	public void info(Throwable exception, String message) { record(Level.INFO, exception, message, 0, null, null, null); }
+	public void info(Throwable exception, String message, Object... arguments) { record(Level.INFO, exception, message, arguments.length, null, null, arguments); }
+
+	public void warn(String message) { record(Level.WARN, null, message, 0, null, null, null); }
+	public void warn(String message, Object argument) { record(Level.WARN, null, message, 1, argument, null, null); }
+	public void warn(String message, Object argument1, Object argument2) { record(Level.WARN, null, message, 2, argument1, argument2, null); }
+	public void warn(String message, Object... arguments) { record(Level.WARN, null, message, arguments.length, null, null, arguments); }
+	public void warn(Supplier<String> message) { record(Level.WARN, null, message); }
+	public void warn(Throwable exception, String message) { record(Level.WARN, exception, message, 0, null, null, null); }
+	public void warn(Throwable exception, String message, Object... arguments) { record(Level.WARN, exception, message, arguments.length, null, null, arguments); }
+
+	public void error(String message) { record(Level.ERROR, null, message, 0, null, null, null); }
+	public void error(String message, Object argument) { record(Level.ERROR, null, message, 1, argument, null, null); }
+	public void error(String message, Object argument1, Object argument2) { record(Level.ERROR, null, message, 2, argument1, argument2, null); }
+	public void error(String message, Object... arguments) { record(Level.ERROR, null, message, arguments.length, null, null, arguments); }
+	public void error(Supplier<String> message) { record(Level.ERROR, null, message); }
+	public void error(Throwable exception) { record(Level.ERROR, exception, null, 0, null, null, null); }
+	public void error(Throwable exception, String message) { record(Level.ERROR, exception, message, 0, null, null, null); }
+	public void error(Throwable exception, String message, Object... arguments) { record(Level.ERROR, exception, message, arguments.length, null, null, arguments); }
+
+	private void record(Level level, Throwable exception, Supplier<String> message) {
+		if (isEnabled(level)) record(level, exception, message.get(), 0, null, null, null);
+	}
+
+	private void record(Level level, Throwable exception, String message, int argumentCount,
+	                    Object argument1, Object argument2, Object[] arguments) {
+		if (!isEnabled(level)) return;
+
+		long position = tail.get();
+		Slot slot;
+		while (true) {
+			slot = SLOTS[(int) position & (CAPACITY - 1)];
+			long difference = slot.sequence - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) break;
+				position = tail.get();
+			} else if (difference < 0) { // The slot of the previous round is not written yet; full.
+				dropped.incrementAndGet();
+				return;
+			} else { // Claimed by another thread.
+				position = tail.get();
+			}
+		}
+
+		slot.millis = System.currentTimeMillis();
+		slot.thread = Thread.currentThread();
+		slot.tag = tag;
+		slot.level = level;
+		slot.exception = exception;
+		slot.message = message;
+		slot.argumentCount = argumentCount;
+		if (slot.arguments.length < argumentCount) slot.arguments = new Object[argumentCount];
+		if (arguments != null) {
+			for (int i = 0; i < argumentCount; i++)
+				slot.arguments[i] = freeze(arguments[i]); // The array of the caller is left as it is.
+		} else {
+			if (argumentCount > 0) slot.arguments[0] = freeze(argument1);
+			if (argumentCount > 1) slot.arguments[1] = freeze(argument2);
+		}
+		slot.sequence = position + 1; // Publishes the slot to the writer.
+	}
+
+	private static Object freeze(Object argument) {
+		if (argument instanceof Supplier) argument = ((Supplier<?>) argument).get();
+		if (argument == null || argument instanceof String || argument instanceof Number || argument instanceof Boolean ||
+			argument instanceof Character || argument instanceof Enum)
+			return argument;
+		return String.valueOf(argument);
+	}
+
+	private static void runWriter() {
+		while (true) {
+			if (!writeNext()) {
+				reportDropped();
+				LockSupport.parkNanos(IDLE_NANOS);
+			}
+		}
+	}
+
+	/**
+	 * Writes all the recorded messages. Called when the logging provider shuts down, before its writers are closed,
+	 * so that the last messages are not lost.
+	 */
+	public static void flush() {
+		while (writeNext()) ;
+		reportDropped();
+	}
+
+	// Returns false if there is nothing to write.
+	private static synchronized boolean writeNext() {
+		Slot slot = SLOTS[(int) head & (CAPACITY - 1)];
+		if (slot.sequence != head + 1) return false;
+
+		long millis = slot.millis;
+		Thread thread = slot.thread;
+		String tag = slot.tag;
+		Level level = slot.level;
+		Throwable exception = slot.exception;
+		String message = slot.message;
+		int count = slot.argumentCount;
+		Object[] arguments = count == 0 ? null : Arrays.copyOf(slot.arguments, count);
+
+		// Frees the slot, without keeping the references.
+		slot.thread = null;
+		slot.exception = null;
+		slot.message = null;
+		Arrays.fill(slot.arguments, 0, count, null);
+		slot.sequence = head + CAPACITY;
+		head++;
+
+		write(millis, thread, tag, level, exception, message, arguments);
+		return true;
+	}
+
+	private static void write(long millis, Thread thread, String tag, Level level, Throwable exception, String message, Object[] arguments) {
+		try {
+			LoggingProvider provider = ProviderRegistry.getLoggingProvider();
+			if (provider instanceof TinylogLoggingProvider)
+				((TinylogLoggingProvider) provider).outputRecorded(millis, thread, tag, level, exception, FORMATTER, message, arguments);
+			else
+				provider.log(AsyncLogger.class.getName(), tag, level, exception, FORMATTER, message, arguments);
+		} catch (RuntimeException e) { // A failing message should not stop the writer.
+			InternalLogger.log(Level.ERROR, e, "Failed to write a recorded log message");
+		}
+	}
+
+	private static synchronized void reportDropped() {
+		long count = dropped.get();
+		if (count == droppedReported) return;
+		write(System.currentTimeMillis(), Thread.currentThread(), "Logging", Level.WARN, null,
+			"{} log messages were dropped, as the log buffer was full.", new Object[] { count - droppedReported });
+		droppedReported = count;
+	}
+}
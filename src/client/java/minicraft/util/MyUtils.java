@@ -1,6 +1,11 @@
 package minicraft.util;
 
+import minicraft.core.LevelTicker;
+import minicraft.level.Level;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Random;
 
 public final class MyUtils {
 
@@ -21,6 +26,29 @@ public final class MyUtils {
 		return (int) (Math.random() * (max - min + 1)) + min;
 	}
 
+	@Nullable
+	private static Random randomSeeds = null; // Seeds the generators of a deterministic run.
+
+	/**
+	 * Makes the generators from {@link #newRandom()} seeded from the given seed, so that a run is reproducible
+	 * as long as the generators are created in the same order. Used by the headless simulation.
+	 * This should be called before any game object is created.
+	 */
+	public static void setRandomSeed(long seed) {
+		randomSeeds = new Random(seed);
+	}
+
+	/**
+	 * Creates a random number generator for the game objects, which should be used instead of {@code new Random()}.
+	 * @return the generator of {@link Level#newRandom()} while a level ticks; else an unseeded generator, or a seeded
+	 * one in a deterministic run
+	 */
+	public static Random newRandom() {
+		Level level = LevelTicker.getTickingLevel();
+		if (level != null) return level.newRandom();
+		return randomSeeds == null ? new Random() : new Random(randomSeeds.nextLong());
+	}
+
 	public static String plural(int num, String word) {
 		String p = num == 1 ? "" : "s";
 		return num + " " + word + p;
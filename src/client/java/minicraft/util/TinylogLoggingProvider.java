@@ -11,6 +11,7 @@ import org.tinylog.format.MessageFormatter;
 import org.tinylog.provider.ContextProvider;
 import org.tinylog.provider.InternalLogger;
 import org.tinylog.provider.LoggingProvider;
+import org.tinylog.runtime.LegacyTimestamp;
 import org.tinylog.runtime.RuntimeProvider;
 import org.tinylog.writers.ConsoleWriter;
 import org.tinylog.writers.FileWriter;
@@ -114,7 +115,7 @@ public class TinylogLoggingProvider implements LoggingProvider {
 
 	@Override
 	public Level getMinimumLevel(final String tag) {
-		return Level.TRACE; // All tags and levels are logged with writer2.
+		return Level.TRACE; // All tags and levels are logged with writer2Full.
 	}
 
 	@Override
@@ -122,6 +123,22 @@ public class TinylogLoggingProvider implements LoggingProvider {
 		return true; // Always enabled.
 	}
 
+	/**
+	 * Checks whether any of the current writers accepts the tag and the level.
+	 * Unlike {@link #isEnabled(int, String, Level)}, this follows the configuration, for {@link AsyncLogger}.
+	 */
+	boolean isEnabled(String tag, Level level) {
+		if (accepts(currentConsoleWriter, tag, level) || accepts(currentFileWriter, tag, level)) return true;
+		for (Writer writer : otherWriters)
+			if (accepts(writer, tag, level)) return true;
+		return false;
+	}
+
+	private boolean accepts(Writer writer, String tag, Level level) {
+		WriterConfig cfg = writers.get(writer);
+		return cfg.levels.contains(level) && cfg.tags.contains(tag);
+	}
+
 	@Override
 	public void log(final int depth, final String tag, final Level level, final Throwable exception, final MessageFormatter formatter,
 	                final Object obj, final Object... arguments) {
@@ -158,6 +175,7 @@ public class TinylogLoggingProvider implements LoggingProvider {
 
 	@Override
 	public void shutdown() throws InterruptedException {
+		AsyncLogger.flush(); // Before the writers close; a shutdown hook of its own could run after them.
 		if (writingThread == null) {
 			for (Writer writer : writers.keySet()) {
 				try {
@@ -181,10 +199,26 @@ public class TinylogLoggingProvider implements LoggingProvider {
 
 		LogEntry logEntry = TinylogLoggingConfiguration.createLogEntry(stackTraceElement, tag, level, exception, formatter,
 			obj, arguments, requiredLogEntryValues, context);
+		output(logEntry, tag, level);
+	}
+
+	/**
+	 * Outputs a log entry recorded by an {@link AsyncLogger}, with the time and the thread of the log call.
+	 * The caller location is not known; the class is given as {@link AsyncLogger}.
+	 */
+	void outputRecorded(long millis, Thread thread, String tag, Level level, Throwable exception, MessageFormatter formatter,
+	                    String message, Object[] arguments) {
+		String text = arguments == null || arguments.length == 0 ? message : formatter.format(message, arguments);
+		LogEntry logEntry = new LogEntry(new LegacyTimestamp(millis),
+			requiredLogEntryValues.contains(LogEntryValue.THREAD) ? thread : null,
+			requiredLogEntryValues.contains(LogEntryValue.CONTEXT) ? context.getMapping() : null,
+			AsyncLogger.class.getName(), "<unknown>", null, -1, tag, level, text, exception);
+		output(logEntry, tag, level);
+	}
 
+	private void output(LogEntry logEntry, String tag, Level level) {
 		Consumer<Writer> addToThread = writer -> {
-			WriterConfig cfg = writers.get(writer);
-			if (cfg.levels.contains(level) && cfg.tags.contains(tag))
+			if (accepts(writer, tag, level))
 				writingThread.add(writer, logEntry);
 		};
 
@@ -1,4 +1,241 @@
 package minicraft.core;
 
+import minicraft.core.io.Settings;
+import minicraft.level.RandomTicks;
+import minicraft.level.tile.Tile;
+import minicraft.network.MinicraftProtocol;
+import minicraft.network.MinicraftServer;
+import minicraft.saveload.Save;
+import minicraft.screen.WorldSelectDisplay;
+import minicraft.util.Logging;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The dedicated server: hosts a world without a window, ticking it at the normal rate, for the clients connected
+ * over the {@link MinicraftProtocol}. The world is loaded from the save directory, or created if it does not exist,
+ * and is saved periodically and on shutdown.
+ * <p>
+ * The player saved with the world is not played; it keeps the spawn point. The levels are ticked in parallel by the
+ * {@link LevelTicker}, each where its chunk tickets hold it ticking, as around its players. Remote players are not saved
+ * yet, and do not take the stairs.
+ * <p>
+ * Usage: {@code Server --world <name> [--port <port, default 4225>] [--max-players <count, default 8>]
+ * [--seed <seed>] [--size <128|256|512>] [--mode <survival|creative|hardcore|score>] [--autosave <minutes, default 5; 0 for never>]
+ * [--chunk-rate <KiB per second per client, default 256>] [--simulation-distance <chunks, 1 to 8, default 3>]
+ * [--view-distance <chunks, 1 to 8, default 3>] [--random-tick-budget <tiles per level per tick, default 20736>]
+ * [game arguments, like --savedir <dir>]}; the seed, the size and the mode only apply to new worlds.
+ * The simulation distance bounds the chunks ticked around each player, and so the time of a tick; the view distance
+ * the chunks loaded and sent to it. The random tick budget bounds the random ticks of the tiles of a level, shared by
+ * its chunks ticking past it (see {@link RandomTicks}).
+ */
 public class Server {
+	private Server() {}
+
+	/** The maximum time the loop catches up with in ticks after a stall; as in the game loop. */
+	private static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+
+	private static volatile boolean running = false;
+	private static volatile boolean stopRequested = false;
+	private static final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+	public static void main(String[] args) throws IOException {
+		String world = null;
+		int port = MinicraftProtocol.PORT;
+		int maxPlayers = 8;
+		Long seed = null;
+		int size = 256;
+		String mode = "survival";
+		int autosaveMinutes = 5;
+		int chunkRate = MinicraftServer.DEFAULT_CHUNK_RATE / 1024;
+		int simulationDistance = 3, viewDistance = 3;
+		int randomTickBudget = RandomTicks.DEFAULT_BUDGET;
+		List<String> gameArgs = new ArrayList<>();
+		boolean valid = true;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				boolean hasValue = i + 1 < args.length;
+				if (args[i].equalsIgnoreCase("--world") && hasValue) {
+					world = args[++i];
+				} else if (args[i].equalsIgnoreCase("--port") && hasValue) {
+					port = Integer.parseInt(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--max-players") && hasValue) {
+					maxPlayers = Integer.parseInt(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--seed") && hasValue) {
+					seed = Long.parseLong(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--size") && hasValue) {
+					size = Integer.parseInt(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--mode") && hasValue) {
+					mode = args[++i].toLowerCase();
+				} else if (args[i].equalsIgnoreCase("--autosave") && hasValue) {
+					autosaveMinutes = Integer.parseInt(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--chunk-rate") && hasValue) {
+					chunkRate = Integer.parseInt(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--simulation-distance") && hasValue) {
+					simulationDistance = Integer.parseInt(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--view-distance") && hasValue) {
+					viewDistance = Integer.parseInt(args[++i]);
+				} else if (args[i].equalsIgnoreCase("--random-tick-budget") && hasValue) {
+					randomTickBudget = Integer.parseInt(args[++i]);
+				} else {
+					gameArgs.add(args[i]);
+				}
+			}
+		} catch (NumberFormatException e) {
+			valid = false;
+		}
+
+		if (!valid || world == null || world.isEmpty() || port < 0 || port > 0xFFFF || maxPlayers < 1 || autosaveMinutes < 0 || chunkRate < 1 ||
+			simulationDistance < 1 || simulationDistance > 8 || viewDistance < 1 || viewDistance > 8 || randomTickBudget < 1 ||
+			size != 128 && size != 256 && size != 512 || !Arrays.asList("survival", "creative", "hardcore", "score").contains(mode)) {
+			System.err.println("Usage: Server --world <name> [--port <port>] [--max-players <count>] [--seed <seed>] " +
+				"[--size <128|256|512>] [--mode <survival|creative|hardcore|score>] [--autosave <minutes>] [--chunk-rate <KiB/s>] " +
+				"[--simulation-distance <chunks>] [--view-distance <chunks>] [--random-tick-budget <tiles>] [game arguments]");
+			System.exit(2);
+		}
+
+		startWorld(world, seed, size, mode, gameArgs.toArray(new String[0]));
+		Settings.set("simulationdistance", simulationDistance);
+		Settings.set("viewdistance", viewDistance);
+		RandomTicks.setBudget(randomTickBudget);
+		MinicraftServer server = MinicraftServer.open(new InetSocketAddress(port), maxPlayers);
+		server.setChunkRate(chunkRate * 1024);
+
+		Thread loop = Thread.currentThread();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			stop();
+			try {
+				loop.join(10_000); // Lets the loop save the world.
+			} catch (InterruptedException ignored) {
+			}
+		}, "Server Shutdown"));
+
+		run(server, autosaveMinutes * 60 * Updater.NORM_SPEED);
+	}
+
+	/**
+	 * Boots the game headless, and loads the world, or creates it if it does not exist.
+	 * @param seed the seed of a new world; {@code null} for a random one
+	 * @param size the size of a new world
+	 * @param mode the game mode of a new world, like {@code survival}
+	 * @param gameArgs the arguments of the game, like {@code --savedir <dir>}
+	 */
+	public static void startWorld(String worldName, @Nullable Long seed, int size, String mode, String[] gameArgs) {
+		HeadlessSimulation.boot(gameArgs);
+		Settings.set("size", size);
+		Settings.set("mode", "minicraft.settings.mode." + mode);
+		Settings.set("autosave", false); // Saved by the server loop instead.
+
+		WorldSelectDisplay.updateWorlds();
+		boolean exists = WorldSelectDisplay.getWorldNames().contains(worldName);
+		WorldSelectDisplay.setWorldName(worldName, exists);
+		Logging.WORLD.info("{} world {}.", exists ? "Loading" : "Creating", worldName);
+		World.initWorld(seed == null ? OptionalLong.empty() : OptionalLong.of(seed));
+
+		// The local player of the world is kept out of it, but is still saved, with the spawn point.
+		Game.levels[Game.currentLevel].remove(Game.player);
+		Updater.paused = false;
+		if (!exists) save();
+	}
+
+	/**
+	 * Runs the server loop on the current thread until {@link #stop()}: handles the network, and ticks the world
+	 * at {@link Updater#NORM_SPEED} ticks per second. The world is saved and the server closed at the end.
+	 * @param autosaveTicks the ticks between the saves; 0 not to save until the end
+	 */
+	public static void run(MinicraftServer server, int autosaveTicks) throws IOException {
+		running = true;
+		long tickNanos = 1_000_000_000L / Updater.NORM_SPEED;
+		long nextTick = System.nanoTime();
+		long lastSecond = nextTick;
+		int ticks = 0, ticksSinceSave = 0;
+		try {
+			while (!stopRequested) {
+				long wait = nextTick - System.nanoTime();
+				if (wait > 0) {
+					server.poll(Math.max(1, wait / 1_000_000));
+					continue;
+				}
+
+				server.poll(0);
+				if (-wait > MAX_CATCH_UP_NANOS) { // Drops the ticks instead of running them in a burst.
+					long dropped = -wait / tickNanos;
+					Metrics.DROPPED_TICKS.add(dropped);
+					nextTick += dropped * tickNanos;
+				}
+
+				long start = System.nanoTime();
+				tick(server);
+				Metrics.TICK_TIME.record(System.nanoTime() - start);
+				server.flush();
+				nextTick += tickNanos;
+				ticks++;
+
+				if (autosaveTicks > 0 && ++ticksSinceSave >= autosaveTicks) {
+					save();
+					ticksSinceSave = 0;
+				}
+
+				if (start - lastSecond >= 1_000_000_000L) {
+					Metrics.sample(ticks, 0);
+					ticks = 0;
+					lastSecond = start;
+				}
+			}
+		} finally {
+			server.close();
+			save();
+			running = false;
+		}
+	}
+
+	/** Stops the server loop, which then saves the world. */
+	public static void stop() {
+		stopRequested = true;
+	}
+
+	public static boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Runs a task on the server loop, before the next tick, so that it can change the world; from any thread.
+	 */
+	public static void runLater(Runnable task) {
+		tasks.add(task);
+	}
+
+	/**
+	 * Ticks the world, like {@link Updater#tick()} does for the local player, without the displays,
+	 * the sleeping, the score mode timer and the debug keys.
+	 */
+	static void tick(MinicraftServer server) {
+		Runnable task;
+		while ((task = tasks.poll()) != null) task.run();
+
+		Updater.gameTime++;
+		Updater.setTime(Updater.tickCount + 1);
+		server.tickInputs();
+
+		LevelTicker.tick(Game.levels, World.lvlIdx(0)); // The chunks held ticking, on all the levels.
+		Tile.tickCount++;
+
+		World.pendingLevelChange = 0; // Set by the players on stairs, for the local player.
+		World.onChangeAction = null;
+		server.endTick();
+	}
+
+	private static void save() {
+		long start = System.nanoTime();
+		new Save(WorldSelectDisplay.getWorldName());
+		Game.notifications.clear(); // Only shown by the renderer.
+		Logging.WORLD.info("Saved world {} in {}ms.", WorldSelectDisplay.getWorldName(), (System.nanoTime() - start) / 1_000_000);
+	}
 }
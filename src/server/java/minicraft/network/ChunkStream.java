@@ -0,0 +1,108 @@
+package minicraft.network;
+
+import minicraft.core.Metrics;
+import minicraft.entity.mob.Player;
+import minicraft.level.ChunkManager;
+import minicraft.level.Level;
+import minicraft.level.tile.Tile;
+import minicraft.network.MinicraftProtocol.InputType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * The chunks streamed to a client: sends the chunks around its player, the closest first, as far as the rate of the
+ * connection allows; then the changes of the tiles in the chunks sent, as {@code TILE} updates.
+ */
+class ChunkStream {
+	private final HashSet<Long> sent = new HashSet<>(); // The chunks of the level the client has.
+	private final LinkedHashSet<Long> changed = new LinkedHashSet<>(); // The tiles to send again, in the chunks sent.
+	private final ArrayList<long[]> candidates = new ArrayList<>(); // Reused: the distance and key of each chunk not sent.
+	private int depth = Integer.MIN_VALUE; // Of the level of the chunks sent.
+	private double allowance = 0; // The bytes the connection may still send now.
+	private long lastRefill = System.nanoTime();
+
+	private static long key(int x, int y) {
+		return (long) x << 32 | y & 0xFFFFFFFFL;
+	}
+
+	/** Sends all the chunks again, as the client has lost them. */
+	void reset() {
+		sent.clear();
+		changed.clear();
+	}
+
+	/** @return whether the client has the chunk of the tile, as it was sent to it */
+	boolean hasTile(Level level, int x, int y) {
+		return level.depth == depth && sent.contains(key(Math.floorDiv(x, ChunkManager.CHUNK_SIZE), Math.floorDiv(y, ChunkManager.CHUNK_SIZE)));
+	}
+
+	/** Notes that the tile changed, to be sent if the client has its chunk. */
+	void tileChanged(Level level, int x, int y) {
+		if (level.depth != depth) return;
+		if (sent.contains(key(Math.floorDiv(x, ChunkManager.CHUNK_SIZE), Math.floorDiv(y, ChunkManager.CHUNK_SIZE))))
+			changed.add(key(x, y));
+	}
+
+	/**
+	 * Sends the tiles changed, and the chunks the client does not have yet within the radius of its player.
+	 * @param bytesPerSecond the rate of the chunks; the tile updates are always sent, but count towards it
+	 * @param radius in chunks around the player
+	 */
+	void stream(Player player, Connection connection, PayloadWriter payload, ChunkCodec codec, int bytesPerSecond, int radius) {
+		long now = System.nanoTime();
+		allowance = Math.min(bytesPerSecond, allowance + bytesPerSecond * ((now - lastRefill) / 1e9));
+		lastRefill = now;
+
+		Level level = player.getLevel();
+		if (level.depth != depth) {
+			reset();
+			depth = level.depth;
+		}
+
+		for (long tile : changed) {
+			int x = (int) (tile >> 32), y = (int) tile;
+			payload.reset().putInt(depth).putInt(x).putInt(y).putShort(level.getTile(x, y).id).putShort(level.getData(x, y));
+			connection.send(InputType.TILE, payload);
+			allowance -= payload.length();
+			Metrics.TILE_UPDATES_SENT.increment();
+		}
+		changed.clear();
+
+		int xt = player.x >> Tile.TILE_SIZE_SHIFT, yt = player.y >> Tile.TILE_SIZE_SHIFT;
+		int cx = Math.floorDiv(xt, ChunkManager.CHUNK_SIZE), cy = Math.floorDiv(yt, ChunkManager.CHUNK_SIZE);
+
+		// Forgets the chunks left behind, a chunk further than the radius so that walking back and forth does not resend them.
+		for (Iterator<Long> it = sent.iterator(); it.hasNext(); ) {
+			long chunk = it.next();
+			if (Math.abs((int) (chunk >> 32) - cx) > radius + 1 || Math.abs((int) chunk - cy) > radius + 1) it.remove();
+		}
+
+		if (allowance <= 0) return;
+		candidates.clear();
+		for (int y = cy - radius; y <= cy + radius; y++) {
+			for (int x = cx - radius; x <= cx + radius; x++) {
+				if (sent.contains(key(x, y)) || level.chunkManager.getChunkStage(x, y) != ChunkManager.CHUNK_STAGE_DONE) continue;
+				// The distance from the tile of the player to the center of the chunk, squared.
+				long dx = x * ChunkManager.CHUNK_SIZE + ChunkManager.CHUNK_SIZE / 2 - xt;
+				long dy = y * ChunkManager.CHUNK_SIZE + ChunkManager.CHUNK_SIZE / 2 - yt;
+				candidates.add(new long[] { dx * dx + dy * dy, key(x, y) });
+			}
+		}
+		candidates.sort((a, b) -> Long.compare(a[0], b[0]));
+
+		for (long[] candidate : candidates) {
+			if (allowance <= 0) break; // The last chunk may go over the allowance, which is then caught up.
+			int x = (int) (candidate[1] >> 32), y = (int) candidate[1];
+			payload.reset().putInt(depth).putInt(x).putInt(y);
+			codec.encode(level.chunkManager, x, y, payload);
+			connection.send(InputType.TILES, payload);
+			sent.add(candidate[1]);
+			allowance -= payload.length();
+			Metrics.CHUNKS_SENT.increment();
+			Metrics.CHUNK_BYTES_SENT.add(payload.length());
+		}
+	}
+}
@@ -0,0 +1,306 @@
+package minicraft.network;
+
+import minicraft.core.Game;
+import minicraft.core.Server;
+import minicraft.core.World;
+import minicraft.level.ChunkManager;
+import minicraft.level.tile.Tile;
+import minicraft.level.tile.Tiles;
+import minicraft.network.MinicraftProtocol.InputType;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the dedicated server end to end over the loopback interface: starts a server with a new world in a temporary
+ * directory, connects clients to it, and checks the answers to their messages. Exits with 1 if a check fails.
+ * <p>
+ * Run by the {@code loopbackCheck} task of the server project, as part of {@code check}.
+ */
+public final class LoopbackCheck {
+	private LoopbackCheck() {}
+
+	private static final long TIMEOUT_MILLIS = 10_000;
+
+	private static int failures = 0;
+
+	/** A blocking client, for the checks. */
+	private static class Client implements AutoCloseable {
+		private final String name;
+		private final Connection connection;
+		private final List<Message> received = new ArrayList<>(); // Not expected yet.
+		private boolean closed = false;
+
+		private Client(String name, InetSocketAddress address) throws IOException {
+			this.name = name;
+			SocketChannel channel = SocketChannel.open(address);
+			channel.configureBlocking(false);
+			connection = new Connection(channel);
+		}
+
+		private void send(InputType type, @Nullable PayloadWriter payload) throws IOException {
+			connection.send(type, payload);
+			while (!connection.flush()) Thread.yield();
+		}
+
+		/** Waits for a message of the type, keeping the others; {@code null} on timeout or if the server closed the connection. */
+		@Nullable
+		private Message expect(InputType type) throws IOException, InterruptedException {
+			long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+			while (true) {
+				for (int i = 0; i < received.size(); i++)
+					if (received.get(i).type == type) return received.remove(i);
+				if (closed || System.currentTimeMillis() > deadline) return null;
+
+				if (!connection.read()) closed = true;
+				Message message;
+				while ((message = connection.poll()) != null) received.add(message);
+				Thread.sleep(2);
+			}
+		}
+
+		/** Waits for a notification starting with the text, skipping the others. */
+		private boolean expectNotification(String text) throws IOException, InterruptedException {
+			Message message;
+			while ((message = expect(InputType.NOTIFY)) != null)
+				if (message.getString().startsWith(text)) return true;
+			return false;
+		}
+
+		/** Waits until the server closes the connection. */
+		private boolean expectClosed() throws IOException, InterruptedException {
+			long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+			while (!closed && System.currentTimeMillis() <= deadline) {
+				if (!connection.read()) closed = true;
+				while (connection.poll() != null) ;
+				Thread.sleep(2);
+			}
+
+			return closed;
+		}
+
+		@Override
+		public void close() {
+			connection.close();
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Path saveDir = Files.createTempDirectory("minicraft-loopback");
+		Server.startWorld("loopback", 1L, 128, "survival", new String[] { "--savedir", saveDir.toString() });
+		MinicraftServer server = MinicraftServer.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+		InetSocketAddress address = server.getAddress();
+
+		Thread loop = new Thread(() -> {
+			try {
+				Server.run(server, 0);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}, "Server Loop");
+		loop.start();
+
+		PayloadWriter payload = new PayloadWriter();
+		String version = Game.VERSION.toString();
+		try (Client alice = new Client("alice", address); Client bob = new Client("bob", address)) {
+			// Before logging in.
+			alice.send(InputType.PING, payload.reset().putLong(0x0123456789ABCDEFL));
+			Message pong = alice.expect(InputType.PING);
+			check("PING is echoed", pong != null && pong.remaining() == 8 && pong.getLong() == 0x0123456789ABCDEFL);
+
+			alice.send(InputType.MOVE, payload.reset().putString("MOVE-UP").putBoolean(true));
+			Message invalid = alice.expect(InputType.INVALID);
+			check("MOVE is refused before logging in", invalid != null && invalid.getByte() == InputType.MOVE.ordinal());
+
+			try (Client old = new Client("old", address)) {
+				old.send(InputType.LOGIN, payload.reset().putString("old").putString("1.0.0"));
+				Message refused = old.expect(InputType.DISCONNECT);
+				check("LOGIN with another version is refused", refused != null && refused.getString().contains("version"));
+				check("the connection is closed after a refused login", old.expectClosed());
+			}
+
+			// Logging in.
+			alice.send(InputType.LOGIN, payload.reset().putString("alice").putString(version));
+			Message init = alice.expect(InputType.INIT);
+			check("LOGIN is answered by INIT", init != null && init.remaining() == 24);
+			int eid = init == null ? 0 : init.getInt();
+			check("the entities are replicated as deltas after a full snapshot", replicates(alice, eid, payload));
+
+			bob.send(InputType.LOGIN, payload.reset().putString("ALICE").putString(version));
+			check("a username in use is refused", bob.expect(InputType.DISCONNECT) != null);
+			try (Client bob2 = new Client("bob", address)) {
+				bob2.send(InputType.LOGIN, payload.reset().putString("bob").putString(version));
+				check("a second player logs in", bob2.expect(InputType.INIT) != null);
+				check("the others are notified of a new player", alice.expectNotification("bob joined"));
+
+				try (Client carol = new Client("carol", address)) {
+					carol.send(InputType.LOGIN, payload.reset().putString("carol").putString(version));
+					Message full = carol.expect(InputType.DISCONNECT);
+					check("LOGIN is refused when the server is full", full != null && full.getString().contains("full"));
+				}
+
+				alice.send(InputType.USERNAMES, null);
+				Message usernames = alice.expect(InputType.USERNAMES);
+				check("USERNAMES lists the players", usernames != null && usernames.getShort() == 2 &&
+					usernames.getString().equals("alice") && usernames.getString().equals("bob"));
+
+				// Playing.
+				check("the player moves with MOVE", moves(alice, payload));
+
+				check("the chunks are streamed, the closest first, with the changed tiles", streamsChunks(alice));
+				check("a full snapshot is sent again when asked for", resends(alice, eid, payload));
+
+				alice.send(InputType.ENTITY, payload.reset().putInt(eid));
+				Message entity = alice.expect(InputType.ENTITY);
+				check("ENTITY describes the player", entity != null && entity.getInt() == eid && entity.getString().equals("Player"));
+
+				alice.send(InputType.TILE, payload.reset().putInt(10).putInt(10));
+				Message tile = alice.expect(InputType.TILE);
+				check("TILE describes the tile", tile != null && tile.getInt() == 0 && tile.getInt() == 10 && tile.getInt() == 10);
+
+				alice.send(InputType.TILE, payload.reset().putInt(1_000_000).putInt(1_000_000));
+				invalid = alice.expect(InputType.INVALID);
+				check("TILE is refused out of the chunks sent", invalid != null && invalid.getByte() == InputType.TILE.ordinal());
+
+				alice.send(InputType.TILES, payload.reset());
+				invalid = alice.expect(InputType.INVALID);
+				check("messages only sent by the server are refused", invalid != null && invalid.getByte() == InputType.TILES.ordinal());
+
+				alice.send(InputType.NOTIFY, payload.reset().putString("hello"));
+				check("NOTIFY is sent to all the players", bob2.expectNotification("alice: hello"));
+
+				bob2.send(InputType.DISCONNECT, null);
+				check("the others are notified of a player leaving", alice.expectNotification("bob left"));
+			}
+
+			try (Client dave = new Client("dave", address)) {
+				dave.send(InputType.LOGIN, payload.reset().putString("dave").putString(version));
+				dave.expect(InputType.INIT);
+				dave.send(InputType.INVALID, payload.reset().putByte(0xFF));
+				Message refused = dave.expect(InputType.DISCONNECT);
+				check("INVALID of an unknown type is a protocol error", refused != null && refused.getString().contains("Unknown"));
+				check("the client is dropped after a protocol error", alice.expectNotification("dave left"));
+			}
+
+			alice.send(InputType.PING, payload.reset().putInt(1));
+			check("the server keeps running", alice.expect(InputType.PING) != null);
+		} finally {
+			Server.stop();
+			loop.join(TIMEOUT_MILLIS);
+		}
+
+		check("the server loop stops", !loop.isAlive());
+		check("the world is saved", Files.exists(Paths.get(Game.gameDir, "saves", "loopback", "Game.miniplussave")));
+
+		System.out.println(failures == 0 ? "All checks passed." : failures + " check(s) failed.");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	// Tries moving in each direction for half a second, as the player may stand next to a tree.
+	private static boolean moves(Client client, PayloadWriter payload) throws IOException, InterruptedException {
+		for (String action : RemoteClient.MOVE_ACTIONS) {
+			client.send(InputType.PLAYER, null);
+			Message before = client.expect(InputType.PLAYER);
+			client.send(InputType.MOVE, payload.reset().putString(action).putBoolean(true));
+			Thread.sleep(500);
+			client.send(InputType.MOVE, payload.reset().putString(action).putBoolean(false));
+			client.send(InputType.PLAYER, null);
+			Message after = client.expect(InputType.PLAYER);
+			if (before == null || after == null) return false;
+			if (before.getInt() != after.getInt() || before.getInt() != after.getInt()) return true;
+		}
+
+		return false;
+	}
+
+	// Asks for the chunks around the player again, checks they come the closest first, then changes a tile next to the player.
+	private static boolean streamsChunks(Client client) throws IOException, InterruptedException {
+		client.send(InputType.PLAYER, null);
+		Message player = client.expect(InputType.PLAYER);
+		if (player == null) return false;
+		int xt = player.getInt() >> Tile.TILE_SIZE_SHIFT, yt = player.getInt() >> Tile.TILE_SIZE_SHIFT;
+		int cx = Math.floorDiv(xt, ChunkManager.CHUNK_SIZE), cy = Math.floorDiv(yt, ChunkManager.CHUNK_SIZE);
+
+		ChunkManager chunks = new ChunkManager();
+		try (ChunkReceiver receiver = new ChunkReceiver(depth -> depth == 0 ? chunks : null)) {
+			client.received.removeIf(message -> message.type == InputType.TILES || message.type == InputType.TILE);
+			client.send(InputType.LOAD, null);
+			Message chunk = client.expect(InputType.TILES);
+			if (chunk == null || !receiver.receive(chunk)) return false;
+			receiver.awaitApplied();
+			if (chunks.getChunkCount() != 1 || chunks.getChunkStage(cx, cy) != ChunkManager.CHUNK_STAGE_DONE) return false;
+
+			for (int i = 1; i < 49; i++) {
+				if ((chunk = client.expect(InputType.TILES)) == null) return false;
+				receiver.receive(chunk);
+			}
+			receiver.awaitApplied();
+			if (chunks.getChunkCount() != 49) return false;
+
+			Tile tile = chunks.getTile(xt + 1, yt) == Tiles.get("Rock") ? Tiles.get("Dirt") : Tiles.get("Rock");
+			Server.runLater(() -> Game.levels[World.lvlIdx(0)].setTile(xt + 1, yt, tile));
+			Message update;
+			while ((update = client.expect(InputType.TILE)) != null) {
+				receiver.receive(update);
+				receiver.awaitApplied();
+				if (chunks.getTile(xt + 1, yt) == tile) return true;
+			}
+		}
+
+		return false;
+	}
+
+	// Receives the first update, a full snapshot, and then the deltas from the acknowledged snapshot.
+	private static boolean replicates(Client client, int eid, PayloadWriter payload) throws IOException, InterruptedException {
+		EntityReplication.Receiver receiver = new EntityReplication.Receiver();
+		Message full = client.expect(InputType.ENTITIES);
+		if (full == null) return false;
+		int fullLength = full.remaining();
+		int acknowledged = receiver.receive(full);
+		int index = receiver.getSnapshot().indexOf(eid);
+		if (acknowledged < 0 || index < 0 || !receiver.getSnapshot().getType(index).equals("Player")) return false;
+
+		client.send(InputType.ACK, payload.reset().putInt(acknowledged));
+		for (int i = 0; i < 3; i++) {
+			Message delta = client.expect(InputType.ENTITIES);
+			if (delta == null || delta.remaining() >= fullLength) return false;
+			int sequence = receiver.receive(delta);
+			if (sequence <= acknowledged || receiver.getSnapshot().indexOf(eid) < 0) return false;
+			client.send(InputType.ACK, payload.reset().putInt(acknowledged = sequence));
+		}
+
+		return true;
+	}
+
+	// Drops the snapshots received, and asks for a full one, as a client would after missing the baselines.
+	private static boolean resends(Client client, int eid, PayloadWriter payload) throws IOException, InterruptedException {
+		EntityReplication.Receiver receiver = new EntityReplication.Receiver();
+		Message update;
+		while ((update = client.expect(InputType.ENTITIES)) != null) {
+			int acknowledgement = receiver.receive(update);
+			if (acknowledgement != EntityReplication.Receiver.NO_ACK)
+				client.send(InputType.ACK, payload.reset().putInt(acknowledgement));
+			if (acknowledgement >= 0) return receiver.getSnapshot().indexOf(eid) >= 0;
+		}
+
+		return false;
+	}
+
+	private static void check(String description, boolean passed) {
+		System.out.println((passed ? "PASS: " : "FAIL: ") + description);
+		if (!passed) failures++;
+	}
+}
@@ -0,0 +1,527 @@
+package minicraft.network;
+
+import minicraft.core.Game;
+import minicraft.core.Metrics;
+import minicraft.core.Updater;
+import minicraft.core.World;
+import minicraft.entity.Entity;
+import minicraft.entity.mob.Mob;
+import minicraft.entity.mob.Player;
+import minicraft.level.ChunkManager;
+import minicraft.level.ChunkTickets;
+import minicraft.level.Level;
+import minicraft.level.tile.Tile;
+import minicraft.network.MinicraftProtocol.InputType;
+import minicraft.saveload.Save;
+import minicraft.saveload.Version;
+import minicraft.screen.WorldSelectDisplay;
+import minicraft.util.Logging;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The network side of the dedicated server: accepts clients on a non-blocking socket, reads their messages and
+ * answers them, all on the game thread, with a single {@link Selector}. The world is ticked by {@link minicraft.core.Server}.
+ * <p>
+ * The payloads, in the order written; the replies are sent to the client which sent the message:
+ * <ul>
+ *     <li>{@code PING}: anything, sent back as is.</li>
+ *     <li>{@code LOGIN}: username, version. Answered by {@code INIT}: player entity ID, depth, x, y, world size,
+ *     game time; or by {@code DISCONNECT}: reason.</li>
+ *     <li>{@code USERNAMES}: nothing. Answered by {@code USERNAMES}: count (short), usernames.</li>
+ *     <li>{@code LOAD}: nothing; the chunks are sent again, as the client has lost them.</li>
+ *     <li>{@code ENTITY}: entity ID. Answered by {@code ENTITY}: ID, class name, x, y, direction (byte), health
+ *     (-1 if not a mob); or by {@code REMOVE}: ID, if there is no such entity.</li>
+ *     <li>{@code TILE}: x, y, in a chunk sent to the client. Answered by {@code TILE}: depth, x, y, tile ID (short),
+ *     data (short).</li>
+ *     <li>{@code PLAYER}: nothing. Answered by {@code PLAYER}: x, y, direction (byte), health, hunger, stamina, score, depth.</li>
+ *     <li>{@code MOVE}: action ({@code MOVE-UP}, {@code MOVE-DOWN}, {@code MOVE-LEFT} or {@code MOVE-RIGHT}), down (boolean).</li>
+ *     <li>{@code INTERACT}, {@code PICKUP}: nothing; the player attacks or picks up, for a tick.</li>
+ *     <li>{@code DROP}: whole stack (boolean).</li>
+ *     <li>{@code RESPAWN}: nothing; the player is moved back to the spawn point.</li>
+ *     <li>{@code SHIRT}: shirt color.</li>
+ *     <li>{@code NOTIFY}: message, sent to all the clients as {@code NOTIFY}: "username: message".</li>
+ *     <li>{@code SAVE}: nothing; the world is saved. Only from the host, a client on the machine of the server.</li>
+ *     <li>{@code ACK}: the sequence number of the last {@code ENTITIES} update applied.</li>
+ *     <li>{@code DISCONNECT}: nothing.</li>
+ * </ul>
+ * The chunks around each player are sent to its client, the closest first and at a limited rate, as {@code TILES}:
+ * depth, chunk x, chunk y, and the tiles compressed by a {@link ChunkCodec}; then the tiles changed in those chunks,
+ * as {@code TILE} like the answer to {@code TILE}. The entities in the chunks are sent as {@code ENTITIES} updates,
+ * every few ticks, by {@link EntityReplication}. The entities and the tile changes are routed to the clients by the
+ * {@link InterestGrid} of each level.
+ * Other messages, and messages before logging in other than {@code PING}, {@code LOGIN}, {@code USERNAMES} and
+ * {@code DISCONNECT}, are answered by {@code INVALID}: the type (byte), reason. Invalid payloads close the connection,
+ * and so does a client not reading what is sent to it, past {@link #MAX_BUFFERED_BYTES}.
+ */
+public class MinicraftServer implements Closeable {
+	public static final int MAX_USERNAME_LENGTH = 32;
+	private static final int REPLICATION_INTERVAL = 3; // In ticks, so 20 entity updates per second.
+	public static final int DEFAULT_CHUNK_RATE = 256 * 1024; // In bytes per second per client.
+	private static final int MAX_PENDING_BYTES = 1 << 16; // Entity updates are skipped for clients with this much not sent yet.
+	public static final int MAX_BUFFERED_BYTES = 1 << 22; // Clients with this much not sent yet are disconnected.
+
+	private final Selector selector;
+	private final ServerSocketChannel serverChannel;
+	private final int maxPlayers;
+	private final ArrayList<RemoteClient> clients = new ArrayList<>();
+	private final PayloadWriter payload = new PayloadWriter(); // Reused for all the messages sent.
+	private final ChunkCodec codec = new ChunkCodec();
+	private final InterestGrid[] grids; // By level index.
+	private int chunkRate = DEFAULT_CHUNK_RATE;
+	private int ticks = 0;
+
+	private MinicraftServer(Selector selector, ServerSocketChannel serverChannel, int maxPlayers) {
+		this.selector = selector;
+		this.serverChannel = serverChannel;
+		this.maxPlayers = maxPlayers;
+		grids = new InterestGrid[Game.levels.length];
+		for (int i = 0; i < grids.length; i++) {
+			if (Game.levels[i] == null) continue;
+			grids[i] = new InterestGrid(Game.levels[i]);
+			Game.levels[i].addTileListener(grids[i]);
+		}
+	}
+
+	/**
+	 * Starts listening for clients.
+	 * @param address the address to listen on; port 0 picks a free port
+	 * @param maxPlayers the number of players that may be logged in at once
+	 */
+	public static MinicraftServer open(InetSocketAddress address, int maxPlayers) throws IOException {
+		Selector selector = Selector.open();
+		ServerSocketChannel channel = ServerSocketChannel.open();
+		try {
+			channel.configureBlocking(false);
+			channel.bind(address);
+			channel.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			channel.close();
+			selector.close();
+			throw e;
+		}
+
+		Logging.NETWORK.info("Listening on {} for up to {} players.", channel.getLocalAddress(), maxPlayers);
+		return new MinicraftServer(selector, channel, maxPlayers);
+	}
+
+	public InetSocketAddress getAddress() throws IOException {
+		return (InetSocketAddress) serverChannel.getLocalAddress();
+	}
+
+	/**
+	 * Sets the rate at which the chunks are sent to each client, {@link #DEFAULT_CHUNK_RATE} by default.
+	 */
+	public void setChunkRate(int bytesPerSecond) {
+		if (bytesPerSecond <= 0) throw new IllegalArgumentException("Invalid chunk rate " + bytesPerSecond);
+		chunkRate = bytesPerSecond;
+	}
+
+	/** @return the connected clients, logged in or not */
+	public List<RemoteClient> getClients() {
+		return Collections.unmodifiableList(clients);
+	}
+
+	/**
+	 * Accepts the new clients, and reads and handles their messages.
+	 * @param timeoutMillis how long to wait for the first network activity; 0 not to wait
+	 */
+	public void poll(long timeoutMillis) throws IOException {
+		if (timeoutMillis > 0) selector.select(timeoutMillis);
+		else selector.selectNow();
+
+		Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+		while (keys.hasNext()) {
+			SelectionKey key = keys.next();
+			keys.remove();
+			if (!key.isValid()) continue;
+
+			if (key.isAcceptable()) {
+				accept();
+				continue;
+			}
+
+			RemoteClient client = (RemoteClient) key.attachment();
+			if (key.isReadable()) read(client);
+			if (key.isValid() && key.isWritable()) write(client);
+		}
+	}
+
+	/** Applies the input of the players; called before each world tick. */
+	public void tickInputs() {
+		for (RemoteClient client : clients)
+			if (client.isLoggedIn()) client.tickInput();
+	}
+
+	/** Ends the single-tick actions of the players, and sends the chunk and entity updates; called after each world tick. */
+	public void endTick() {
+		for (RemoteClient client : clients)
+			client.releaseClicked();
+		for (InterestGrid grid : grids)
+			if (grid != null) grid.update();
+		for (RemoteClient client : clients) {
+			Player player = client.player;
+			if (player == null || player.getLevel() == null) continue;
+			updateView(client, player);
+			client.chunks.stream(player, client.connection, payload, codec, chunkRate, ChunkTickets.getViewDistance());
+		}
+		if (++ticks % REPLICATION_INTERVAL == 0) replicateEntities();
+	}
+
+	/** Writes what has been sent to the clients, as far as the sockets take it. */
+	public void flush() {
+		for (RemoteClient client : new ArrayList<>(clients)) {
+			write(client);
+			checkBuffered(client);
+		}
+	}
+
+	// Disconnects the client if it lets too much pile up, so that it cannot hold the memory of the server.
+	private boolean checkBuffered(RemoteClient client) {
+		if (client.connection.getPendingBytes() <= MAX_BUFFERED_BYTES) return true;
+		Logging.NETWORK.warn("{} is not reading; {} bytes are not sent.", client, client.connection.getPendingBytes());
+		disconnect(client, null);
+		return false;
+	}
+
+	/**
+	 * Sends a message to all the logged in clients.
+	 * @param payload the payload, which may be reused right after
+	 */
+	public void broadcast(InputType type, @Nullable PayloadWriter payload) {
+		for (RemoteClient client : clients)
+			if (client.isLoggedIn()) client.connection.send(type, payload);
+	}
+
+	/** Disconnects all the clients and stops listening. */
+	@Override
+	public void close() {
+		for (RemoteClient client : new ArrayList<>(clients))
+			disconnect(client, "Server closed");
+		for (InterestGrid grid : grids)
+			if (grid != null) grid.getLevel().removeTileListener(grid);
+		try {
+			serverChannel.close();
+			selector.close();
+		} catch (IOException e) {
+			Logging.NETWORK.warn("Could not close the server socket: {}", e.getMessage());
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel;
+		while ((channel = serverChannel.accept()) != null) {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			RemoteClient client = new RemoteClient(new Connection(channel), key);
+			key.attach(client);
+			clients.add(client);
+			Logging.NETWORK.debug("Connection from {}.", channel.getRemoteAddress());
+		}
+	}
+
+	private void read(RemoteClient client) {
+		try {
+			if (!client.connection.read()) {
+				disconnect(client, null);
+				return;
+			}
+
+			Message message;
+			while (client.key.isValid() && (message = client.connection.poll()) != null) {
+				try {
+					handle(client, message);
+				} catch (BufferUnderflowException | IllegalArgumentException e) {
+					throw new ProtocolException("Invalid " + message.type + " payload");
+				}
+				if (!checkBuffered(client)) return;
+			}
+		} catch (ProtocolException e) {
+			Logging.NETWORK.warn("Protocol error from {}: {}", client, e.getMessage());
+			disconnect(client, e.getMessage());
+		} catch (IOException e) {
+			Logging.NETWORK.debug("Connection to {} lost: {}", client, e.getMessage());
+			disconnect(client, null);
+		} catch (RuntimeException e) { // A bug handling a message should only cost the client sending it.
+			Logging.NETWORK.error(e, "Error handling a message from {}", client);
+			disconnect(client, "Internal server error");
+		}
+	}
+
+	private void write(RemoteClient client) {
+		if (!client.key.isValid()) return;
+		try {
+			boolean done = client.connection.flush();
+			// Waits for the socket to take more, if it could not take everything.
+			client.key.interestOps(done ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+		} catch (IOException e) {
+			Logging.NETWORK.debug("Connection to {} lost: {}", client, e.getMessage());
+			disconnect(client, null);
+		}
+	}
+
+	/**
+	 * Closes the connection and removes the player of the client.
+	 * @param reason the reason sent to the client; {@code null} if the connection is already lost
+	 */
+	private void disconnect(RemoteClient client, @Nullable String reason) {
+		if (!clients.remove(client)) return;
+		if (reason != null && client.key.isValid()) {
+			client.connection.send(InputType.DISCONNECT, payload.reset().putString(reason));
+			try {
+				client.connection.flush(); // Best effort; the client may not be reading.
+			} catch (IOException ignored) {
+			}
+		}
+
+		client.key.cancel();
+		client.connection.close();
+		if (client.grid != null) client.grid.removeView(client);
+		client.grid = null;
+		client.visible.clear();
+		if (client.player != null) {
+			Level level = client.player.getLevel();
+			if (level != null) level.remove(client.player);
+			Logging.NETWORK.info("{} left the game.", client.username);
+			notifyAll(client.username + " left the game.");
+			client.player = null;
+		}
+	}
+
+	private void handle(RemoteClient client, Message message) throws ProtocolException {
+		InputType type = message.type;
+		if (InputType.SERVER_ONLY.contains(type)) {
+			reject(client, type, "Only sent by the server");
+			return;
+		}
+
+		if (!client.isLoggedIn() && type != InputType.PING && type != InputType.LOGIN && type != InputType.USERNAMES &&
+			type != InputType.DISCONNECT) {
+			reject(client, type, "Not logged in");
+			return;
+		}
+
+		Player player = client.player;
+		switch (type) {
+			case INVALID:
+				if (message.remaining() == 0) {
+					Logging.NETWORK.debug("{} rejected a message.", client);
+					break;
+				}
+				int rejected = message.getByte() & 0xFF;
+				if (rejected >= InputType.VALUES.length) throw new ProtocolException("Unknown message type " + rejected);
+				Logging.NETWORK.debug("{} rejected a message: {}", client, InputType.VALUES[rejected]);
+				break;
+
+			case PING:
+				byte[] bytes = message.getBytes(message.remaining());
+				client.connection.send(InputType.PING, payload.reset().putBytes(bytes, 0, bytes.length));
+				break;
+
+			case LOGIN:
+				login(client, message.getString(), message.getString());
+				break;
+
+			case USERNAMES:
+				payload.reset().putShort(getPlayerCount());
+				for (RemoteClient other : clients)
+					if (other.isLoggedIn()) payload.putString(other.username);
+				client.connection.send(InputType.USERNAMES, payload);
+				break;
+
+			case LOAD:
+				client.chunks.reset();
+				break;
+
+			case ENTITY:
+				int eid = message.getInt();
+				Entity entity = Network.getEntity(eid);
+				if (entity == null) client.connection.send(InputType.REMOVE, payload.reset().putInt(eid));
+				else client.connection.send(InputType.ENTITY, writeEntity(payload.reset(), entity));
+				break;
+
+			case TILE:
+				int x = message.getInt(), y = message.getInt();
+				Level level = player.getLevel();
+				if (level == null) { // Dead, until it respawns.
+					reject(client, type, "Not in a level");
+					break;
+				}
+				// Only of the chunks sent, which are generated; others would be made, empty, to answer.
+				if (!client.chunks.hasTile(level, x, y) || level.chunkManager.getChunkStage(Math.floorDiv(x, ChunkManager.CHUNK_SIZE),
+					Math.floorDiv(y, ChunkManager.CHUNK_SIZE)) != ChunkManager.CHUNK_STAGE_DONE) {
+					reject(client, type, "Chunk not sent");
+					break;
+				}
+				client.connection.send(InputType.TILE, payload.reset().putInt(level.depth).putInt(x).putInt(y)
+					.putShort(level.getTile(x, y).id).putShort(level.getData(x, y)));
+				break;
+
+			case PLAYER:
+				if (player.getLevel() == null) {
+					reject(client, type, "Not in a level");
+					break;
+				}
+				client.connection.send(InputType.PLAYER, payload.reset().putInt(player.x).putInt(player.y)
+					.putByte(player.dir.getDir()).putInt(player.health).putInt(player.hunger).putInt(player.stamina)
+					.putInt(player.getScore()).putInt(player.getLevel().depth));
+				break;
+
+			case MOVE:
+				String action = message.getString().toUpperCase();
+				boolean down = message.getBoolean();
+				if (RemoteClient.MOVE_ACTIONS.contains(action)) client.setAction(action, down);
+				else reject(client, type, "Unknown movement " + action);
+				break;
+
+			case INTERACT:
+				client.clickAction("ATTACK");
+				break;
+
+			case PICKUP:
+				client.clickAction("PICKUP");
+				break;
+
+			case DROP:
+				client.clickAction(message.getBoolean() ? "DROP-STACK" : "DROP-ONE");
+				break;
+
+			case RESPAWN:
+				moveToSpawn(player);
+				break;
+
+			case SHIRT:
+				player.shirtColor = message.getInt();
+				break;
+
+			case NOTIFY:
+				notifyAll(client.username + ": " + message.getString());
+				break;
+
+			case SAVE:
+				if (!client.isHost()) {
+					reject(client, type, "Only the host may save");
+					break;
+				}
+				Logging.NETWORK.info("{} requested to save the world.", client.username);
+				new Save(WorldSelectDisplay.getWorldName());
+				client.connection.send(InputType.NOTIFY, payload.reset().putString("World saved."));
+				break;
+
+			case ACK:
+				client.replication.acknowledge(message.getInt());
+				break;
+
+			case DISCONNECT:
+				disconnect(client, null);
+				break;
+
+			default: // PUSH, CHESTIN, CHESTOUT, BED, POTION, DIE; pushing happens as the player walks into furniture.
+				reject(client, type, "Not supported by the dedicated server");
+		}
+	}
+
+	private void reject(RemoteClient client, InputType type, String reason) {
+		client.connection.send(InputType.INVALID, payload.reset().putByte(type.ordinal()).putString(reason));
+	}
+
+	private int getPlayerCount() {
+		int count = 0;
+		for (RemoteClient client : clients)
+			if (client.isLoggedIn()) count++;
+		return count;
+	}
+
+	private void login(RemoteClient client, String username, String version) {
+		String error = null;
+		username = username.trim();
+		if (client.isLoggedIn()) error = "Already logged in";
+		else if (!Version.isValid(version) || new Version(version).compareTo(Game.VERSION) != 0)
+			error = "Wrong version " + version + "; the server runs " + Game.VERSION;
+		else if (username.isEmpty() || username.length() > MAX_USERNAME_LENGTH)
+			error = "The username must have 1 to " + MAX_USERNAME_LENGTH + " characters";
+		else if (getPlayerCount() >= maxPlayers) error = "The server is full";
+		else {
+			for (RemoteClient other : clients)
+				if (other.isLoggedIn() && username.equalsIgnoreCase(other.username)) error = "The username is taken";
+		}
+
+		if (error != null) {
+			Logging.NETWORK.debug("Login of {} refused: {}", client, error);
+			disconnect(client, error);
+			return;
+		}
+
+		Player player = new Player(null, client.input);
+		client.username = username;
+		client.player = player;
+		Level level = moveToSpawn(player);
+		client.connection.send(InputType.INIT, payload.reset().putInt(player.eID).putInt(level.depth)
+			.putInt(player.x).putInt(player.y).putInt(level.w).putInt(Updater.gameTime));
+		Logging.NETWORK.info("{} joined the game.", client);
+		notifyAll(username + " joined the game.");
+	}
+
+	// Moves the player to the spawn point of the world, on the surface.
+	private static Level moveToSpawn(Player player) {
+		Level surface = Game.levels[World.lvlIdx(0)];
+		Level current = player.getLevel();
+		if (current != null && current != surface) current.remove(player);
+		player.spawnX = Game.player.spawnX;
+		player.spawnY = Game.player.spawnY;
+		surface.add(player, player.spawnX, player.spawnY, true);
+		return surface;
+	}
+
+	private void notifyAll(String message) {
+		broadcast(InputType.NOTIFY, payload.reset().putString(message));
+	}
+
+	// Subscribes the client to the cells around its player, on the level of the player.
+	private void updateView(RemoteClient client, Player player) {
+		InterestGrid grid = grids[World.lvlIdx(player.getLevel().depth)];
+		if (client.grid != grid) {
+			if (client.grid != null) client.grid.removeView(client);
+			client.grid = grid;
+		}
+		grid.setView(client, player.x >> Tile.TILE_SIZE_SHIFT, player.y >> Tile.TILE_SIZE_SHIFT,
+			ChunkTickets.getViewDistance());
+	}
+
+	// Sends the entities in the view of each client, as the changes since the last update it acknowledged.
+	private void replicateEntities() {
+		for (RemoteClient client : clients) {
+			Player player = client.player;
+			if (player == null || player.getLevel() == null) continue;
+			if (client.connection.getPendingBytes() > MAX_PENDING_BYTES) continue; // Caught up by the next update.
+
+			long fullUpdates = client.replication.getFullUpdates();
+			if (!client.replication.write(EntitySnapshot.capture(client.visible), payload)) continue;
+			client.connection.send(InputType.ENTITIES, payload);
+			if (client.replication.getFullUpdates() > fullUpdates) Metrics.ENTITY_UPDATES_FULL.increment();
+			else Metrics.ENTITY_UPDATES_DELTA.increment();
+			Metrics.ENTITY_UPDATE_BYTES.add(payload.length());
+		}
+	}
+
+	private static PayloadWriter writeEntity(PayloadWriter payload, Entity entity) {
+		payload.putInt(entity.eID).putString(entity.getClass().getSimpleName()).putInt(entity.x).putInt(entity.y);
+		if (entity instanceof Mob) payload.putByte(((Mob) entity).dir.getDir()).putInt(((Mob) entity).health);
+		else payload.putByte(0).putInt(-1);
+		return payload;
+	}
+}
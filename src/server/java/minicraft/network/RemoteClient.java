@@ -0,0 +1,123 @@
+package minicraft.network;
+
+import minicraft.core.io.InputHandler;
+import minicraft.entity.Entity;
+import minicraft.entity.mob.Player;
+import minicraft.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A client connected to the {@link MinicraftServer}, and the player it controls once logged in.
+ * The player is driven by an input handler of its own, fed with the actions sent by the client.
+ * The client sees the entities and the tile changes of the cells of its {@link InterestGrid} around the player.
+ */
+public class RemoteClient implements InterestGrid.Subscriber {
+	/** The actions held down by {@link MinicraftProtocol.InputType#MOVE} messages. */
+	static final List<String> MOVE_ACTIONS = Arrays.asList("MOVE-UP", "MOVE-DOWN", "MOVE-LEFT", "MOVE-RIGHT");
+
+	final Connection connection;
+	final SelectionKey key;
+	final InputHandler input = new InputHandler(false);
+	final EntityReplication.Sender replication = new EntityReplication.Sender();
+	final ChunkStream chunks = new ChunkStream();
+	final HashSet<Entity> visible = new HashSet<>(); // The entities in the cells of the view.
+	@Nullable InterestGrid grid = null; // Of the level of the player.
+
+	@Nullable String username = null; // Set once logged in.
+	@Nullable Player player = null;
+	private final ArrayList<String> clicked = new ArrayList<>(); // The keys to be released after the next tick.
+
+	RemoteClient(Connection connection, SelectionKey key) {
+		this.connection = connection;
+		this.key = key;
+	}
+
+	public boolean isLoggedIn() {
+		return player != null;
+	}
+
+	/** @return whether the client is on the machine of the server, as the host */
+	public boolean isHost() {
+		SocketAddress address = connection.getRemoteAddress();
+		return address instanceof InetSocketAddress && ((InetSocketAddress) address).getAddress() != null &&
+			((InetSocketAddress) address).getAddress().isLoopbackAddress();
+	}
+
+	@Nullable
+	public String getUsername() {
+		return username;
+	}
+
+	@Nullable
+	public Player getPlayer() {
+		return player;
+	}
+
+	public Connection getConnection() {
+		return connection;
+	}
+
+	@Override
+	public void entityEntered(Entity entity) {
+		visible.add(entity);
+	}
+
+	@Override
+	public void entityLeft(Entity entity) {
+		visible.remove(entity);
+	}
+
+	@Override
+	public void tileChanged(Level level, int x, int y) {
+		chunks.tileChanged(level, x, y);
+	}
+
+	/**
+	 * Holds or releases an action, like the keys bound to it would.
+	 */
+	void setAction(String action, boolean down) {
+		for (String key : getKeys(action))
+			input.pressKey(key, down);
+	}
+
+	/**
+	 * Presses an action for a single tick, like a click of the keys bound to it.
+	 */
+	void clickAction(String action) {
+		for (String key : getKeys(action)) {
+			input.pressKey(key, true);
+			clicked.add(key);
+		}
+	}
+
+	/** Called before each world tick. */
+	void tickInput() {
+		input.tick();
+	}
+
+	/** Called after each world tick. */
+	void releaseClicked() {
+		for (String key : clicked)
+			input.pressKey(key, false);
+		clicked.clear();
+	}
+
+	// The keys of the first default binding of the action; modifiers come first, as in "SHIFT-Q".
+	private String[] getKeys(String action) {
+		String mapping = input.getMapping(action);
+		return mapping.split("/")[0].split("-");
+	}
+
+	@Override
+	public String toString() {
+		return (username == null ? "?" : username) + " (" + connection.getRemoteAddress() + ")";
+	}
+}